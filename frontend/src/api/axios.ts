@@ -21,4 +21,52 @@ api.interceptors.request.use(
     }
 );
 
+// Refresh tokens are single-use: parallel 401s must share one refresh instead of racing each other
+let refreshing: Promise<string> | null = null;
+
+const refreshAccessToken = (refreshToken: string): Promise<string> => {
+    if (!refreshing) {
+        refreshing = api.post('/auth/refresh', { refreshToken })
+            .then(({ data }) => {
+                localStorage.setItem('token', data.token);
+                localStorage.setItem('refreshToken', data.refreshToken);
+                localStorage.setItem('role', data.role);
+                return data.token as string;
+            })
+            .catch((refreshError) => {
+                localStorage.removeItem('token');
+                localStorage.removeItem('refreshToken');
+                throw refreshError;
+            })
+            .finally(() => {
+                refreshing = null;
+            });
+    }
+    return refreshing;
+};
+
+// Access token lives 15 minutes: on 401 exchange the refresh token once and retry the request
+api.interceptors.response.use(
+    (response) => response,
+    async (error) => {
+        const original = error.config;
+        const refreshToken = localStorage.getItem('refreshToken');
+        if (error.response?.status !== 401 || !refreshToken || original._retried || original.url === '/auth/refresh') {
+            return Promise.reject(error);
+        }
+        original._retried = true;
+        try {
+            // The request may have been sent with a token that another request has already refreshed
+            const current = localStorage.getItem('token');
+            const token = current && original.headers.Authorization !== `Bearer ${current}`
+                ? current
+                : await refreshAccessToken(refreshToken);
+            original.headers.Authorization = `Bearer ${token}`;
+            return api(original);
+        } catch (refreshError) {
+            return Promise.reject(error);
+        }
+    }
+);
+
 export default api;
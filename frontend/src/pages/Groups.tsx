@@ -47,11 +47,8 @@ const Groups = () => {
     const handleDeleteClick = async (group: Group) => {
         // Fetch student count for this group
         try {
-            const studentsResponse = await api.get('/students');
-            const studentsInGroup = studentsResponse.data.filter(
-                (s: any) => s.group && s.group.id === group.id
-            );
-            setGroupToDelete({ ...group, studentCount: studentsInGroup.length });
+            const studentsResponse = await api.get(`/groups/${group.id}/students`);
+            setGroupToDelete({ ...group, studentCount: studentsResponse.data.length });
             setDeleteConfirmOpen(true);
         } catch (error) {
             console.error('Error fetching students:', error);
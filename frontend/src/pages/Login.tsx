@@ -24,7 +24,8 @@ const Login = () => {
                 password
             });
 
-            const { token, username: user, role } = response.data;
+            const { token, refreshToken, username: user, role } = response.data;
+            localStorage.setItem('refreshToken', refreshToken);
             login(token, user, role);
             navigate('/dashboard');
         } catch (err: any) {
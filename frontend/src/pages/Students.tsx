@@ -9,6 +9,13 @@ interface Group {
     name: string;
 }
 
+const PAGE_SIZE = 100;
+
+interface StudentPage {
+    items: Student[];
+    nextCursor: string | null;
+}
+
 interface Student {
     id: number;
     firstName: string;
@@ -21,6 +28,8 @@ interface Student {
 const Students = () => {
     const [students, setStudents] = useState<Student[]>([]);
     const [loading, setLoading] = useState(true);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [searchTerm, setSearchTerm] = useState('');
     const [isModalOpen, setIsModalOpen] = useState(false);
     const [selectedStudent, setSelectedStudent] = useState<Student | null>(null);
@@ -31,10 +40,18 @@ const Students = () => {
         fetchStudents();
     }, []);
 
+    const fetchPage = async (after: string | null) => {
+        const response = await api.get<StudentPage>('/students', {
+            params: { after, limit: PAGE_SIZE, sort: 'lastName' },
+        });
+        setNextCursor(response.data.nextCursor);
+        return response.data.items;
+    };
+
+    // Список отдаётся страницами (keyset-пагинация): грузим первую, остальные — по кнопке
     const fetchStudents = async () => {
         try {
-            const response = await api.get('/students');
-            setStudents(response.data);
+            setStudents(await fetchPage(null));
         } catch (error) {
             console.error('Error fetching students:', error);
         } finally {
@@ -42,6 +59,19 @@ const Students = () => {
         }
     };
 
+    const handleLoadMore = async () => {
+        if (nextCursor === null) return;
+        setLoadingMore(true);
+        try {
+            const items = await fetchPage(nextCursor);
+            setStudents(prev => [...prev, ...items]);
+        } catch (error) {
+            console.error('Error fetching students:', error);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const handleAdd = () => {
         setSelectedStudent(null);
         setIsModalOpen(true);
@@ -179,6 +209,18 @@ const Students = () => {
                         </tbody>
                     </table>
                 </div>
+
+                {nextCursor !== null && (
+                    <div className="p-4 border-t border-slate-100 text-center">
+                        <button
+                            onClick={handleLoadMore}
+                            disabled={loadingMore}
+                            className="px-4 py-2 rounded-xl text-blue-600 hover:bg-blue-50 transition-colors disabled:opacity-70 disabled:cursor-not-allowed"
+                        >
+                            {loadingMore ? 'Загрузка...' : 'Показать ещё'}
+                        </button>
+                    </div>
+                )}
             </div>
 
             <StudentModal
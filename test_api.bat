@@ -16,9 +16,10 @@ set FAILED=0
 
 REM Проверка доступности сервера
 echo [1/10] Checking server availability...
+REM Без токена API отвечает 401 - значит, сервер жив
 curl -s -o nul -w "%%{http_code}" %BASE_URL%/dashboard/stats > temp.txt
 set /p STATUS=<temp.txt
-if "%STATUS%"=="200" (
+if "%STATUS%"=="401" (
     echo [OK] Server is running
     set /a PASSED+=1
 ) else (
@@ -43,6 +44,8 @@ if %errorlevel%==0 (
     type response.json
     set /a FAILED+=1
 )
+REM Access-токен для остальных запросов
+for /f "delims=" %%t in ('powershell -NoProfile -Command "(Get-Content response.json | ConvertFrom-Json).token"') do set TOKEN=%%t
 del response.json
 echo.
 
@@ -65,7 +68,7 @@ echo.
 
 REM Тест 3: Генерация учетных данных
 echo [4/10] Testing credentials generation...
-curl -s -X POST %BASE_URL%/users/generate-credentials ^
+curl -s -H "Authorization: Bearer %TOKEN%" -X POST %BASE_URL%/users/generate-credentials ^
   -H "Content-Type: application/json" ^
   -d "{\"firstName\":\"Test\",\"lastName\":\"User\"}" > response.json
 
@@ -83,7 +86,7 @@ echo.
 
 REM Тест 4: Получение списка преподавателей
 echo [5/10] Testing get teachers list...
-curl -s %BASE_URL%/users/teachers > response.json
+curl -s -H "Authorization: Bearer %TOKEN%" %BASE_URL%/users/teachers > response.json
 findstr /C:"[" response.json >nul
 if %errorlevel%==0 (
     echo [OK] Teachers list received
@@ -97,7 +100,7 @@ echo.
 
 REM Тест 5: Получение списка студентов
 echo [6/10] Testing get students list...
-curl -s %BASE_URL%/users/students > response.json
+curl -s -H "Authorization: Bearer %TOKEN%" %BASE_URL%/users/students > response.json
 findstr /C:"[" response.json >nul
 if %errorlevel%==0 (
     echo [OK] Students list received
@@ -111,7 +114,7 @@ echo.
 
 REM Тест 6: Получение статистики Dashboard
 echo [7/10] Testing dashboard stats...
-curl -s %BASE_URL%/dashboard/stats > response.json
+curl -s -H "Authorization: Bearer %TOKEN%" %BASE_URL%/dashboard/stats > response.json
 findstr /C:"totalStudents" response.json >nul
 if %errorlevel%==0 (
     echo [OK] Dashboard stats received
@@ -126,7 +129,7 @@ echo.
 
 REM Тест 7: Получение списка всех студентов (полная информация)
 echo [8/10] Testing get all students (full info)...
-curl -s -o nul -w "%%{http_code}" %BASE_URL%/students > temp.txt
+curl -s -H "Authorization: Bearer %TOKEN%" -o nul -w "%%{http_code}" %BASE_URL%/students > temp.txt
 set /p STATUS=<temp.txt
 if "%STATUS%"=="200" (
     echo [OK] Students endpoint accessible (Status: %STATUS%)
@@ -140,7 +143,7 @@ echo.
 
 REM Тест 8: Получение списка предметов
 echo [9/10] Testing get subjects...
-curl -s -o nul -w "%%{http_code}" %BASE_URL%/subjects > temp.txt
+curl -s -H "Authorization: Bearer %TOKEN%" -o nul -w "%%{http_code}" %BASE_URL%/subjects > temp.txt
 set /p STATUS=<temp.txt
 if "%STATUS%"=="200" (
     echo [OK] Subjects endpoint accessible (Status: %STATUS%)
@@ -154,7 +157,7 @@ echo.
 
 REM Тест 9: Получение списка групп
 echo [10/10] Testing get groups...
-curl -s -o nul -w "%%{http_code}" %BASE_URL%/groups > temp.txt
+curl -s -H "Authorization: Bearer %TOKEN%" -o nul -w "%%{http_code}" %BASE_URL%/groups > temp.txt
 set /p STATUS=<temp.txt
 if "%STATUS%"=="200" (
     echo [OK] Groups endpoint accessible (Status: %STATUS%)
@@ -0,0 +1,55 @@
+package com.agn.web.config;
+
+import com.agn.web.entity.Role;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Состав группы (List&lt;Student&gt;) по id группы */
+    public static final String GROUP_ROSTERS = "groupRosters";
+
+    /** Назначения и несданные оценки преподавателя для его дашборда, по id преподавателя */
+    public static final String TEACHER_DASHBOARDS = "teacherDashboards";
+
+    /** Снимок учётных данных для входа (логин, хэш пароля, роль) по логину */
+    public static final String USER_DETAILS = "userDetails";
+
+    /** Отсортированный справочник пользователей (id, логин, ФИО) по роли */
+    public static final String USER_DIRECTORY = "userDirectory";
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Сброс — после коммита по событиям; TTL страхует от чтения, начатого до коммита и записанного после сброса
+        cacheManager.registerCustomCache(GROUP_ROSTERS, Caffeine.newBuilder()
+                .maximumSize(2_000)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(TEACHER_DASHBOARDS, Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(Duration.ofSeconds(30))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(USER_DETAILS, Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .recordStats()
+                .build());
+        // Ключ — роль, записей не больше числа ролей; сбрасывается при любом изменении пользователей
+        cacheManager.registerCustomCache(USER_DIRECTORY, Caffeine.newBuilder()
+                .maximumSize(Role.values().length)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
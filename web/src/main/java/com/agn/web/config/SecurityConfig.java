@@ -1,9 +1,13 @@
 package com.agn.web.config;
 
 import com.agn.web.service.CustomUserDetailsService;
+import com.agn.web.service.TokenService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -11,27 +15,48 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private static final int PASSWORD_HASHING_QUEUE = 64;
+    private static final long PASSWORD_HASHING_MAX_WAIT_MILLIS = 3_000;
+
     private final CustomUserDetailsService userDetailsService;
+    private final TokenService tokenService;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable) // Для REST API CSRF обычно отключают (если используем JWT)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/**").permitAll() // Временно разрешаем все API запросы для отладки
+                        // Повторные диспетчеризации (SSE, /error) уже прошли проверку на исходном запросе
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                        .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers("/api/caches/**", "/api/security/**").hasRole("ADMIN")
+                        // Справочники для выбора преподавателя/студента нужны и преподавателям
+                        .requestMatchers(HttpMethod.GET, "/api/users/teachers", "/api/users/students")
+                                .hasAnyRole("ADMIN", "TEACHER")
+                        // Учётные записи, удаления и массовые операции — только администратор
+                        .requestMatchers("/api/users/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.DELETE, "/api/**").hasRole("ADMIN")
+                        .requestMatchers("/api/delete-jobs/**", "/api/timetable/jobs/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/lessons/generate", "/api/students/import",
+                                "/api/discipline-groups/batch").hasRole("ADMIN")
+                        .requestMatchers("/api/**").authenticated()
                         .anyRequest().authenticated()
                 )
-                // Пока оставляем formLogin для тестирования, но в будущем перейдем на JWT
-                // .formLogin(AbstractHttpConfigurer::disable) 
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class)
                 .httpBasic(AbstractHttpConfigurer::disable); // Отключаем Basic Auth
 
         return http.build();
@@ -42,6 +67,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Слабые хэши (стартовые пароли) перехэшируются при первом успешном входе
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -50,8 +77,11 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    // BCrypt занимает ядро ~100 мс: не больше половины ядер, остальное — на обычные запросы
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, PASSWORD_HASHING_QUEUE,
+                PASSWORD_HASHING_MAX_WAIT_MILLIS);
     }
 }
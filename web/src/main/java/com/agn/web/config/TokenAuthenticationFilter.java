@@ -0,0 +1,57 @@
+package com.agn.web.config;
+
+import com.agn.web.service.TokenService;
+import com.agn.web.service.TokenService.TokenType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates API requests from a bearer access token. Only the signature and the in-memory
+ * revocation list are checked, so no request goes to the database.
+ */
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+    // EventSource в браузере не умеет слать заголовки
+    private static final String LIVE_PATH = "/api/live";
+    private static final String TOKEN_PARAM = "access_token";
+
+    private final TokenService tokenService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = resolveToken(request);
+        if (token != null) {
+            tokenService.verify(token, TokenType.ACCESS).ifPresent(claims -> {
+                var authentication = new UsernamePasswordAuthenticationToken(claims, null,
+                        List.of(new SimpleGrantedAuthority("ROLE_" + claims.role().name())));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            });
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER)) {
+            return header.substring(BEARER.length()).trim();
+        }
+        if (LIVE_PATH.equals(request.getRequestURI())) {
+            return request.getParameter(TOKEN_PARAM);
+        }
+        return null;
+    }
+}
@@ -2,20 +2,38 @@ package com.agn.web.controller;
 
 import com.agn.web.dto.AuthResponse;
 import com.agn.web.dto.LoginRequest;
+import com.agn.web.dto.RefreshTokenRequest;
 import com.agn.web.dto.RegisterRequest;
 import com.agn.web.entity.Role;
 import com.agn.web.entity.User;
+import com.agn.web.event.EntityChangeEvent;
 import com.agn.web.repository.UserRepository;
+import com.agn.web.service.CustomUserDetailsService;
+import com.agn.web.service.CustomUserDetailsService.AccountDetails;
+import com.agn.web.service.LoginThrottle;
+import com.agn.web.service.TokenService;
+import com.agn.web.service.TokenService.TokenClaims;
+import com.agn.web.service.TokenService.TokenPair;
+import com.agn.web.service.TokenService.TokenType;
+import com.agn.web.service.TooManyRequestsException;
+import com.agn.web.service.UsernameAllocator;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -24,34 +42,100 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenService tokenService;
+    private final CustomUserDetailsService userDetailsService;
+    private final LoginThrottle loginThrottle;
+    private final UsernameAllocator usernameAllocator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request) {
-        if (userRepository.findByUsername(request.username()).isPresent()) {
+        if (!usernameAllocator.claim(request.username())) {
             return ResponseEntity.badRequest().build();
         }
 
         User user = new User();
         user.setUsername(request.username());
-        user.setPassword(passwordEncoder.encode(request.password()));
         user.setFirstName(request.firstName());
         user.setLastName(request.lastName());
         user.setRole(Role.STUDENT); // Default role для новых пользователей
+        try {
+            user.setPassword(passwordEncoder.encode(request.password()));
+            userRepository.save(user);
+        } catch (RuntimeException e) {
+            usernameAllocator.release(request.username());
+            throw e;
+        }
+        userDetailsService.evict(user.getUsername());
+        eventPublisher.publishEvent(EntityChangeEvent.created(User.class, user.getId(), user));
 
-        userRepository.save(user);
-
-        return ResponseEntity.ok(new AuthResponse("dummy-token", user.getUsername(), user.getRole().name()));
+        return ResponseEntity.ok(toResponse(user));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.username(), request.password())
-        );
-
-        User user = userRepository.findByUsername(request.username()).orElseThrow();
-        // В реальном приложении здесь была бы генерация JWT
-        return ResponseEntity.ok(new AuthResponse("dummy-token", user.getUsername(), user.getRole().name()));
+    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        String ip = httpRequest.getRemoteAddr();
+        Authentication authentication;
+        LoginThrottle.Attempt attempt;
+        try {
+            // Отказ по счётчикам — до BCrypt, чтобы перебор не тратил процессор.
+            // Попытка сразу засчитывается как неудачная и снимается только при успешном входе
+            attempt = loginThrottle.reserve(request.username(), ip);
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.username(), request.password())
+            );
+        } catch (TooManyRequestsException e) {
+            // Пул хэширования переполнен — пароль не проверялся, попытку не засчитываем
+            loginThrottle.release(attempt);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        loginThrottle.recordSuccess(attempt);
+
+        // id и роль уже есть в снимке из кэша учётных данных — повторный запрос к БД не нужен
+        AccountDetails account = (AccountDetails) authentication.getPrincipal();
+        TokenPair tokens = tokenService.issue(account.getId(), account.getUsername(), account.getRole());
+        return ResponseEntity.ok(new AuthResponse(tokens.accessToken(), tokens.refreshToken(), tokens.expiresIn(),
+                account.getUsername(), account.getRole().name()));
+    }
+
+    /**
+     * Exchanges a refresh token for a new token pair. The used refresh token is revoked, and the role
+     * is re-read, so a changed role takes effect here.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody RefreshTokenRequest request) {
+        Optional<TokenClaims> claims = Optional.ofNullable(request.refreshToken())
+                .flatMap(token -> tokenService.verify(token, TokenType.REFRESH));
+        Optional<User> user = claims.flatMap(c -> userRepository.findById(c.userId()));
+        if (user.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        tokenService.revoke(claims.get());
+        return ResponseEntity.ok(toResponse(user.get()));
+    }
+
+    /**
+     * Revokes the current access token and, if given, the refresh token.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal TokenClaims principal,
+                                       @RequestBody(required = false) RefreshTokenRequest request) {
+        if (principal != null) {
+            tokenService.revoke(principal);
+        }
+        if (request != null && request.refreshToken() != null) {
+            tokenService.verify(request.refreshToken(), TokenType.REFRESH).ifPresent(tokenService::revoke);
+        }
+        return ResponseEntity.ok().build();
     }
-}
 
+    private AuthResponse toResponse(User user) {
+        TokenPair tokens = tokenService.issue(user);
+        return new AuthResponse(tokens.accessToken(), tokens.refreshToken(), tokens.expiresIn(),
+                user.getUsername(), user.getRole().name());
+    }
+}
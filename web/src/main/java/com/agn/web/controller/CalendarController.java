@@ -0,0 +1,72 @@
+package com.agn.web.controller;
+
+import com.agn.web.dto.FreeSlotDTO;
+import com.agn.web.dto.LessonDTO;
+import com.agn.web.entity.Lesson.LessonType;
+import com.agn.web.service.LessonCalendarService;
+import com.agn.web.service.LessonCalendarService.CalendarFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Calendar queries served from memory; every endpoint accepts optional {@code groupId}, {@code teacherId}
+ * and {@code type} filters.
+ */
+@RestController
+@RequestMapping("/api/calendar")
+@RequiredArgsConstructor
+public class CalendarController {
+
+    private static final int MAX_LIMIT = 200;
+
+    private final LessonCalendarService lessonCalendarService;
+
+    @GetMapping("/today")
+    public List<LessonDTO> getToday(@RequestParam(required = false) Long groupId,
+                                    @RequestParam(required = false) Long teacherId,
+                                    @RequestParam(required = false) LessonType type) {
+        return lessonCalendarService.getToday(new CalendarFilter(groupId, teacherId, type));
+    }
+
+    @GetMapping("/day")
+    public List<LessonDTO> getDay(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                  @RequestParam(required = false) Long groupId,
+                                  @RequestParam(required = false) Long teacherId,
+                                  @RequestParam(required = false) LessonType type) {
+        return lessonCalendarService.getDay(date, new CalendarFilter(groupId, teacherId, type));
+    }
+
+    @GetMapping("/upcoming")
+    public List<LessonDTO> getUpcoming(@RequestParam(defaultValue = "10") int limit,
+                                       @RequestParam(required = false) Long groupId,
+                                       @RequestParam(required = false) Long teacherId,
+                                       @RequestParam(required = false) LessonType type) {
+        return lessonCalendarService.getUpcoming(LocalDateTime.now(), Math.max(1, Math.min(limit, MAX_LIMIT)),
+                new CalendarFilter(groupId, teacherId, type));
+    }
+
+    /**
+     * Free windows of the group or teacher, e.g. {@code ?date=2025-03-03&groupId=1&from=08:00&to=20:00&minMinutes=90}.
+     */
+    @GetMapping("/free-slots")
+    public List<FreeSlotDTO> getFreeSlots(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                          @RequestParam(defaultValue = "08:00") LocalTime from,
+                                          @RequestParam(defaultValue = "20:00") LocalTime to,
+                                          @RequestParam(defaultValue = "90") int minMinutes,
+                                          @RequestParam(required = false) Long groupId,
+                                          @RequestParam(required = false) Long teacherId,
+                                          @RequestParam(required = false) LessonType type) {
+        return lessonCalendarService.getFreeSlots(date, from, to, Duration.ofMinutes(Math.max(1, minMinutes)),
+                new CalendarFilter(groupId, teacherId, type));
+    }
+}
@@ -1,10 +1,12 @@
 package com.agn.web.controller;
 
 import com.agn.web.dto.DashboardStatsDTO;
+import com.agn.web.dto.TeacherDashboardDTO;
 import com.agn.web.service.DashboardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -19,4 +21,13 @@ public class DashboardController {
     public ResponseEntity<DashboardStatsDTO> getStats() {
         return ResponseEntity.ok(dashboardService.getStats());
     }
+
+    @GetMapping("/teacher/{id}")
+    public ResponseEntity<TeacherDashboardDTO> getTeacherDashboard(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(dashboardService.getTeacherDashboard(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.agn.web.controller;
+
+import com.agn.web.dto.DeleteJobDTO;
+import com.agn.web.service.CascadeDeleteJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/delete-jobs")
+@RequiredArgsConstructor
+public class DeleteJobController {
+
+    private final CascadeDeleteJobService cascadeDeleteJobService;
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<DeleteJobDTO> getJob(@PathVariable String jobId) {
+        return cascadeDeleteJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
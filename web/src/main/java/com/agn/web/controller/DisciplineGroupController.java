@@ -1,8 +1,15 @@
 package com.agn.web.controller;
 
+import com.agn.web.dto.DisciplineGroupBatchReport;
+import com.agn.web.dto.DisciplineGroupBatchRequest;
+import com.agn.web.dto.DisciplineGroupDTO;
+import com.agn.web.dto.GradebookMatrixDTO;
 import com.agn.web.entity.DisciplineGroup;
 import com.agn.web.service.DisciplineGroupService;
+import com.agn.web.service.GradebookService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,24 +21,37 @@ import java.util.List;
 public class DisciplineGroupController {
 
     private final DisciplineGroupService disciplineGroupService;
+    private final GradebookService gradebookService;
 
     @GetMapping
-    public List<DisciplineGroup> getAllDisciplineGroups() {
+    public List<DisciplineGroupDTO> getAllDisciplineGroups() {
         return disciplineGroupService.getAllDisciplineGroups();
     }
 
     @GetMapping("/teacher/{teacherId}")
-    public List<DisciplineGroup> getDisciplineGroupsByTeacher(@PathVariable Long teacherId) {
+    public List<DisciplineGroupDTO> getDisciplineGroupsByTeacher(@PathVariable Long teacherId) {
         return disciplineGroupService.getDisciplineGroupsByTeacher(teacherId);
     }
 
     @GetMapping("/group/{groupId}")
-    public List<DisciplineGroup> getDisciplineGroupsByGroup(@PathVariable Long groupId) {
+    public List<DisciplineGroupDTO> getDisciplineGroupsByGroup(@PathVariable Long groupId) {
         return disciplineGroupService.getDisciplineGroupsByGroup(groupId);
     }
 
+    /**
+     * Assignments filtered by any combination of teacher, group, subject, semester and year.
+     */
+    @GetMapping("/search")
+    public List<DisciplineGroupDTO> searchDisciplineGroups(@RequestParam(required = false) Long teacherId,
+                                                           @RequestParam(required = false) Long groupId,
+                                                           @RequestParam(required = false) Long subjectId,
+                                                           @RequestParam(required = false) Integer semester,
+                                                           @RequestParam(required = false) Integer year) {
+        return disciplineGroupService.findDisciplineGroups(teacherId, groupId, subjectId, semester, year);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<DisciplineGroup> getDisciplineGroupById(@PathVariable Long id) {
+    public ResponseEntity<DisciplineGroupDTO> getDisciplineGroupById(@PathVariable Long id) {
         try {
             return ResponseEntity.ok(disciplineGroupService.getDisciplineGroupById(id));
         } catch (RuntimeException e) {
@@ -39,18 +59,49 @@ public class DisciplineGroupController {
         }
     }
 
+    /**
+     * Students x lessons matrix of grades and attendance in columnar form.
+     */
+    @GetMapping("/{id}/gradebook")
+    public ResponseEntity<GradebookMatrixDTO> getGradebook(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(gradebookService.getMatrix(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @PostMapping
-    public DisciplineGroup createDisciplineGroup(@RequestBody DisciplineGroup disciplineGroup) {
-        return disciplineGroupService.saveDisciplineGroup(disciplineGroup);
+    public ResponseEntity<DisciplineGroupDTO> createDisciplineGroup(@RequestBody DisciplineGroup disciplineGroup) {
+        try {
+            return ResponseEntity.ok(disciplineGroupService.saveDisciplineGroup(disciplineGroup));
+        } catch (DataIntegrityViolationException e) {
+            // Предмет уже назначен этой группе в этом семестре
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Assigns one subject to many groups at once; groups that already have it this semester are skipped.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<DisciplineGroupBatchReport> assignSubjectToGroups(@RequestBody DisciplineGroupBatchRequest request) {
+        try {
+            return ResponseEntity.ok(disciplineGroupService.assignSubjectToGroups(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<DisciplineGroup> updateDisciplineGroup(
+    public ResponseEntity<DisciplineGroupDTO> updateDisciplineGroup(
             @PathVariable Long id,
             @RequestBody DisciplineGroup disciplineGroup) {
         try {
             disciplineGroup.setId(id);
             return ResponseEntity.ok(disciplineGroupService.saveDisciplineGroup(disciplineGroup));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
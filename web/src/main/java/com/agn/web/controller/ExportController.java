@@ -0,0 +1,99 @@
+package com.agn.web.controller;
+
+import com.agn.web.repository.GroupRepository;
+import com.agn.web.service.ExportService;
+import com.agn.web.service.ExportService.ExportFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming exports, e.g. {@code GET /api/export/grades?format=csv&groupId=3}.
+ * The body is written from a database cursor while the response is being sent.
+ */
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+    private final GroupRepository groupRepository;
+
+    @GetMapping("/students")
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long groupId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export("students", format, groupId, acceptEncoding, exportService::exportStudents);
+    }
+
+    @GetMapping("/grades")
+    public ResponseEntity<StreamingResponseBody> exportGrades(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long groupId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export("grades", format, groupId, acceptEncoding, exportService::exportGrades);
+    }
+
+    @GetMapping("/attendance")
+    public ResponseEntity<StreamingResponseBody> exportAttendance(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long groupId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export("attendance", format, groupId, acceptEncoding, exportService::exportAttendance);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String name, String format, Long groupId,
+                                                         String acceptEncoding, Exporter exporter) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Проверяем до начала стрима: после первых байт статус уже не поменять
+        if (groupId != null && !groupRepository.existsById(groupId)) {
+            return ResponseEntity.notFound().build();
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                exporter.export(out, exportFormat, groupId);
+                return;
+            }
+            // syncFlush: каждый flush() сразу отправляет накопленные сжатые данные
+            GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192, true);
+            exporter.export(gzipOut, exportFormat, groupId);
+            gzipOut.finish();
+            gzipOut.flush();
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + "." + exportFormat.extension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @FunctionalInterface
+    private interface Exporter {
+        void export(OutputStream out, ExportFormat format, Long groupId) throws IOException;
+    }
+}
@@ -0,0 +1,40 @@
+package com.agn.web.controller;
+
+import com.agn.web.dto.GradeAverageDTO;
+import com.agn.web.service.GradeAggregateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Average scores served from in-memory running aggregates; {@code average} is null when there are no grades.
+ */
+@RestController
+@RequestMapping("/api/grades/averages")
+@RequiredArgsConstructor
+public class GradeAverageController {
+
+    private final GradeAggregateService gradeAggregateService;
+
+    @GetMapping
+    public GradeAverageDTO getOverall() {
+        return gradeAggregateService.getOverall();
+    }
+
+    @GetMapping("/groups/{id}")
+    public GradeAverageDTO getForGroup(@PathVariable Long id) {
+        return gradeAggregateService.getForGroup(id);
+    }
+
+    @GetMapping("/subjects/{id}")
+    public GradeAverageDTO getForSubject(@PathVariable Long id) {
+        return gradeAggregateService.getForSubject(id);
+    }
+
+    @GetMapping("/students/{id}")
+    public GradeAverageDTO getForStudent(@PathVariable Long id) {
+        return gradeAggregateService.getForStudent(id);
+    }
+}
@@ -1,8 +1,15 @@
 package com.agn.web.controller;
 
+import com.agn.web.dto.AbsenceStreakDTO;
+import com.agn.web.dto.DeleteJobDTO;
+import com.agn.web.dto.StudentRowDTO;
 import com.agn.web.entity.Group;
+import com.agn.web.service.AttendanceService;
+import com.agn.web.service.CascadeDeleteJobService;
 import com.agn.web.service.GroupService;
+import com.agn.web.service.StudentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,6 +21,9 @@ import java.util.List;
 public class GroupRestController {
 
     private final GroupService groupService;
+    private final StudentService studentService;
+    private final CascadeDeleteJobService cascadeDeleteJobService;
+    private final AttendanceService attendanceService;
 
     @GetMapping
     public List<Group> getAllGroups() {
@@ -34,9 +44,39 @@ public class GroupRestController {
         }
     }
 
+    @GetMapping("/{id}/students")
+    public List<StudentRowDTO> getGroupRoster(@PathVariable Long id) {
+        return studentService.getStudentsByGroupId(id);
+    }
+
+    /**
+     * Students of the group whose last {@code min} recorded lessons were all absences.
+     */
+    @GetMapping("/{id}/attendance/absences")
+    public ResponseEntity<List<AbsenceStreakDTO>> getAbsenceStreaks(@PathVariable Long id,
+                                                                    @RequestParam(defaultValue = "3") int min) {
+        try {
+            return ResponseEntity.ok(attendanceService.getAbsenceStreaks(id, Math.max(1, min)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteGroup(@PathVariable Long id) {
         groupService.deleteGroup(id);
         return ResponseEntity.ok().build();
     }
+
+    /**
+     * Chunked background deletion for very large groups; progress via GET /api/delete-jobs/{jobId}.
+     */
+    @DeleteMapping(value = "/{id}", params = "async=true")
+    public ResponseEntity<DeleteJobDTO> deleteGroupAsync(@PathVariable Long id) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(cascadeDeleteJobService.startGroupDeletion(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 }
@@ -0,0 +1,151 @@
+package com.agn.web.controller;
+
+import com.agn.web.dto.AttendanceMarkRequest;
+import com.agn.web.dto.GradeColumnReport;
+import com.agn.web.dto.GradeEntryDTO;
+import com.agn.web.dto.LessonAttendanceDTO;
+import com.agn.web.dto.SemesterGenerationReport;
+import com.agn.web.dto.SemesterPlanRequest;
+import com.agn.web.entity.Lesson;
+import com.agn.web.service.AttendanceService;
+import com.agn.web.service.GradeService;
+import com.agn.web.service.LessonService;
+import com.agn.web.service.SemesterGeneratorService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/lessons")
+@RequiredArgsConstructor
+public class LessonRestController {
+
+    private final LessonService lessonService;
+    private final GradeService gradeService;
+    private final AttendanceService attendanceService;
+    private final SemesterGeneratorService semesterGeneratorService;
+
+    @PostMapping
+    public ResponseEntity<Lesson> createLesson(@RequestBody Lesson lesson) {
+        try {
+            return ResponseEntity.ok(lessonService.saveLesson(lesson));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Generates a semester of lessons from a weekly template. Nothing is inserted when the report
+     * contains conflicts or {@code dryRun} is set.
+     */
+    @PostMapping("/generate")
+    public ResponseEntity<SemesterGenerationReport> generateSemester(@RequestBody SemesterPlanRequest request) {
+        try {
+            SemesterGenerationReport report = semesterGeneratorService.generate(request);
+            return report.conflictCount() > 0
+                    ? ResponseEntity.status(HttpStatus.CONFLICT).body(report)
+                    : ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Lesson> getLessonById(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(lessonService.getLessonById(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Lesson> updateLesson(@PathVariable Long id, @RequestBody Lesson lesson) {
+        try {
+            return ResponseEntity.ok(lessonService.updateLesson(id, lesson));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteLesson(@PathVariable Long id) {
+        try {
+            lessonService.deleteLesson(id);
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/grades")
+    public ResponseEntity<List<GradeEntryDTO>> getLessonGrades(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(gradeService.getLessonGrades(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Saves a whole grade column for the lesson, e.g. {@code [{"studentId":1,"score":5},{"studentId":2,"score":null}]}.
+     */
+    @PutMapping("/{id}/grades")
+    public ResponseEntity<GradeColumnReport> saveLessonGrades(@PathVariable Long id,
+                                                              @RequestBody List<GradeEntryDTO> entries) {
+        try {
+            return ResponseEntity.ok(gradeService.saveLessonGrades(id, entries));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+            // Студента удалили между проверкой и записью или не дождались блокировки — можно повторить
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/attendance")
+    public ResponseEntity<LessonAttendanceDTO> getLessonAttendance(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(attendanceService.getLessonAttendance(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Bulk mark: {@code {"present":[1,2,3],"absent":[4]}}.
+     */
+    @PutMapping("/{id}/attendance")
+    public ResponseEntity<LessonAttendanceDTO> markAttendance(@PathVariable Long id,
+                                                              @RequestBody AttendanceMarkRequest request) {
+        try {
+            return ResponseEntity.ok(attendanceService.markAttendance(id, request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Bulk unmark: body is the list of student ids whose marks are removed.
+     */
+    @PostMapping("/{id}/attendance/unmark")
+    public ResponseEntity<LessonAttendanceDTO> unmarkAttendance(@PathVariable Long id,
+                                                                @RequestBody List<Long> studentIds) {
+        try {
+            return ResponseEntity.ok(attendanceService.unmarkAttendance(id, studentIds));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.agn.web.controller;
+
+import com.agn.web.service.LiveUpdateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/live")
+@RequiredArgsConstructor
+public class LiveController {
+
+    private final LiveUpdateService liveUpdateService;
+
+    /**
+     * Event stream: student, group, grades, stats, students-reload and resync events with JSON data.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe() {
+        return liveUpdateService.subscribe();
+    }
+}
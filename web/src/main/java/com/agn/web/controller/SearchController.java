@@ -0,0 +1,48 @@
+package com.agn.web.controller;
+
+import com.agn.web.dto.SearchHitDTO;
+import com.agn.web.service.SearchIndexService;
+import com.agn.web.service.SearchIndexService.DocType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final SearchIndexService searchIndexService;
+
+    /**
+     * Autocomplete over students, users, groups and subjects, e.g. {@code ?q=петр&types=student,user&limit=10}.
+     */
+    @GetMapping
+    public ResponseEntity<List<SearchHitDTO>> search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(defaultValue = "20") int limit) {
+        Set<DocType> docTypes = EnumSet.allOf(DocType.class);
+        if (types != null && !types.isEmpty()) {
+            docTypes = EnumSet.noneOf(DocType.class);
+            for (String type : types) {
+                try {
+                    docTypes.add(DocType.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().build();
+                }
+            }
+        }
+        return ResponseEntity.ok(searchIndexService.search(query, docTypes, Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+}
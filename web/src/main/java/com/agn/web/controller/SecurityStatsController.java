@@ -0,0 +1,27 @@
+package com.agn.web.controller;
+
+import com.agn.web.config.BoundedPasswordEncoder;
+import com.agn.web.dto.SecurityStatsDTO;
+import com.agn.web.service.LoginThrottle;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/security")
+@RequiredArgsConstructor
+public class SecurityStatsController {
+
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final LoginThrottle loginThrottle;
+
+    /**
+     * Password hashing pool load and latency, plus login throttling counters.
+     */
+    @GetMapping("/stats")
+    public SecurityStatsDTO getStats() {
+        return new SecurityStatsDTO(passwordEncoder.getStats(), loginThrottle.getThrottledCount(),
+                loginThrottle.getTrackedKeys());
+    }
+}
@@ -1,25 +1,47 @@
 package com.agn.web.controller;
 
+import com.agn.web.dto.StudentAttendanceDTO;
+import com.agn.web.dto.StudentImportReport;
+import com.agn.web.dto.StudentPageDTO;
 import com.agn.web.entity.Student;
+import com.agn.web.service.AttendanceService;
+import com.agn.web.service.StudentImportService;
 import com.agn.web.service.StudentService;
+import com.agn.web.service.StudentService.StudentSort;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.multipart.MultipartFile;
 
 @RestController
 @RequestMapping("/api/students")
 @RequiredArgsConstructor
 public class StudentRestController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final StudentService studentService;
+    private final StudentImportService studentImportService;
+    private final AttendanceService attendanceService;
 
+    /**
+     * Keyset-paginated student listing: {@code ?after=<cursor>&limit=&groupId=&sort=id|lastName}.
+     * Pass {@code nextCursor} from the previous page as {@code after}.
+     */
     @GetMapping
-    public List<Student> getAllStudents() {
-        List<Student> students = studentService.getAllStudents();
-        System.out.println("DEBUG: getAllStudents called. Found " + students.size() + " students.");
-        return students;
+    public ResponseEntity<StudentPageDTO> getStudents(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) Long groupId,
+            @RequestParam(defaultValue = "id") String sort) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        StudentSort order = "lastName".equalsIgnoreCase(sort) ? StudentSort.LAST_NAME : StudentSort.ID;
+        try {
+            return ResponseEntity.ok(studentService.getStudentsPage(after, pageSize, groupId, order));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PostMapping
@@ -27,6 +49,18 @@ public class StudentRestController {
         return studentService.saveStudent(student);
     }
 
+    /**
+     * Bulk import from a CSV or XLSX file (multipart field {@code file}).
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StudentImportReport> importStudents(@RequestParam("file") MultipartFile file) {
+        try {
+            return ResponseEntity.ok(studentImportService.importStudents(file));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Student> getStudentById(@PathVariable Long id) {
         try {
@@ -36,6 +70,15 @@ public class StudentRestController {
         }
     }
 
+    @GetMapping("/{id}/attendance")
+    public ResponseEntity<StudentAttendanceDTO> getStudentAttendance(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(attendanceService.getStudentAttendance(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Student> updateStudent(@PathVariable Long id, @RequestBody Student student) {
         try {
@@ -1,8 +1,11 @@
 package com.agn.web.controller;
 
+import com.agn.web.dto.DeleteJobDTO;
 import com.agn.web.entity.Subject;
+import com.agn.web.service.CascadeDeleteJobService;
 import com.agn.web.service.SubjectService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,6 +17,7 @@ import java.util.List;
 public class SubjectController {
 
     private final SubjectService subjectService;
+    private final CascadeDeleteJobService cascadeDeleteJobService;
 
     @GetMapping
     public List<Subject> getAllSubjects() {
@@ -53,4 +57,13 @@ public class SubjectController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    @DeleteMapping(value = "/{id}", params = "async=true")
+    public ResponseEntity<DeleteJobDTO> deleteSubjectAsync(@PathVariable Long id) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(cascadeDeleteJobService.startSubjectDeletion(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 }
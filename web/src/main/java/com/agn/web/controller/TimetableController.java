@@ -0,0 +1,52 @@
+package com.agn.web.controller;
+
+import com.agn.web.dto.TimetableJobDTO;
+import com.agn.web.dto.TimetableRequest;
+import com.agn.web.service.TimetableJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/timetable/jobs")
+@RequiredArgsConstructor
+public class TimetableController {
+
+    private final TimetableJobService timetableJobService;
+
+    /**
+     * Starts building a timetable in the background; poll GET /api/timetable/jobs/{jobId} for the result.
+     */
+    @PostMapping
+    public ResponseEntity<TimetableJobDTO> start(@RequestBody TimetableRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(timetableJobService.start(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<TimetableJobDTO> getJob(@PathVariable String jobId) {
+        return timetableJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Cancels the job; it finishes shortly with the best timetable found so far.
+     */
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<TimetableJobDTO> cancel(@PathVariable String jobId) {
+        return timetableJobService.cancel(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,14 +1,27 @@
 package com.agn.web.controller;
 
+import com.agn.web.dto.ProvisionedCredentialDTO;
 import com.agn.web.dto.UserDTO;
-import com.agn.web.entity.User;
-import com.agn.web.repository.UserRepository;
+import com.agn.web.dto.UserDirectoryPage;
+import com.agn.web.dto.UserProvisioningRequest;
+import com.agn.web.dto.UserSummaryDTO;
+import com.agn.web.entity.Role;
+import com.agn.web.service.TooManyRequestsException;
+import com.agn.web.service.UserDirectoryService;
+import com.agn.web.service.UserProvisioningService;
 import com.agn.web.service.UserService;
 import com.agn.web.util.CredentialsGenerator.GeneratedCredentials;
+import com.agn.web.util.CsvWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -16,8 +29,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final UserService userService;
-    private final UserRepository userRepository;
+    private final UserDirectoryService userDirectoryService;
+    private final UserProvisioningService userProvisioningService;
 
     /**
      * Generate username and raw password based on firstName and lastName.
@@ -34,19 +51,93 @@ public class UserController {
      */
     @PostMapping
     public ResponseEntity<UserDTO> createUser(@RequestBody UserDTO userDTO) {
-        UserDTO created = userService.createUser(userDTO);
-        return ResponseEntity.ok(created);
+        try {
+            return ResponseEntity.ok(userService.createUser(userDTO));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Update an existing user; only non-null fields are changed. Existing tokens of the user are revoked.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<UserDTO> updateUser(@PathVariable Long id, @RequestBody UserDTO userDTO) {
+        try {
+            return ResponseEntity.ok(userService.updateUser(id, userDTO));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
+    /**
+     * Bulk-create accounts for a group roster or a list of people and return the credentials sheet,
+     * as JSON or, with {@code format=csv}, as a CSV file.
+     */
+    @PostMapping("/provision")
+    public ResponseEntity<?> provisionUsers(@RequestBody UserProvisioningRequest request,
+                                            @RequestParam(defaultValue = "json") String format) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"json".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<ProvisionedCredentialDTO> sheet;
+        try {
+            sheet = userProvisioningService.provision(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!csv) {
+            return ResponseEntity.ok(sheet);
+        }
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        writer.writeRow("studentId", "lastName", "firstName", "username", "password", "role");
+        for (ProvisionedCredentialDTO row : sheet) {
+            writer.writeRow(row.studentId(), row.lastName(), row.firstName(), row.username(), row.password(), row.role());
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"credentials.csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(out.toString());
+    }
+
+    /**
+     * Teacher picker: id, username and name only. Optional {@code q} filters by name or username prefix;
+     * {@code offset}/{@code limit} page the list, the total number of matches is in {@code X-Total-Count}.
+     */
     @GetMapping("/teachers")
-    public ResponseEntity<List<User>> getTeachers() {
-        List<User> teachers = userRepository.findByRole(com.agn.web.entity.Role.TEACHER);
-        return ResponseEntity.ok(teachers);
+    public ResponseEntity<List<UserSummaryDTO>> getTeachers(@RequestParam(required = false) String q,
+                                                            @RequestParam(defaultValue = "0") int offset,
+                                                            @RequestParam(required = false) Integer limit) {
+        return directory(Role.TEACHER, q, offset, limit);
     }
 
+    /**
+     * Student picker, same parameters as {@code /teachers}.
+     */
     @GetMapping("/students")
-    public ResponseEntity<List<User>> getStudents() {
-        List<User> students = userRepository.findByRole(com.agn.web.entity.Role.STUDENT);
-        return ResponseEntity.ok(students);
+    public ResponseEntity<List<UserSummaryDTO>> getStudents(@RequestParam(required = false) String q,
+                                                            @RequestParam(defaultValue = "0") int offset,
+                                                            @RequestParam(required = false) Integer limit) {
+        return directory(Role.STUDENT, q, offset, limit);
+    }
+
+    private ResponseEntity<List<UserSummaryDTO>> directory(Role role, String q, int offset, Integer limit) {
+        if (offset < 0 || (limit != null && limit < 1)) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Без limit — весь список, как раньше ждёт UI
+        int pageSize = limit != null ? Math.min(limit, MAX_PAGE_SIZE) : Integer.MAX_VALUE;
+        UserDirectoryPage page = userDirectoryService.getPage(role, q, offset, pageSize);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(page.total()))
+                .body(page.items());
     }
 }
@@ -0,0 +1,8 @@
+package com.agn.web.dto;
+
+public record AbsenceStreakDTO(
+    Long studentId,
+    String lastName,
+    String firstName,
+    int streak
+) {}
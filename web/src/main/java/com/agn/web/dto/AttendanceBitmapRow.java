@@ -0,0 +1,13 @@
+package com.agn.web.dto;
+
+import java.time.LocalDateTime;
+
+public record AttendanceBitmapRow(
+    Long lessonId,
+    Long groupId,
+    String groupName,
+    String subjectName,
+    LocalDateTime startTime,
+    byte[] marked,
+    byte[] present
+) {}
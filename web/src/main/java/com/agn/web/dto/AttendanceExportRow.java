@@ -0,0 +1,14 @@
+package com.agn.web.dto;
+
+import java.time.LocalDateTime;
+
+public record AttendanceExportRow(
+    Long studentId,
+    String lastName,
+    String firstName,
+    String groupName,
+    Long lessonId,
+    String subjectName,
+    LocalDateTime lessonStart,
+    boolean present
+) {}
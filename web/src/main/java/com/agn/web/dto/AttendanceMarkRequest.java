@@ -0,0 +1,8 @@
+package com.agn.web.dto;
+
+import java.util.List;
+
+public record AttendanceMarkRequest(
+    List<Long> present,
+    List<Long> absent
+) {}
@@ -1,4 +1,8 @@
 package com.agn.web.dto;
 
-public record AuthResponse(String token, String username, String role) {
+/**
+ * @param token     access token for the {@code Authorization: Bearer} header
+ * @param expiresIn access token lifetime in seconds
+ */
+public record AuthResponse(String token, String refreshToken, long expiresIn, String username, String role) {
 }
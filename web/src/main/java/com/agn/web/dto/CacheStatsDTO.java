@@ -0,0 +1,10 @@
+package com.agn.web.dto;
+
+public record CacheStatsDTO(
+    String name,
+    long size,
+    long hitCount,
+    long missCount,
+    double hitRate,
+    long evictionCount
+) {}
@@ -5,6 +5,8 @@ import java.util.List;
 public record DashboardStatsDTO(
     long totalStudents,
     long totalGroups,
+    long totalLessons,
+    long totalGrades,
     double averageGrade,
     long lessonsToday,
     List<LessonDTO> upcomingLessons
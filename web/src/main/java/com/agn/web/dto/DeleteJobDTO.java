@@ -0,0 +1,15 @@
+package com.agn.web.dto;
+
+import java.time.LocalDateTime;
+
+public record DeleteJobDTO(
+    String id,
+    String target,
+    Long targetId,
+    String status,
+    String currentTable,
+    long deletedRows,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    String error
+) {}
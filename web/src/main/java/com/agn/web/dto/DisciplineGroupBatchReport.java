@@ -0,0 +1,14 @@
+package com.agn.web.dto;
+
+import java.util.List;
+
+/**
+ * @param created rows actually inserted; a group assigned by a concurrent request after the check is
+ *                neither created nor listed in {@code skippedGroupIds}
+ * @param skippedGroupIds groups that already had the subject in this semester
+ */
+public record DisciplineGroupBatchReport(
+    int groupsRequested,
+    int created,
+    List<Long> skippedGroupIds
+) {}
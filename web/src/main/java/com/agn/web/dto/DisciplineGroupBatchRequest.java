@@ -0,0 +1,16 @@
+package com.agn.web.dto;
+
+import java.util.List;
+
+/**
+ * Assigns one subject to many groups for a semester.
+ *
+ * @param teacherId optional, the same teacher for every created assignment
+ */
+public record DisciplineGroupBatchRequest(
+    Long subjectId,
+    List<Long> groupIds,
+    Long teacherId,
+    Integer semester,
+    Integer year
+) {}
@@ -0,0 +1,33 @@
+package com.agn.web.dto;
+
+/**
+ * Read model of a DisciplineGroup. Keeps the nested {@code subject} / {@code group} / {@code teacher}
+ * shape of the entity JSON the frontend expects, but only with the fields it shows (no password hash).
+ *
+ * @param teacher null when no teacher is assigned
+ */
+public record DisciplineGroupDTO(
+    Long id,
+    SubjectRef subject,
+    GroupRef group,
+    TeacherRef teacher,
+    Integer semester,
+    Integer year
+) {
+
+    /** Конструктор для JPQL-проекции одной строкой (см. DisciplineGroupRepository) */
+    public DisciplineGroupDTO(Long id, Long subjectId, String subjectName, String subjectShortName,
+                              Long groupId, String groupName,
+                              Long teacherId, String teacherUsername, String teacherFirstName, String teacherLastName,
+                              Integer semester, Integer year) {
+        this(id, new SubjectRef(subjectId, subjectName, subjectShortName), new GroupRef(groupId, groupName),
+                teacherId != null ? new TeacherRef(teacherId, teacherUsername, teacherFirstName, teacherLastName) : null,
+                semester, year);
+    }
+
+    public record SubjectRef(Long id, String name, String shortName) {}
+
+    public record GroupRef(Long id, String name) {}
+
+    public record TeacherRef(Long id, String username, String firstName, String lastName) {}
+}
@@ -0,0 +1,8 @@
+package com.agn.web.dto;
+
+import java.time.LocalDateTime;
+
+public record FreeSlotDTO(
+    LocalDateTime start,
+    LocalDateTime end
+) {}
@@ -0,0 +1,8 @@
+package com.agn.web.dto;
+
+public record GradeAverageDTO(
+    String scope,
+    Long id,
+    Double average,
+    long count
+) {}
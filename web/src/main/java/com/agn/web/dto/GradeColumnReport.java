@@ -0,0 +1,9 @@
+package com.agn.web.dto;
+
+public record GradeColumnReport(
+    Long lessonId,
+    int inserted,
+    int updated,
+    int deleted,
+    int unchanged
+) {}
@@ -0,0 +1,9 @@
+package com.agn.web.dto;
+
+/**
+ * One cell of a lesson's grade column; a {@code null} score clears the grade.
+ */
+public record GradeEntryDTO(
+    Long studentId,
+    Integer score
+) {}
@@ -0,0 +1,15 @@
+package com.agn.web.dto;
+
+import java.time.LocalDateTime;
+
+public record GradeExportRow(
+    Long gradeId,
+    Long studentId,
+    String lastName,
+    String firstName,
+    String groupName,
+    Long lessonId,
+    String subjectName,
+    LocalDateTime lessonStart,
+    Integer score
+) {}
@@ -0,0 +1,7 @@
+package com.agn.web.dto;
+
+public record GradeSumRow(
+    Long key,
+    Long sum,
+    Long count
+) {}
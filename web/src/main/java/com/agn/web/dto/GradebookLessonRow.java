@@ -0,0 +1,17 @@
+package com.agn.web.dto;
+
+import com.agn.web.entity.Lesson.LessonType;
+
+import java.time.LocalDateTime;
+
+/**
+ * @param marked  attendance bitmap over roster slots, null when attendance was never recorded
+ * @param present see {@link com.agn.web.entity.LessonAttendance}
+ */
+public record GradebookLessonRow(
+    Long lessonId,
+    LocalDateTime startTime,
+    LessonType type,
+    byte[] marked,
+    byte[] present
+) {}
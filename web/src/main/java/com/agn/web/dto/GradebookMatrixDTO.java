@@ -0,0 +1,30 @@
+package com.agn.web.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Students x lessons gradebook of one DisciplineGroup in columnar form: parallel arrays per student
+ * (rows) and per lesson (columns), and row-major cell arrays of {@code students * lessons} values,
+ * the cell of row {@code r} and column {@code c} being at {@code r * lessonIds.length + c}.
+ *
+ * @param missingScore value of {@code scores} cells without a grade
+ * @param attendance   0 — not recorded, 1 — present, 2 — absent
+ */
+public record GradebookMatrixDTO(
+    Long disciplineGroupId,
+    Long groupId,
+    Long subjectId,
+    long[] studentIds,
+    String[] lastNames,
+    String[] firstNames,
+    long[] lessonIds,
+    LocalDateTime[] lessonStarts,
+    String[] lessonTypes,
+    int missingScore,
+    int[] scores,
+    int[] attendance
+) {
+    public static final int NOT_RECORDED = 0;
+    public static final int PRESENT = 1;
+    public static final int ABSENT = 2;
+}
@@ -0,0 +1,11 @@
+package com.agn.web.dto;
+
+/**
+ * @param slot the student's roster slot in the group, null until attendance was first recorded
+ */
+public record GradebookStudentRow(
+    Long studentId,
+    String lastName,
+    String firstName,
+    Integer slot
+) {}
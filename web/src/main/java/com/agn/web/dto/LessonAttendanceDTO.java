@@ -0,0 +1,11 @@
+package com.agn.web.dto;
+
+import java.util.List;
+
+public record LessonAttendanceDTO(
+    Long lessonId,
+    int marked,
+    int present,
+    List<Long> presentStudentIds,
+    List<Long> absentStudentIds
+) {}
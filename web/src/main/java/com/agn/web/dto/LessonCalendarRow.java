@@ -0,0 +1,16 @@
+package com.agn.web.dto;
+
+import com.agn.web.entity.Lesson.LessonType;
+
+import java.time.LocalDateTime;
+
+public record LessonCalendarRow(
+    Long lessonId,
+    Long groupId,
+    String groupName,
+    Long subjectId,
+    String subjectName,
+    LessonType type,
+    LocalDateTime startTime,
+    LocalDateTime endTime
+) {}
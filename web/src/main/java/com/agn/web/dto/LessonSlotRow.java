@@ -0,0 +1,12 @@
+package com.agn.web.dto;
+
+import java.time.LocalDateTime;
+
+public record LessonSlotRow(
+    Long lessonId,
+    Long groupId,
+    Long subjectId,
+    String room,
+    LocalDateTime startTime,
+    LocalDateTime endTime
+) {}
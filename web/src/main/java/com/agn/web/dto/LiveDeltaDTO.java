@@ -0,0 +1,15 @@
+package com.agn.web.dto;
+
+/**
+ * Payload of a "student" or "group" event on /api/live.
+ *
+ * @param op      created, updated or deleted
+ * @param groupId the student's group for student events
+ * @param name    the group's name for group events
+ */
+public record LiveDeltaDTO(
+    String op,
+    Long id,
+    Long groupId,
+    String name
+) {}
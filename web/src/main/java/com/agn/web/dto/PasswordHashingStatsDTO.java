@@ -0,0 +1,16 @@
+package com.agn.web.dto;
+
+/**
+ * @param avgWaitMillis time spent in the queue before hashing started
+ */
+public record PasswordHashingStatsDTO(
+    int threads,
+    int active,
+    int queueDepth,
+    int queueCapacity,
+    long completed,
+    long rejected,
+    double avgHashMillis,
+    double maxHashMillis,
+    double avgWaitMillis
+) {}
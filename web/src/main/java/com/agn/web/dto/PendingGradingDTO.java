@@ -0,0 +1,16 @@
+package com.agn.web.dto;
+
+import com.agn.web.entity.Lesson.LessonType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A finished lesson of the teacher's assignments that has no grades yet.
+ */
+public record PendingGradingDTO(
+    Long lessonId,
+    String subjectName,
+    String groupName,
+    LessonType type,
+    LocalDateTime startTime
+) {}
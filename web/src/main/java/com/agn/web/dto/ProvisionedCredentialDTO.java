@@ -0,0 +1,13 @@
+package com.agn.web.dto;
+
+/**
+ * One line of the credentials sheet; {@code studentId} is set when the account was made for a group member.
+ */
+public record ProvisionedCredentialDTO(
+    Long studentId,
+    String lastName,
+    String firstName,
+    String username,
+    String password,
+    String role
+) {}
@@ -0,0 +1,4 @@
+package com.agn.web.dto;
+
+public record RefreshTokenRequest(String refreshToken) {
+}
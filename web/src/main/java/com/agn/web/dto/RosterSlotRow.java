@@ -0,0 +1,9 @@
+package com.agn.web.dto;
+
+public record RosterSlotRow(
+    int slot,
+    Long studentId,
+    String lastName,
+    String firstName,
+    Long currentGroupId
+) {}
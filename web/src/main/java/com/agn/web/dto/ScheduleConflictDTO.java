@@ -0,0 +1,16 @@
+package com.agn.web.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Two lessons that overlap on the same resource; {@code first}/{@code second} are either
+ * "lesson {id}" for existing lessons or "discipline-group {id}" for generated ones.
+ */
+public record ScheduleConflictDTO(
+    String kind,
+    String resource,
+    String first,
+    String second,
+    LocalDateTime overlapStart,
+    LocalDateTime overlapEnd
+) {}
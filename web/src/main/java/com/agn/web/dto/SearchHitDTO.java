@@ -0,0 +1,8 @@
+package com.agn.web.dto;
+
+public record SearchHitDTO(
+    String type,
+    Long id,
+    String title,
+    String subtitle
+) {}
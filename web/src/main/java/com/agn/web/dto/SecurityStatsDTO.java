@@ -0,0 +1,7 @@
+package com.agn.web.dto;
+
+public record SecurityStatsDTO(
+    PasswordHashingStatsDTO passwordHashing,
+    long throttledLogins,
+    int trackedLoginKeys
+) {}
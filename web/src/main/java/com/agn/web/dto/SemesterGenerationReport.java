@@ -0,0 +1,11 @@
+package com.agn.web.dto;
+
+import java.util.List;
+
+public record SemesterGenerationReport(
+    int lessonsPlanned,
+    int lessonsInserted,
+    int conflictCount,
+    List<ScheduleConflictDTO> conflicts,
+    boolean dryRun
+) {}
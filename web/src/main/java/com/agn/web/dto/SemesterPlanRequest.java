@@ -0,0 +1,42 @@
+package com.agn.web.dto;
+
+import com.agn.web.entity.Lesson.LessonType;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Weekly timetable template expanded into lessons between {@code startDate} and {@code endDate} inclusive.
+ *
+ * @param skipDates holidays and other days without lessons
+ * @param dryRun    only expand and check for conflicts, insert nothing
+ */
+public record SemesterPlanRequest(
+    Integer semester,
+    Integer year,
+    LocalDate startDate,
+    LocalDate endDate,
+    List<LocalDate> skipDates,
+    List<WeeklySlot> slots,
+    boolean dryRun
+) {
+
+    /**
+     * @param weeks EVERY, ODD or EVEN (числитель/знаменатель), counted from the week of {@code startDate}
+     */
+    public record WeeklySlot(
+        Long disciplineGroupId,
+        DayOfWeek dayOfWeek,
+        LocalTime startTime,
+        LocalTime endTime,
+        LessonType type,
+        String room,
+        WeekParity weeks
+    ) {}
+
+    public enum WeekParity {
+        EVERY, ODD, EVEN
+    }
+}
@@ -0,0 +1,9 @@
+package com.agn.web.dto;
+
+public record StudentAttendanceDTO(
+    Long studentId,
+    int lessonsMarked,
+    int lessonsAttended,
+    Double rate,
+    int absentStreak
+) {}
@@ -0,0 +1,15 @@
+package com.agn.web.dto;
+
+import java.util.List;
+
+/**
+ * Result of a bulk student import. {@code errors} is capped; {@code failedRows} is always exact.
+ */
+public record StudentImportReport(
+    long totalRows,
+    long importedRows,
+    long failedRows,
+    List<RowError> errors
+) {
+    public record RowError(long row, String message) {}
+}
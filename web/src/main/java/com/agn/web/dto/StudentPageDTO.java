@@ -0,0 +1,12 @@
+package com.agn.web.dto;
+
+import java.util.List;
+
+/**
+ * One page of the keyset-paginated student listing.
+ * {@code nextCursor} is the opaque cursor to pass as {@code after} for the next page, or null on the last page.
+ */
+public record StudentPageDTO(
+    List<StudentRowDTO> items,
+    String nextCursor
+) {}
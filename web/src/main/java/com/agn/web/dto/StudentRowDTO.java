@@ -0,0 +1,21 @@
+package com.agn.web.dto;
+
+import java.time.LocalDate;
+
+public record StudentRowDTO(
+    Long id,
+    String firstName,
+    String lastName,
+    String middleName,
+    LocalDate dateBorn,
+    GroupRef group
+) {
+    // Конструктор для JPQL-проекции: группа приходит плоскими колонками из left join
+    public StudentRowDTO(Long id, String firstName, String lastName, String middleName,
+                         LocalDate dateBorn, Long groupId, String groupName) {
+        this(id, firstName, lastName, middleName, dateBorn,
+                groupId != null ? new GroupRef(groupId, groupName) : null);
+    }
+
+    public record GroupRef(Long id, String name) {}
+}
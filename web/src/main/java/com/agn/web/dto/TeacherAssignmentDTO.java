@@ -0,0 +1,13 @@
+package com.agn.web.dto;
+
+public record TeacherAssignmentDTO(
+    Long disciplineGroupId,
+    Long subjectId,
+    String subjectName,
+    String subjectShortName,
+    Long groupId,
+    String groupName,
+    Integer semester,
+    Integer year,
+    long studentCount
+) {}
@@ -0,0 +1,12 @@
+package com.agn.web.dto;
+
+import java.util.List;
+
+public record TeacherDashboardDTO(
+    Long teacherId,
+    List<TeacherAssignmentDTO> assignments,
+    long totalStudents,
+    long lessonsToday,
+    List<LessonDTO> todayLessons,
+    List<PendingGradingDTO> pendingGrading
+) {}
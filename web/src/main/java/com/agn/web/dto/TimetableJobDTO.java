@@ -0,0 +1,23 @@
+package com.agn.web.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * State of a timetable job. {@code slots} is filled once the job has finished (also after cancellation,
+ * with the best timetable found so far) and can be posted to /api/lessons/generate as is.
+ */
+public record TimetableJobDTO(
+    String id,
+    Integer semester,
+    Integer year,
+    String status,
+    int lessonsPlanned,
+    Integer hardViolations,
+    Long softPenalty,
+    Long iterations,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    String error,
+    List<SemesterPlanRequest.WeeklySlot> slots
+) {}
@@ -0,0 +1,25 @@
+package com.agn.web.dto;
+
+import com.agn.web.entity.Lesson.LessonType;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Weekly grid for the automatic timetable of all DisciplineGroup assignments of a semester.
+ *
+ * @param periodStarts     start times of the pairs, ascending
+ * @param lessonMinutes    length of one pair, 90 by default
+ * @param timeLimitSeconds solver time budget, 30 by default
+ * @param type             lesson type written into the resulting slots, LECTURE by default
+ */
+public record TimetableRequest(
+    Integer semester,
+    Integer year,
+    List<DayOfWeek> days,
+    List<LocalTime> periodStarts,
+    Integer lessonMinutes,
+    Integer timeLimitSeconds,
+    LessonType type
+) {}
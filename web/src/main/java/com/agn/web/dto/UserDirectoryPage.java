@@ -0,0 +1,11 @@
+package com.agn.web.dto;
+
+import java.util.List;
+
+/**
+ * One page of the user directory; {@code total} counts all entries matching the filter.
+ */
+public record UserDirectoryPage(
+    List<UserSummaryDTO> items,
+    int total
+) {}
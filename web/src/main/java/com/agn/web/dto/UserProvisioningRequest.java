@@ -0,0 +1,19 @@
+package com.agn.web.dto;
+
+import com.agn.web.entity.Role;
+
+import java.util.List;
+
+/**
+ * Accounts to create: every student of {@code groupId}, or the explicit {@code people} list.
+ *
+ * @param role role of all created accounts, STUDENT when omitted
+ */
+public record UserProvisioningRequest(
+    Long groupId,
+    List<Person> people,
+    Role role
+) {
+
+    public record Person(String firstName, String lastName) {}
+}
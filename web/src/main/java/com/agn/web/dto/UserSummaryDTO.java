@@ -0,0 +1,14 @@
+package com.agn.web.dto;
+
+import com.agn.web.entity.Role;
+
+/**
+ * Directory entry for user pickers: no password hash or other account data.
+ */
+public record UserSummaryDTO(
+    Long id,
+    String username,
+    String firstName,
+    String lastName,
+    Role role
+) {}
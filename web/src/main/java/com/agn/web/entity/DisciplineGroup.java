@@ -11,7 +11,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "discipline_groups")
+@Table(name = "discipline_groups", indexes = {
+        @Index(name = "idx_discipline_groups_teacher", columnList = "teacher_id")
+}, uniqueConstraints = {
+        // Предмет назначается группе не больше одного раза за семестр
+        @UniqueConstraint(name = "uk_discipline_groups_assignment", columnNames = {"subject_id", "group_id", "semester", "year"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
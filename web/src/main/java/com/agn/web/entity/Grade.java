@@ -7,7 +7,10 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "grades")
+@Table(name = "grades", uniqueConstraints = {
+        // Одна оценка на студента за занятие; индекс заодно обслуживает выборку колонки по занятию
+        @UniqueConstraint(name = "uk_grades_lesson_student", columnNames = {"lesson_id", "student_id"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
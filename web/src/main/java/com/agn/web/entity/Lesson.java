@@ -9,7 +9,10 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "lessons")
+@Table(name = "lessons", indexes = {
+        @Index(name = "idx_lessons_group_start", columnList = "group_id, start_time"),
+        @Index(name = "idx_lessons_start", columnList = "start_time")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -37,6 +40,8 @@ public class Lesson {
     @Column(nullable = false)
     private LessonType type;
 
+    private String room;  // Аудитория, может быть не указана
+
     public enum LessonType {
         LECTURE,
         LAB,
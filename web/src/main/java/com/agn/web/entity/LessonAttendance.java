@@ -0,0 +1,35 @@
+package com.agn.web.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Attendance of one lesson as two bitmaps over the group's {@link RosterSlot}s (bit i = slot i):
+ * {@code marked} — attendance was recorded for the student, {@code present} — the student was there.
+ * Bytes are {@link java.util.BitSet#toByteArray()}, trailing zero bytes are dropped.
+ */
+@Entity
+@Table(name = "lesson_attendance")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonAttendance {
+    @Id
+    @Column(name = "lesson_id")
+    private Long lessonId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "lesson_id")
+    private Lesson lesson;
+
+    @Column(nullable = false, length = 1024)
+    private byte[] marked;
+
+    @Column(nullable = false, length = 1024)
+    private byte[] present;
+}
@@ -0,0 +1,40 @@
+package com.agn.web.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Position of a student in a group's roster, i.e. the bit the student occupies in that group's
+ * {@link LessonAttendance} bitmaps. Slots are never reused, so old bitmaps stay valid after a student
+ * leaves the group.
+ */
+@Entity
+@Table(name = "roster_slots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_roster_slots_group_slot", columnNames = {"group_id", "slot"}),
+        @UniqueConstraint(name = "uk_roster_slots_group_student", columnNames = {"group_id", "student_id"})
+}, indexes = {
+        @Index(name = "idx_roster_slots_student", columnList = "student_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterSlot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    private Group group;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    private Student student;
+
+    @Column(nullable = false)
+    private int slot;
+}
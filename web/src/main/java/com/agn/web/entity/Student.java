@@ -9,7 +9,10 @@ import lombok.Setter;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "students")
+@Table(name = "students", indexes = {
+        @Index(name = "idx_students_group_id", columnList = "group_id, id"),
+        @Index(name = "idx_students_last_name", columnList = "last_name, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
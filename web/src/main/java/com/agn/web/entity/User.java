@@ -30,6 +30,6 @@ public class User {
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
-    private Role role = Role.ADMIN;  // По умолчанию ADMIN
+    private Role role = Role.STUDENT;  // По умолчанию STUDENT: права администратора выдаются явно
 }
 
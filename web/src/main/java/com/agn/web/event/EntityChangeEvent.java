@@ -0,0 +1,40 @@
+package com.agn.web.event;
+
+/**
+ * Published by the service layer after an entity is written. Listeners that keep in-memory
+ * structures in sync use {@code @TransactionalEventListener(fallbackExecution = true)}, so they only
+ * see committed changes.
+ *
+ * @param entity the saved entity for CREATED/UPDATED, the removed one for DELETED when it was loaded,
+ *               otherwise null
+ */
+public record EntityChangeEvent(Class<?> entityType, Long id, Object entity, ChangeType changeType) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        /** Many rows of the type changed at once (import, cascade delete) — listeners should reload */
+        BULK
+    }
+
+    public static EntityChangeEvent created(Class<?> entityType, Long id, Object entity) {
+        return new EntityChangeEvent(entityType, id, entity, ChangeType.CREATED);
+    }
+
+    public static EntityChangeEvent updated(Class<?> entityType, Long id, Object entity) {
+        return new EntityChangeEvent(entityType, id, entity, ChangeType.UPDATED);
+    }
+
+    public static EntityChangeEvent deleted(Class<?> entityType, Long id, Object entity) {
+        return new EntityChangeEvent(entityType, id, entity, ChangeType.DELETED);
+    }
+
+    public static EntityChangeEvent bulk(Class<?> entityType) {
+        return new EntityChangeEvent(entityType, null, null, ChangeType.BULK);
+    }
+
+    public boolean isAbout(Class<?> type) {
+        return entityType == type;
+    }
+}
@@ -0,0 +1,16 @@
+package com.agn.web.event;
+
+import java.util.List;
+
+/**
+ * Published after grade rows were written one by one, with the effect of each write on the running
+ * sums. Bulk removals (cascade deletes) publish {@link EntityChangeEvent} instead.
+ */
+public record GradesChangedEvent(Long lessonId, List<GradeDelta> deltas) {
+
+    /**
+     * @param scoreDelta change of the sum of scores
+     * @param countDelta change of the number of scored grades: +1 insert, -1 delete, 0 update
+     */
+    public record GradeDelta(Long groupId, Long subjectId, Long studentId, long scoreDelta, int countDelta) {}
+}
@@ -0,0 +1,7 @@
+package com.agn.web.event;
+
+/**
+ * Published next to the {@link EntityChangeEvent} of an update that moved a student to another group,
+ * so listeners keyed by group also see the group the student left. Either id may be null (no group).
+ */
+public record StudentMovedEvent(Long studentId, Long fromGroupId, Long toGroupId) {}
@@ -1,14 +1,65 @@
 package com.agn.web.repository;
 
+import com.agn.web.dto.DisciplineGroupDTO;
+import com.agn.web.dto.TeacherAssignmentDTO;
 import com.agn.web.entity.DisciplineGroup;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DisciplineGroupRepository extends JpaRepository<DisciplineGroup, Long> {
-    List<DisciplineGroup> findByTeacherId(Long teacherId);
-    List<DisciplineGroup> findByGroupId(Long groupId);
+
+    // Проекция назначения одной строкой: предмет, группа и преподаватель через join, без ленивых прокси
+    String DTO_SELECT = """
+            select new com.agn.web.dto.DisciplineGroupDTO(dg.id, s.id, s.name, s.shortName, g.id, g.name,
+                   t.id, t.username, t.firstName, t.lastName, dg.semester, dg.year)
+            from DisciplineGroup dg join dg.subject s join dg.group g left join dg.teacher t
+            """;
+
+    @Query(DTO_SELECT + "order by dg.id")
+    List<DisciplineGroupDTO> findAllDtos();
+
+    @Query(DTO_SELECT + "where dg.id = :id")
+    Optional<DisciplineGroupDTO> findDtoById(@Param("id") Long id);
+
     List<DisciplineGroup> findBySubjectId(Long subjectId);
+
+    // Группы из списка, которым предмет в этом семестре уже назначен
+    @Query("select dg.group.id from DisciplineGroup dg where dg.subject.id = :subjectId and dg.semester = :semester "
+            + "and dg.year = :year and dg.group.id in :groupIds")
+    List<Long> findAssignedGroupIds(@Param("subjectId") Long subjectId, @Param("semester") Integer semester,
+                                    @Param("year") Integer year, @Param("groupIds") Collection<Long> groupIds);
+
+    // (subjectId, groupId, teacherId) по всем назначениям с преподавателем
+    @Query("select dg.subject.id, dg.group.id, dg.teacher.id from DisciplineGroup dg where dg.teacher is not null")
+    List<Object[]> findTeacherAssignments();
+
+    // Назначения преподавателя с числом студентов в группе — одним запросом, без ленивых загрузок
+    @Query("""
+            select new com.agn.web.dto.TeacherAssignmentDTO(dg.id, s.id, s.name, s.shortName, g.id, g.name, dg.semester, dg.year,
+                   (select count(st.id) from Student st where st.group.id = g.id))
+            from DisciplineGroup dg join dg.subject s join dg.group g
+            where dg.teacher.id = :teacherId
+            order by dg.year desc, dg.semester desc, s.name, g.name""")
+    List<TeacherAssignmentDTO> findTeacherAssignmentRows(@Param("teacherId") Long teacherId);
+
+    // (disciplineGroupId, groupId, teacherId, credits) по назначениям семестра; teacherId может быть null
+    @Query("select dg.id, g.id, t.id, s.credits from DisciplineGroup dg join dg.group g join dg.subject s "
+            + "left join dg.teacher t where dg.semester = :semester and dg.year = :year order by dg.id")
+    List<Object[]> findTimetableLoad(@Param("semester") Integer semester, @Param("year") Integer year);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from DisciplineGroup dg where dg.group.id = :groupId")
+    int bulkDeleteByGroupId(@Param("groupId") Long groupId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from DisciplineGroup dg where dg.subject.id = :subjectId")
+    int bulkDeleteBySubjectId(@Param("subjectId") Long subjectId);
 }
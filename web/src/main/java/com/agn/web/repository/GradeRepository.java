@@ -0,0 +1,79 @@
+package com.agn.web.repository;
+
+import com.agn.web.dto.GradeEntryDTO;
+import com.agn.web.dto.GradeExportRow;
+import com.agn.web.dto.GradeSumRow;
+import com.agn.web.entity.Grade;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface GradeRepository extends JpaRepository<Grade, Long> {
+
+    @Query("select new com.agn.web.dto.GradeEntryDTO(g.student.id, g.score) from Grade g where g.lesson.id = :lessonId")
+    List<GradeEntryDTO> findColumnByLessonId(@Param("lessonId") Long lessonId);
+
+    // (lessonId, studentId, score) по занятиям дисциплины в группе
+    @Query("select g.lesson.id, g.student.id, g.score from Grade g where g.lesson.group.id = :groupId and g.lesson.subject.id = :subjectId")
+    List<Object[]> findGradebookCells(@Param("groupId") Long groupId, @Param("subjectId") Long subjectId);
+
+    // Суммы для сверки агрегатов (AVG считается в памяти из суммы и количества)
+    @Query("select new com.agn.web.dto.GradeSumRow(l.group.id, sum(g.score), count(g.score)) from Grade g join g.lesson l group by l.group.id")
+    List<GradeSumRow> sumByGroup();
+
+    @Query("select new com.agn.web.dto.GradeSumRow(l.subject.id, sum(g.score), count(g.score)) from Grade g join g.lesson l group by l.subject.id")
+    List<GradeSumRow> sumBySubject();
+
+    @Query("select new com.agn.web.dto.GradeSumRow(g.student.id, sum(g.score), count(g.score)) from Grade g group by g.student.id")
+    List<GradeSumRow> sumByStudent();
+
+    @Query("select new com.agn.web.dto.GradeSumRow(g.lesson.id, sum(g.score), count(g.score)) from Grade g where g.lesson.id = :lessonId group by g.lesson.id")
+    Optional<GradeSumRow> sumByLessonId(@Param("lessonId") Long lessonId);
+
+    // Оценки группы: и по занятиям группы, и по её студентам (на случай переводов между группами)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            delete from Grade g
+            where g.lesson.id in (select l.id from Lesson l where l.group.id = :groupId)
+               or g.student.id in (select s.id from Student s where s.group.id = :groupId)""")
+    int bulkDeleteByGroupId(@Param("groupId") Long groupId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Grade g where g.student.id = :studentId")
+    int bulkDeleteByStudentId(@Param("studentId") Long studentId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Grade g where g.lesson.id = :lessonId")
+    int bulkDeleteByLessonId(@Param("lessonId") Long lessonId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Grade g where g.lesson.id in (select l.id from Lesson l where l.subject.id = :subjectId)")
+    int bulkDeleteBySubjectId(@Param("subjectId") Long subjectId);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("""
+            select new com.agn.web.dto.GradeExportRow(gr.id, s.id, s.lastName, s.firstName, g.name, l.id, sub.name, l.startTime, gr.score)
+            from Grade gr join gr.student s join gr.lesson l join l.subject sub join l.group g
+            order by l.startTime, l.id, s.id""")
+    Stream<GradeExportRow> streamExportRows();
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("""
+            select new com.agn.web.dto.GradeExportRow(gr.id, s.id, s.lastName, s.firstName, g.name, l.id, sub.name, l.startTime, gr.score)
+            from Grade gr join gr.student s join gr.lesson l join l.subject sub join l.group g
+            where g.id = :groupId
+            order by l.startTime, l.id, s.id""")
+    Stream<GradeExportRow> streamExportRowsByGroupId(@Param("groupId") Long groupId);
+}
@@ -0,0 +1,52 @@
+package com.agn.web.repository;
+
+import com.agn.web.dto.AttendanceBitmapRow;
+import com.agn.web.entity.LessonAttendance;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface LessonAttendanceRepository extends JpaRepository<LessonAttendance, Long> {
+
+    // Все битовые карты группы в хронологическом порядке: одна строка на занятие
+    @Query("""
+            select new com.agn.web.dto.AttendanceBitmapRow(l.id, g.id, g.name, sub.name, l.startTime, la.marked, la.present)
+            from LessonAttendance la join la.lesson l join l.group g join l.subject sub
+            where g.id = :groupId
+            order by l.startTime, l.id""")
+    List<AttendanceBitmapRow> findBitmapsByGroupId(@Param("groupId") Long groupId);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("""
+            select new com.agn.web.dto.AttendanceBitmapRow(l.id, g.id, g.name, sub.name, l.startTime, la.marked, la.present)
+            from LessonAttendance la join la.lesson l join l.group g join l.subject sub
+            order by l.startTime, l.id""")
+    Stream<AttendanceBitmapRow> streamAllBitmaps();
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("""
+            select new com.agn.web.dto.AttendanceBitmapRow(l.id, g.id, g.name, sub.name, l.startTime, la.marked, la.present)
+            from LessonAttendance la join la.lesson l join l.group g join l.subject sub
+            where g.id = :groupId
+            order by l.startTime, l.id""")
+    Stream<AttendanceBitmapRow> streamBitmapsByGroupId(@Param("groupId") Long groupId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from LessonAttendance la where la.lesson.id in (select l.id from Lesson l where l.group.id = :groupId)")
+    int bulkDeleteByGroupId(@Param("groupId") Long groupId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from LessonAttendance la where la.lesson.id in (select l.id from Lesson l where l.subject.id = :subjectId)")
+    int bulkDeleteBySubjectId(@Param("subjectId") Long subjectId);
+}
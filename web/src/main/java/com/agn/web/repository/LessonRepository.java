@@ -0,0 +1,74 @@
+package com.agn.web.repository;
+
+import com.agn.web.dto.GradebookLessonRow;
+import com.agn.web.dto.LessonCalendarRow;
+import com.agn.web.dto.LessonSlotRow;
+import com.agn.web.dto.PendingGradingDTO;
+import com.agn.web.entity.Lesson;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LessonRepository extends JpaRepository<Lesson, Long> {
+
+    // Блокировка строки занятия сериализует параллельные сохранения колонки оценок
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from Lesson l where l.id = :id")
+    Optional<Lesson> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("""
+            select new com.agn.web.dto.LessonCalendarRow(l.id, g.id, g.name, s.id, s.name, l.type, l.startTime, l.endTime)
+            from Lesson l join l.group g join l.subject s""")
+    List<LessonCalendarRow> findAllCalendarRows();
+
+    @Query("""
+            select new com.agn.web.dto.LessonCalendarRow(l.id, g.id, g.name, s.id, s.name, l.type, l.startTime, l.endTime)
+            from Lesson l join l.group g join l.subject s
+            where l.id = :id""")
+    Optional<LessonCalendarRow> findCalendarRowById(@Param("id") Long id);
+
+    // Занятия дисциплины в группе вместе с битовыми картами посещаемости
+    @Query("""
+            select new com.agn.web.dto.GradebookLessonRow(l.id, l.startTime, l.type, la.marked, la.present)
+            from Lesson l left join LessonAttendance la on la.lessonId = l.id
+            where l.group.id = :groupId and l.subject.id = :subjectId
+            order by l.startTime, l.id""")
+    List<GradebookLessonRow> findGradebookColumns(@Param("groupId") Long groupId, @Param("subjectId") Long subjectId);
+
+    // Прошедшие занятия по назначениям преподавателя, за которые ещё нет ни одной оценки;
+    // идём от назначений к занятиям по индексу (group_id, start_time)
+    @Query("""
+            select new com.agn.web.dto.PendingGradingDTO(l.id, s.name, g.name, l.type, l.startTime)
+            from DisciplineGroup dg join dg.subject s join dg.group g
+                 join Lesson l on l.group.id = g.id and l.subject.id = s.id
+            where dg.teacher.id = :teacherId and l.startTime >= :since and l.endTime < :now
+              and not exists (select 1 from Grade gr where gr.lesson.id = l.id)
+            order by l.startTime desc""")
+    List<PendingGradingDTO> findPendingGrading(@Param("teacherId") Long teacherId, @Param("since") LocalDateTime since,
+                                               @Param("now") LocalDateTime now, Limit limit);
+
+    // Занятия, пересекающиеся с интервалом [from, to)
+    @Query("""
+            select new com.agn.web.dto.LessonSlotRow(l.id, l.group.id, l.subject.id, l.room, l.startTime, l.endTime)
+            from Lesson l
+            where l.startTime < :to and l.endTime > :from""")
+    List<LessonSlotRow> findSlotsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Lesson l where l.group.id = :groupId")
+    int bulkDeleteByGroupId(@Param("groupId") Long groupId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Lesson l where l.subject.id = :subjectId")
+    int bulkDeleteBySubjectId(@Param("subjectId") Long subjectId);
+}
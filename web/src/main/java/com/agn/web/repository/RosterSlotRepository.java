@@ -0,0 +1,36 @@
+package com.agn.web.repository;
+
+import com.agn.web.dto.RosterSlotRow;
+import com.agn.web.entity.RosterSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RosterSlotRepository extends JpaRepository<RosterSlot, Long> {
+
+    @Query("""
+            select new com.agn.web.dto.RosterSlotRow(rs.slot, s.id, s.lastName, s.firstName, s.group.id)
+            from RosterSlot rs join rs.student s
+            where rs.group.id = :groupId""")
+    List<RosterSlotRow> findRowsByGroupId(@Param("groupId") Long groupId);
+
+    @Query("select rs.group.id, rs.slot from RosterSlot rs where rs.student.id = :studentId")
+    List<Object[]> findGroupSlotsByStudentId(@Param("studentId") Long studentId);
+
+    // Слоты студентов группы во всех группах, где они когда-либо были
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            delete from RosterSlot rs
+            where rs.group.id = :groupId
+               or rs.student.id in (select s.id from Student s where s.group.id = :groupId)""")
+    int bulkDeleteByGroupId(@Param("groupId") Long groupId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from RosterSlot rs where rs.student.id = :studentId")
+    int bulkDeleteByStudentId(@Param("studentId") Long studentId);
+}
@@ -1,12 +1,119 @@
 package com.agn.web.repository;
 
+import com.agn.web.dto.GradebookStudentRow;
+import com.agn.web.dto.StudentRowDTO;
 import com.agn.web.entity.Student;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
     List<Student> findByGroupId(Long groupId);
+
+    @Query("select g.id from Student s join s.group g where s.id = :id")
+    Optional<Long> findGroupIdById(@Param("id") Long id);
+
+    // Keyset-пагинация: каждая страница — один range scan по индексу, без OFFSET и без загрузки сущностей
+
+    @Query("""
+            select new com.agn.web.dto.StudentRowDTO(s.id, s.firstName, s.lastName, s.middleName, s.dateBorn, g.id, g.name)
+            from Student s left join s.group g
+            where s.id > :after
+            order by s.id""")
+    List<StudentRowDTO> findPageAfterId(@Param("after") long after, Limit limit);
+
+    @Query("""
+            select new com.agn.web.dto.StudentRowDTO(s.id, s.firstName, s.lastName, s.middleName, s.dateBorn, g.id, g.name)
+            from Student s join s.group g
+            where g.id = :groupId and s.id > :after
+            order by s.id""")
+    List<StudentRowDTO> findGroupPageAfterId(@Param("groupId") Long groupId, @Param("after") long after, Limit limit);
+
+    @Query("""
+            select new com.agn.web.dto.StudentRowDTO(s.id, s.firstName, s.lastName, s.middleName, s.dateBorn, g.id, g.name)
+            from Student s left join s.group g
+            where s.lastName > :lastName or (s.lastName = :lastName and s.id > :after)
+            order by s.lastName, s.id""")
+    List<StudentRowDTO> findPageAfterLastName(@Param("lastName") String lastName, @Param("after") long after, Limit limit);
+
+    @Query("""
+            select new com.agn.web.dto.StudentRowDTO(s.id, s.firstName, s.lastName, s.middleName, s.dateBorn, g.id, g.name)
+            from Student s join s.group g
+            where g.id = :groupId and (s.lastName > :lastName or (s.lastName = :lastName and s.id > :after))
+            order by s.lastName, s.id""")
+    List<StudentRowDTO> findGroupPageAfterLastName(@Param("groupId") Long groupId, @Param("lastName") String lastName,
+                                                   @Param("after") long after, Limit limit);
+
+    // Студенты без фамилии идут в конце сортировки по фамилии, упорядоченные по id
+    @Query("""
+            select new com.agn.web.dto.StudentRowDTO(s.id, s.firstName, s.lastName, s.middleName, s.dateBorn, g.id, g.name)
+            from Student s left join s.group g
+            where s.lastName is null and s.id > :after
+            order by s.id""")
+    List<StudentRowDTO> findPageWithoutLastName(@Param("after") long after, Limit limit);
+
+    @Query("""
+            select new com.agn.web.dto.StudentRowDTO(s.id, s.firstName, s.lastName, s.middleName, s.dateBorn, g.id, g.name)
+            from Student s join s.group g
+            where g.id = :groupId and s.lastName is null and s.id > :after
+            order by s.id""")
+    List<StudentRowDTO> findGroupPageWithoutLastName(@Param("groupId") Long groupId, @Param("after") long after, Limit limit);
+
+    @Query("""
+            select new com.agn.web.dto.StudentRowDTO(s.id, s.firstName, s.lastName, s.middleName, s.dateBorn, g.id, g.name)
+            from Student s left join s.group g
+            where s.id = :id""")
+    Optional<StudentRowDTO> findRowById(@Param("id") Long id);
+
+    @Query("""
+            select new com.agn.web.dto.StudentRowDTO(s.id, s.firstName, s.lastName, s.middleName, s.dateBorn, g.id, g.name)
+            from Student s join s.group g
+            where g.id = :groupId""")
+    List<StudentRowDTO> findRowsByGroupId(@Param("groupId") Long groupId);
+
+    @Query("""
+            select new com.agn.web.dto.StudentRowDTO(s.id, s.firstName, s.lastName, s.middleName, s.dateBorn, g.id, g.name)
+            from Student s left join s.group g""")
+    List<StudentRowDTO> findAllRows();
+
+    // Студенты группы со слотами посещаемости в ней (слота может ещё не быть)
+    @Query("""
+            select new com.agn.web.dto.GradebookStudentRow(s.id, s.lastName, s.firstName, rs.slot)
+            from Student s left join RosterSlot rs on rs.student = s and rs.group.id = :groupId
+            where s.group.id = :groupId
+            order by s.lastName, s.firstName, s.id""")
+    List<GradebookStudentRow> findGradebookRows(@Param("groupId") Long groupId);
+
+    // Потоковая выгрузка: курсор с fetch size, вызывать внутри транзакции и закрывать Stream
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("""
+            select new com.agn.web.dto.StudentRowDTO(s.id, s.firstName, s.lastName, s.middleName, s.dateBorn, g.id, g.name)
+            from Student s left join s.group g
+            order by s.id""")
+    Stream<StudentRowDTO> streamAllRows();
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("""
+            select new com.agn.web.dto.StudentRowDTO(s.id, s.firstName, s.lastName, s.middleName, s.dateBorn, g.id, g.name)
+            from Student s join s.group g
+            where g.id = :groupId
+            order by s.lastName, s.id""")
+    Stream<StudentRowDTO> streamRowsByGroupId(@Param("groupId") Long groupId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Student s where s.group.id = :groupId")
+    int bulkDeleteByGroupId(@Param("groupId") Long groupId);
 }
@@ -2,6 +2,9 @@ package com.agn.web.repository;
 
 import com.agn.web.entity.Subject;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +12,8 @@ import java.util.Optional;
 @Repository
 public interface SubjectRepository extends JpaRepository<Subject, Long> {
     Optional<Subject> findByName(String name);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Subject s where s.id = :id")
+    int bulkDeleteById(@Param("id") Long id);
 }
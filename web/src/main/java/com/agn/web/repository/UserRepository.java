@@ -1,8 +1,11 @@
 package com.agn.web.repository;
 
+import com.agn.web.dto.UserSummaryDTO;
 import com.agn.web.entity.Role;
 import com.agn.web.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,5 +14,15 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
-    List<User> findByRole(Role role);
+
+    boolean existsByIdAndRole(Long id, Role role);
+
+    @Query("""
+            select new com.agn.web.dto.UserSummaryDTO(u.id, u.username, u.firstName, u.lastName, u.role)
+            from User u
+            where u.role = :role""")
+    List<UserSummaryDTO> findSummariesByRole(@Param("role") Role role);
+
+    @Query("select u.username from User u")
+    List<String> findAllUsernames();
 }
@@ -0,0 +1,29 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.AbsenceStreakDTO;
+import com.agn.web.dto.AttendanceMarkRequest;
+import com.agn.web.dto.LessonAttendanceDTO;
+import com.agn.web.dto.StudentAttendanceDTO;
+
+import java.util.List;
+
+public interface AttendanceService {
+    LessonAttendanceDTO getLessonAttendance(Long lessonId);
+
+    /**
+     * Records the listed students as present or absent; students not mentioned keep their marks.
+     */
+    LessonAttendanceDTO markAttendance(Long lessonId, AttendanceMarkRequest request);
+
+    /**
+     * Removes the attendance record of the listed students, as if it was never taken.
+     */
+    LessonAttendanceDTO unmarkAttendance(Long lessonId, List<Long> studentIds);
+
+    StudentAttendanceDTO getStudentAttendance(Long studentId);
+
+    /**
+     * Current members of the group whose latest {@code minStreak} or more recorded lessons were all absences.
+     */
+    List<AbsenceStreakDTO> getAbsenceStreaks(Long groupId, int minStreak);
+}
@@ -0,0 +1,263 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.AbsenceStreakDTO;
+import com.agn.web.dto.AttendanceBitmapRow;
+import com.agn.web.dto.AttendanceMarkRequest;
+import com.agn.web.dto.LessonAttendanceDTO;
+import com.agn.web.dto.RosterSlotRow;
+import com.agn.web.dto.StudentAttendanceDTO;
+import com.agn.web.dto.StudentRowDTO;
+import com.agn.web.entity.Lesson;
+import com.agn.web.entity.LessonAttendance;
+import com.agn.web.entity.RosterSlot;
+import com.agn.web.repository.GroupRepository;
+import com.agn.web.repository.LessonAttendanceRepository;
+import com.agn.web.repository.LessonRepository;
+import com.agn.web.repository.RosterSlotRepository;
+import com.agn.web.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class AttendanceServiceImpl implements AttendanceService {
+
+    private final LessonAttendanceRepository lessonAttendanceRepository;
+    private final RosterSlotRepository rosterSlotRepository;
+    private final LessonRepository lessonRepository;
+    private final GroupRepository groupRepository;
+    private final StudentRepository studentRepository;
+    private final StudentService studentService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public LessonAttendanceDTO getLessonAttendance(Long lessonId) {
+        Lesson lesson = findLesson(lessonId);
+        Roster roster = loadRoster(lesson.getGroup().getId());
+        return lessonAttendanceRepository.findById(lessonId)
+                .map(attendance -> toDto(lessonId, roster, attendance))
+                .orElseGet(() -> emptyDto(lessonId));
+    }
+
+    @Override
+    @Transactional
+    public LessonAttendanceDTO markAttendance(Long lessonId, AttendanceMarkRequest request) {
+        Lesson lesson = lockLesson(lessonId);
+        Long groupId = lesson.getGroup().getId();
+        List<Long> present = request.present() != null ? request.present() : List.of();
+        List<Long> absent = request.absent() != null ? request.absent() : List.of();
+        validate(groupId, present, absent);
+
+        groupRepository.findByIdForUpdate(groupId);
+        Roster roster = loadRoster(groupId);
+        allocateSlots(groupId, roster, present);
+        allocateSlots(groupId, roster, absent);
+
+        LessonAttendance attendance = lessonAttendanceRepository.findById(lessonId)
+                .orElseGet(() -> new LessonAttendance(null, lesson, new byte[0], new byte[0]));
+        BitSet marked = BitSet.valueOf(attendance.getMarked());
+        BitSet presentBits = BitSet.valueOf(attendance.getPresent());
+        for (Long studentId : present) {
+            int slot = roster.slotByStudent.get(studentId);
+            marked.set(slot);
+            presentBits.set(slot);
+        }
+        for (Long studentId : absent) {
+            int slot = roster.slotByStudent.get(studentId);
+            marked.set(slot);
+            presentBits.clear(slot);
+        }
+        attendance.setMarked(marked.toByteArray());
+        attendance.setPresent(presentBits.toByteArray());
+        lessonAttendanceRepository.save(attendance);
+        return toDto(lessonId, roster, attendance);
+    }
+
+    @Override
+    @Transactional
+    public LessonAttendanceDTO unmarkAttendance(Long lessonId, List<Long> studentIds) {
+        Lesson lesson = lockLesson(lessonId);
+        Long groupId = lesson.getGroup().getId();
+        groupRepository.findByIdForUpdate(groupId);
+        LessonAttendance attendance = lessonAttendanceRepository.findById(lessonId).orElse(null);
+        if (attendance == null) {
+            return emptyDto(lessonId);
+        }
+        Roster roster = loadRoster(groupId);
+        BitSet marked = BitSet.valueOf(attendance.getMarked());
+        BitSet present = BitSet.valueOf(attendance.getPresent());
+        for (Long studentId : studentIds) {
+            Integer slot = roster.slotByStudent.get(studentId);
+            if (slot != null) {
+                marked.clear(slot);
+                present.clear(slot);
+            }
+        }
+        if (marked.isEmpty()) {
+            lessonAttendanceRepository.delete(attendance);
+            return emptyDto(lessonId);
+        }
+        attendance.setMarked(marked.toByteArray());
+        attendance.setPresent(present.toByteArray());
+        lessonAttendanceRepository.save(attendance);
+        return toDto(lessonId, roster, attendance);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StudentAttendanceDTO getStudentAttendance(Long studentId) {
+        if (!studentRepository.existsById(studentId)) {
+            throw new RuntimeException("Student not found with id: " + studentId);
+        }
+        // Отметки по всем группам, в которых студент когда-либо числился
+        List<Mark> marks = new ArrayList<>();
+        for (Object[] groupSlot : rosterSlotRepository.findGroupSlotsByStudentId(studentId)) {
+            Long groupId = (Long) groupSlot[0];
+            int slot = (Integer) groupSlot[1];
+            for (AttendanceBitmapRow row : lessonAttendanceRepository.findBitmapsByGroupId(groupId)) {
+                if (BitSet.valueOf(row.marked()).get(slot)) {
+                    marks.add(new Mark(row.startTime(), BitSet.valueOf(row.present()).get(slot)));
+                }
+            }
+        }
+        marks.sort(Comparator.comparing(Mark::startTime));
+
+        int attended = (int) marks.stream().filter(Mark::present).count();
+        int streak = 0;
+        for (int i = marks.size() - 1; i >= 0 && !marks.get(i).present(); i--) {
+            streak++;
+        }
+        Double rate = marks.isEmpty() ? null : Math.round(attended * 1000.0 / marks.size()) / 1000.0;
+        return new StudentAttendanceDTO(studentId, marks.size(), attended, rate, streak);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AbsenceStreakDTO> getAbsenceStreaks(Long groupId, int minStreak) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new RuntimeException("Group not found");
+        }
+        List<RosterSlotRow> slots = rosterSlotRepository.findRowsByGroupId(groupId);
+        BitSet open = new BitSet();
+        for (RosterSlotRow row : slots) {
+            if (groupId.equals(row.currentGroupId())) {
+                open.set(row.slot());
+            }
+        }
+        // Идём от последнего занятия к первому; у студента серия обрывается на первом присутствии
+        int[] streaks = new int[Math.max(open.length(), 1)];
+        List<AttendanceBitmapRow> bitmaps = lessonAttendanceRepository.findBitmapsByGroupId(groupId);
+        for (int i = bitmaps.size() - 1; i >= 0 && !open.isEmpty(); i--) {
+            BitSet marked = BitSet.valueOf(bitmaps.get(i).marked());
+            BitSet present = BitSet.valueOf(bitmaps.get(i).present());
+            marked.and(open);
+            BitSet attended = (BitSet) marked.clone();
+            attended.and(present);
+            marked.andNot(present);
+            marked.stream().forEach(slot -> streaks[slot]++);
+            open.andNot(attended);
+        }
+
+        List<AbsenceStreakDTO> result = new ArrayList<>();
+        for (RosterSlotRow row : slots) {
+            if (groupId.equals(row.currentGroupId()) && row.slot() < streaks.length && streaks[row.slot()] >= minStreak) {
+                result.add(new AbsenceStreakDTO(row.studentId(), row.lastName(), row.firstName(), streaks[row.slot()]));
+            }
+        }
+        result.sort(Comparator.comparingInt(AbsenceStreakDTO::streak).reversed());
+        return result;
+    }
+
+    private Lesson findLesson(Long lessonId) {
+        return lessonRepository.findById(lessonId)
+                .orElseThrow(() -> new RuntimeException("Lesson not found with id: " + lessonId));
+    }
+
+    /** Блокировка строки занятия: пока пишутся биты, смена его группы ждёт (см. LessonServiceImpl.updateLesson) */
+    private Lesson lockLesson(Long lessonId) {
+        return lessonRepository.findByIdForUpdate(lessonId)
+                .orElseThrow(() -> new RuntimeException("Lesson not found with id: " + lessonId));
+    }
+
+    private void validate(Long groupId, List<Long> present, List<Long> absent) {
+        Set<Long> roster = new HashSet<>();
+        for (StudentRowDTO student : studentService.getStudentsByGroupId(groupId)) {
+            roster.add(student.id());
+        }
+        Set<Long> seen = new HashSet<>();
+        for (List<Long> ids : List.of(present, absent)) {
+            for (Long studentId : ids) {
+                if (!seen.add(studentId)) {
+                    throw new IllegalArgumentException("Студент указан дважды: " + studentId);
+                }
+                if (!roster.contains(studentId)) {
+                    throw new IllegalArgumentException("Студент " + studentId + " не состоит в группе занятия");
+                }
+            }
+        }
+    }
+
+    /** Выдаёт новые слоты студентам, которых ещё не отмечали в этой группе; вызывать под блокировкой группы */
+    private void allocateSlots(Long groupId, Roster roster, List<Long> studentIds) {
+        List<RosterSlot> created = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            if (!roster.slotByStudent.containsKey(studentId)) {
+                int slot = ++roster.maxSlot;
+                roster.slotByStudent.put(studentId, slot);
+                roster.studentBySlot.put(slot, studentId);
+                created.add(new RosterSlot(null, groupRepository.getReferenceById(groupId),
+                        studentRepository.getReferenceById(studentId), slot));
+            }
+        }
+        if (!created.isEmpty()) {
+            rosterSlotRepository.saveAll(created);
+        }
+    }
+
+    private Roster loadRoster(Long groupId) {
+        Roster roster = new Roster();
+        for (RosterSlotRow row : rosterSlotRepository.findRowsByGroupId(groupId)) {
+            roster.slotByStudent.put(row.studentId(), row.slot());
+            roster.studentBySlot.put(row.slot(), row.studentId());
+            roster.maxSlot = Math.max(roster.maxSlot, row.slot());
+        }
+        return roster;
+    }
+
+    private static LessonAttendanceDTO toDto(Long lessonId, Roster roster, LessonAttendance attendance) {
+        BitSet marked = BitSet.valueOf(attendance.getMarked());
+        BitSet present = BitSet.valueOf(attendance.getPresent());
+        List<Long> presentIds = new ArrayList<>();
+        List<Long> absentIds = new ArrayList<>();
+        marked.stream().forEach(slot -> {
+            Long studentId = roster.studentBySlot.get(slot);
+            if (studentId != null) {
+                (present.get(slot) ? presentIds : absentIds).add(studentId);
+            }
+        });
+        return new LessonAttendanceDTO(lessonId, presentIds.size() + absentIds.size(), presentIds.size(), presentIds, absentIds);
+    }
+
+    private static LessonAttendanceDTO emptyDto(Long lessonId) {
+        return new LessonAttendanceDTO(lessonId, 0, 0, List.of(), List.of());
+    }
+
+    private record Mark(LocalDateTime startTime, boolean present) {}
+
+    private static class Roster {
+        final Map<Long, Integer> slotByStudent = new HashMap<>();
+        final Map<Integer, Long> studentBySlot = new HashMap<>();
+        int maxSlot = -1;
+    }
+}
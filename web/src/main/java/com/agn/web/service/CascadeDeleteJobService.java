@@ -0,0 +1,229 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.DeleteJobDTO;
+import com.agn.web.entity.DisciplineGroup;
+import com.agn.web.entity.Grade;
+import com.agn.web.entity.Group;
+import com.agn.web.entity.Lesson;
+import com.agn.web.entity.Student;
+import com.agn.web.entity.Subject;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.repository.GroupRepository;
+import com.agn.web.repository.SubjectRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous cascade deletion for very large groups and subjects. Rows are deleted in chunks,
+ * each chunk in its own short transaction, so row locks are never held for the whole cascade.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CascadeDeleteJobService {
+
+    private static final int CHUNK_SIZE = 5_000;
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+
+    private static final List<Step> GROUP_STEPS = List.of(
+            Step.chunked("lesson_attendance", "DELETE FROM lesson_attendance WHERE lesson_id IN (SELECT a.lesson_id "
+                    + "FROM lesson_attendance a JOIN lessons l ON l.id = a.lesson_id WHERE l.group_id = ? LIMIT ?)"),
+            Step.chunked("roster_slots", "DELETE FROM roster_slots WHERE id IN (SELECT id FROM roster_slots WHERE group_id = ? LIMIT ?)"),
+            Step.chunked("roster_slots", "DELETE FROM roster_slots WHERE id IN (SELECT rs.id FROM roster_slots rs "
+                    + "JOIN students s ON s.id = rs.student_id WHERE s.group_id = ? LIMIT ?)"),
+            Step.chunked("grades", "DELETE FROM grades WHERE id IN (SELECT g.id FROM grades g "
+                    + "JOIN lessons l ON l.id = g.lesson_id WHERE l.group_id = ? LIMIT ?)"),
+            Step.chunked("grades", "DELETE FROM grades WHERE id IN (SELECT g.id FROM grades g "
+                    + "JOIN students s ON s.id = g.student_id WHERE s.group_id = ? LIMIT ?)"),
+            Step.chunked("lessons", "DELETE FROM lessons WHERE id IN (SELECT id FROM lessons WHERE group_id = ? LIMIT ?)"),
+            Step.chunked("discipline_groups", "DELETE FROM discipline_groups WHERE id IN "
+                    + "(SELECT id FROM discipline_groups WHERE group_id = ? LIMIT ?)"),
+            Step.chunked("students", "DELETE FROM students WHERE id IN (SELECT id FROM students WHERE group_id = ? LIMIT ?)"),
+            Step.single("groups", "DELETE FROM groups WHERE id = ?")
+    );
+
+    private static final List<Step> SUBJECT_STEPS = List.of(
+            Step.chunked("lesson_attendance", "DELETE FROM lesson_attendance WHERE lesson_id IN (SELECT a.lesson_id "
+                    + "FROM lesson_attendance a JOIN lessons l ON l.id = a.lesson_id WHERE l.subject_id = ? LIMIT ?)"),
+            Step.chunked("grades", "DELETE FROM grades WHERE id IN (SELECT g.id FROM grades g "
+                    + "JOIN lessons l ON l.id = g.lesson_id WHERE l.subject_id = ? LIMIT ?)"),
+            Step.chunked("lessons", "DELETE FROM lessons WHERE id IN (SELECT id FROM lessons WHERE subject_id = ? LIMIT ?)"),
+            Step.chunked("discipline_groups", "DELETE FROM discipline_groups WHERE id IN "
+                    + "(SELECT id FROM discipline_groups WHERE subject_id = ? LIMIT ?)"),
+            Step.single("subjects", "DELETE FROM subjects WHERE id = ?")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GroupRepository groupRepository;
+    private final SubjectRepository subjectRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "cascade-delete");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DeleteJobDTO startGroupDeletion(Long groupId) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new RuntimeException("Group not found");
+        }
+        return start("group", groupId, GROUP_STEPS);
+    }
+
+    public DeleteJobDTO startSubjectDeletion(Long subjectId) {
+        if (!subjectRepository.existsById(subjectId)) {
+            throw new RuntimeException("Subject not found with id: " + subjectId);
+        }
+        return start("subject", subjectId, SUBJECT_STEPS);
+    }
+
+    public Optional<DeleteJobDTO> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toDto);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private DeleteJobDTO start(String target, Long targetId, List<Step> steps) {
+        purgeFinishedJobs();
+        Job job = new Job(UUID.randomUUID().toString(), target, targetId);
+        jobs.put(job.id, job);
+        executor.submit(() -> run(job, steps));
+        return job.toDto();
+    }
+
+    private void run(Job job, List<Step> steps) {
+        job.status = "RUNNING";
+        try {
+            for (Step step : steps) {
+                if (Thread.currentThread().isInterrupted()) {
+                    // Родитель не удаляем: часть дочерних строк ещё на месте
+                    job.status = "CANCELLED";
+                    return;
+                }
+                job.currentTable = step.table();
+                if (step.chunked()) {
+                    deleteInChunks(job, step);
+                } else {
+                    deleteParent(job, steps, step);
+                }
+            }
+            job.status = "COMPLETED";
+            if ("group".equals(job.target)) {
+                eventPublisher.publishEvent(EntityChangeEvent.deleted(Group.class, job.targetId, null));
+            } else {
+                eventPublisher.publishEvent(EntityChangeEvent.deleted(Subject.class, job.targetId, null));
+            }
+        } catch (RuntimeException e) {
+            log.error("Cascade delete of {} {} failed", job.target, job.targetId, e);
+            job.status = "FAILED";
+            job.error = e.getMessage();
+        } finally {
+            job.currentTable = null;
+            job.finishedAt = LocalDateTime.now();
+            if (!"COMPLETED".equals(job.status)) {
+                // Каскад прерван на середине: занятия, оценки и назначения удалены частично
+                eventPublisher.publishEvent(EntityChangeEvent.bulk(Lesson.class));
+                eventPublisher.publishEvent(EntityChangeEvent.bulk(Grade.class));
+                eventPublisher.publishEvent(EntityChangeEvent.bulk(DisciplineGroup.class));
+            }
+            if ("group".equals(job.target)) {
+                // Даже при сбое часть студентов уже удалена; по событию сбрасываются и составы групп
+                eventPublisher.publishEvent(EntityChangeEvent.bulk(Student.class));
+            }
+        }
+    }
+
+    private void deleteInChunks(Job job, Step step) {
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(tx -> jdbcTemplate.update(step.sql(), job.targetId, CHUNK_SIZE));
+            job.deletedRows.addAndGet(deleted);
+        } while (deleted >= CHUNK_SIZE && !Thread.currentThread().isInterrupted());
+    }
+
+    /**
+     * Блокировка строки родителя не даёт вставить новые дочерние строки (вставка ссылки ждёт её),
+     * а добавленные, пока шли чанки, дочищаются в той же транзакции — иначе DELETE родителя упал бы на FK.
+     */
+    private void deleteParent(Job job, List<Step> steps, Step parent) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            jdbcTemplate.queryForList(parent.lockSql(), Long.class, job.targetId);
+            for (Step step : steps) {
+                if (!step.chunked()) {
+                    continue;
+                }
+                int deleted;
+                do {
+                    deleted = jdbcTemplate.update(step.sql(), job.targetId, CHUNK_SIZE);
+                    job.deletedRows.addAndGet(deleted);
+                } while (deleted >= CHUNK_SIZE);
+            }
+            job.deletedRows.addAndGet(jdbcTemplate.update(parent.sql(), job.targetId));
+        });
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    /** Шаг каскада; chunked-SQL принимает (id, размер чанка) и удаляет не больше чанка строк за раз */
+    private record Step(String table, String sql, boolean chunked) {
+        static Step chunked(String table, String sql) {
+            return new Step(table, sql, true);
+        }
+
+        static Step single(String table, String sql) {
+            return new Step(table, sql, false);
+        }
+
+        String lockSql() {
+            return "SELECT id FROM " + table + " WHERE id = ? FOR UPDATE";
+        }
+    }
+
+    private static class Job {
+        final String id;
+        final String target;
+        final Long targetId;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicLong deletedRows = new AtomicLong();
+        volatile String status = "QUEUED";
+        volatile String currentTable;
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        Job(String id, String target, Long targetId) {
+            this.id = id;
+            this.target = target;
+            this.targetId = targetId;
+        }
+
+        DeleteJobDTO toDto() {
+            return new DeleteJobDTO(id, target, targetId, status, currentTable, deletedRows.get(),
+                    startedAt, finishedAt, error);
+        }
+    }
+}
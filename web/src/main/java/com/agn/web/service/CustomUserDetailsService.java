@@ -1,32 +1,93 @@
 package com.agn.web.service;
 
+import com.agn.web.config.CacheConfig;
+import com.agn.web.entity.Role;
 import com.agn.web.entity.User;
 import com.agn.web.repository.UserRepository;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.List;
 
+/**
+ * Loads login credentials through a bounded TTL cache. Callers that change a username, password or role
+ * must {@link #evict} the affected usernames.
+ */
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    // Неизменяемый снимок: ProviderManager стирает пароль в выданном UserDetails, поэтому кэшируем не его
+    private record CachedUser(Long id, String username, String password, Role role, List<GrantedAuthority> authorities) {
+    }
+
+    /**
+     * UserDetails that also carries the user id and role, so a successful login needs no second lookup.
+     */
+    @Getter
+    public static class AccountDetails extends org.springframework.security.core.userdetails.User {
+        private final Long id;
+        private final Role role;
+
+        AccountDetails(Long id, String username, String password, Role role, List<GrantedAuthority> authorities) {
+            super(username, password, authorities);
+            this.id = id;
+            this.role = role;
+        }
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден: " + username));
-
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
-        );
+        Cache cache = cacheManager.getCache(CacheConfig.USER_DETAILS);
+        CachedUser cached = cache != null ? cache.get(username, CachedUser.class) : null;
+        if (cached == null) {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден: " + username));
+            cached = new CachedUser(user.getId(), user.getUsername(), user.getPassword(), user.getRole(),
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
+            if (cache != null) {
+                cache.put(username, cached);
+            }
+        }
+
+        return new AccountDetails(cached.id(), cached.username(), cached.password(), cached.role(), cached.authorities());
+    }
+
+    /**
+     * Called by the authentication provider after a successful login when the stored hash is weaker
+     * than the current encoder, e.g. for provisioned accounts; stores the stronger hash.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        evict(user.getUsername());
+        return loadUserByUsername(user.getUsername());
     }
-}
 
+    public void evict(String... usernames) {
+        Cache cache = cacheManager.getCache(CacheConfig.USER_DETAILS);
+        if (cache != null) {
+            for (String username : usernames) {
+                if (username != null) {
+                    cache.evict(username);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.agn.web.service;
+
+import com.agn.web.entity.Grade;
+import com.agn.web.entity.Group;
+import com.agn.web.entity.Lesson;
+import com.agn.web.entity.Student;
+import com.agn.web.entity.Subject;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.event.GradesChangedEvent;
+import com.agn.web.event.GradesChangedEvent.GradeDelta;
+import com.agn.web.repository.GradeRepository;
+import com.agn.web.repository.GroupRepository;
+import com.agn.web.repository.LessonRepository;
+import com.agn.web.repository.StudentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Row counts shown on the dashboard, loaded once on startup and then maintained from committed
+ * entity and grade events, so reading them costs no SQL. Cascading deletes change an unknown number
+ * of dependent rows; those counters are recounted in the background. A periodic reconciliation
+ * repairs any remaining drift.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardCounters {
+
+    public enum Counter {
+        STUDENTS, GROUPS, LESSONS, GRADES
+    }
+
+    private final StudentRepository studentRepository;
+    private final GroupRepository groupRepository;
+    private final LessonRepository lessonRepository;
+    private final GradeRepository gradeRepository;
+
+    private final AtomicLong students = new AtomicLong();
+    private final AtomicLong groups = new AtomicLong();
+    private final AtomicLong lessons = new AtomicLong();
+    private final AtomicLong grades = new AtomicLong();
+    private final Set<Counter> recountQueued = ConcurrentHashMap.newKeySet();
+    private final ExecutorService recountExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dashboard-counters");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public long get(Counter counter) {
+        return value(counter).get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        EntityChangeEvent.ChangeType type = event.changeType();
+        if (event.isAbout(Student.class)) {
+            track(students, type, Counter.STUDENTS);
+            if (type == EntityChangeEvent.ChangeType.DELETED) {
+                recount(Counter.GRADES);
+            }
+        } else if (event.isAbout(Group.class)) {
+            track(groups, type, Counter.GROUPS);
+            if (type == EntityChangeEvent.ChangeType.DELETED) {
+                recount(Counter.STUDENTS, Counter.LESSONS, Counter.GRADES);
+            }
+        } else if (event.isAbout(Lesson.class)) {
+            track(lessons, type, Counter.LESSONS);
+            if (type == EntityChangeEvent.ChangeType.DELETED) {
+                recount(Counter.GRADES);
+            }
+        } else if (event.isAbout(Subject.class) && type == EntityChangeEvent.ChangeType.DELETED) {
+            recount(Counter.LESSONS, Counter.GRADES);
+        } else if (event.isAbout(Grade.class) && type == EntityChangeEvent.ChangeType.BULK) {
+            recount(Counter.GRADES);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGradesChanged(GradesChangedEvent event) {
+        long delta = 0;
+        for (GradeDelta gradeDelta : event.deltas()) {
+            delta += gradeDelta.countDelta();
+        }
+        grades.addAndGet(delta);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.counters.reconcile-interval:PT10M}",
+            initialDelayString = "${dashboard.counters.reconcile-interval:PT10M}")
+    public void reconcile() {
+        for (Counter counter : Counter.values()) {
+            long previous = value(counter).get();
+            long actual = count(counter);
+            // Событие между COUNT и записью может потеряться — его поправит следующая сверка
+            value(counter).set(actual);
+            if (previous != actual) {
+                log.info("Dashboard counter {} reconciled: {} -> {}", counter, previous, actual);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        recountExecutor.shutdownNow();
+    }
+
+    private void track(AtomicLong value, EntityChangeEvent.ChangeType type, Counter counter) {
+        switch (type) {
+            case CREATED -> value.incrementAndGet();
+            case DELETED -> value.decrementAndGet();
+            case BULK -> recount(counter);
+            case UPDATED -> {
+            }
+        }
+    }
+
+    private void recount(Counter... counters) {
+        for (Counter counter : counters) {
+            if (recountQueued.add(counter)) {
+                recountExecutor.submit(() -> {
+                    recountQueued.remove(counter);
+                    value(counter).set(count(counter));
+                });
+            }
+        }
+    }
+
+    private long count(Counter counter) {
+        return switch (counter) {
+            case STUDENTS -> studentRepository.count();
+            case GROUPS -> groupRepository.count();
+            case LESSONS -> lessonRepository.count();
+            case GRADES -> gradeRepository.count();
+        };
+    }
+
+    private AtomicLong value(Counter counter) {
+        return switch (counter) {
+            case STUDENTS -> students;
+            case GROUPS -> groups;
+            case LESSONS -> lessons;
+            case GRADES -> grades;
+        };
+    }
+}
@@ -1,55 +1,128 @@
 package com.agn.web.service;
 
+import com.agn.web.config.CacheConfig;
 import com.agn.web.dto.DashboardStatsDTO;
 import com.agn.web.dto.LessonDTO;
+import com.agn.web.dto.PendingGradingDTO;
+import com.agn.web.dto.TeacherAssignmentDTO;
+import com.agn.web.dto.TeacherDashboardDTO;
+import com.agn.web.entity.DisciplineGroup;
+import com.agn.web.entity.Group;
 import com.agn.web.entity.Lesson;
-import com.agn.web.repository.GroupRepository;
-import com.agn.web.repository.StudentRepository;
+import com.agn.web.entity.Student;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.event.GradesChangedEvent;
+import com.agn.web.repository.DisciplineGroupRepository;
+import com.agn.web.repository.LessonRepository;
+import com.agn.web.repository.UserRepository;
+import com.agn.web.service.DashboardCounters.Counter;
+import com.agn.web.service.LessonCalendarService.CalendarFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.time.LocalDate;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
 
-    private final StudentRepository studentRepository;
-    private final GroupRepository groupRepository;
-    // Временно убрали, пока нет таблиц grades и lessons
-    // private final GradeRepository gradeRepository;
-    // private final LessonRepository lessonRepository;
+    private static final int UPCOMING_LESSONS = 3;
+    private static final int PENDING_GRADING_LIMIT = 20;
+    private static final Duration PENDING_GRADING_WINDOW = Duration.ofDays(30);
 
-    public DashboardStatsDTO getStats() {
-        long totalStudents = studentRepository.count();
-        long totalGroups = groupRepository.count();
+    private final DashboardCounters dashboardCounters;
+    private final GradeAggregateService gradeAggregateService;
+    private final LessonCalendarService lessonCalendarService;
+    private final DisciplineGroupRepository disciplineGroupRepository;
+    private final LessonRepository lessonRepository;
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
 
-        // Временно отключено, пока нет данных об оценках
-        double averageGrade = 0.0;
-        // Double avgGradeVal = gradeRepository.getAverageGrade();
-        // double averageGrade = avgGradeVal != null ? Math.round(avgGradeVal * 10.0) / 10.0 : 0.0;
+    public DashboardStatsDTO getStats() {
+        // Счётчики в памяти, обновляются событиями записи
+        long totalStudents = dashboardCounters.get(Counter.STUDENTS);
+        long totalGroups = dashboardCounters.get(Counter.GROUPS);
 
-        // Временно отключено, пока нет данных об уроках
-        long lessonsToday = 0;
-        // LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        // LocalDateTime endOfDay = LocalDate.now().atTime(LocalTime.MAX);
-        // long lessonsToday = lessonRepository.countByStartTimeBetween(startOfDay, endOfDay);
+        // Средний балл из агрегатов в памяти, без AVG по всей таблице grades
+        Double avgGradeVal = gradeAggregateService.getOverall().average();
+        double averageGrade = avgGradeVal != null ? avgGradeVal : 0.0;
 
-        // List<Lesson> upcomingLessons = lessonRepository.findTop3ByStartTimeAfterOrderByStartTimeAsc(LocalDateTime.now());
-        // List<LessonDTO> upcomingLessonDTOs = upcomingLessons.stream()
-        //         .map(this::mapToLessonDTO)
-        //         .collect(Collectors.toList());
+        // Занятия берутся из календаря в памяти, запросов к lessons нет
+        long lessonsToday = lessonCalendarService.countToday(CalendarFilter.ALL);
+        List<LessonDTO> upcomingLessons = lessonCalendarService.getUpcoming(
+                LocalDateTime.now(), UPCOMING_LESSONS, CalendarFilter.ALL);
 
         return new DashboardStatsDTO(
                 totalStudents,
                 totalGroups,
+                dashboardCounters.get(Counter.LESSONS),
+                dashboardCounters.get(Counter.GRADES),
                 averageGrade,
                 lessonsToday,
-                List.of() // Пустой список уроков пока
+                upcomingLessons
         );
     }
+
+    /**
+     * Assignments with group sizes and lessons waiting for grades come from two queries cached per teacher
+     * for a short time; today's lessons are read from the in-memory calendar on every call.
+     */
+    public TeacherDashboardDTO getTeacherDashboard(Long teacherId) {
+        Cache cache = cacheManager.getCache(CacheConfig.TEACHER_DASHBOARDS);
+        TeacherSnapshot snapshot = cache != null
+                ? cache.get(teacherId, () -> loadTeacherSnapshot(teacherId))
+                : loadTeacherSnapshot(teacherId);
+
+        // Студентов считаем по группам, а не по назначениям: у группы может быть несколько предметов
+        Map<Long, Long> groupSizes = new HashMap<>();
+        for (TeacherAssignmentDTO assignment : snapshot.assignments()) {
+            groupSizes.put(assignment.groupId(), assignment.studentCount());
+        }
+        long totalStudents = groupSizes.values().stream().mapToLong(Long::longValue).sum();
+
+        List<LessonDTO> todayLessons = lessonCalendarService.getToday(new CalendarFilter(null, teacherId, null));
+        return new TeacherDashboardDTO(teacherId, snapshot.assignments(), totalStudents,
+                todayLessons.size(), todayLessons, snapshot.pendingGrading());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.isAbout(DisciplineGroup.class) || event.isAbout(Student.class)
+                || event.isAbout(Group.class) || event.isAbout(Lesson.class)) {
+            clearTeacherDashboards();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGradesChanged(GradesChangedEvent event) {
+        clearTeacherDashboards();
+    }
+
+    private TeacherSnapshot loadTeacherSnapshot(Long teacherId) {
+        if (!userRepository.existsById(teacherId)) {
+            throw new RuntimeException("User not found with id: " + teacherId);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return new TeacherSnapshot(
+                disciplineGroupRepository.findTeacherAssignmentRows(teacherId),
+                lessonRepository.findPendingGrading(teacherId, now.minus(PENDING_GRADING_WINDOW), now,
+                        Limit.of(PENDING_GRADING_LIMIT)));
+    }
+
+    private void clearTeacherDashboards() {
+        Cache cache = cacheManager.getCache(CacheConfig.TEACHER_DASHBOARDS);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private record TeacherSnapshot(List<TeacherAssignmentDTO> assignments, List<PendingGradingDTO> pendingGrading) {}
 }
@@ -0,0 +1,305 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.DisciplineGroupDTO;
+import com.agn.web.entity.DisciplineGroup;
+import com.agn.web.entity.Group;
+import com.agn.web.entity.Subject;
+import com.agn.web.entity.User;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.repository.DisciplineGroupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory index of all DisciplineGroup assignments with lookups on any combination of teacher, group,
+ * subject, semester and year. Loaded on startup and updated after each committed assignment change;
+ * renames of groups, subjects and teachers patch the stored names in place, and deleting a group or a
+ * subject drops its assignments. Queries never touch the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DisciplineGroupIndex {
+
+    private final DisciplineGroupRepository disciplineGroupRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, DisciplineGroupDTO> assignments = new HashMap<>();
+    // значение ключа -> id назначений, отсортированные
+    private final Map<Long, Set<Long>> byTeacher = new HashMap<>();
+    private final Map<Long, Set<Long>> byGroup = new HashMap<>();
+    private final Map<Long, Set<Long>> bySubject = new HashMap<>();
+    private final Map<Integer, Set<Long>> bySemester = new HashMap<>();
+    private final Map<Integer, Set<Long>> byYear = new HashMap<>();
+    private final Set<Long> allIds = new TreeSet<>();
+    // Изменения, пришедшие во время перезагрузки: снимок мог быть прочитан до них, поэтому после
+    // замены индекса они применяются повторно. null — перезагрузка не идёт; защищено lock
+    private Map<Long, Optional<DisciplineGroupDTO>> changedDuringReload;
+
+    /**
+     * Any field may be null, which means "no restriction".
+     */
+    public record AssignmentFilter(Long teacherId, Long groupId, Long subjectId, Integer semester, Integer year) {
+        public static final AssignmentFilter ALL = new AssignmentFilter(null, null, null, null, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        lock.writeLock().lock();
+        try {
+            changedDuringReload = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<DisciplineGroupDTO> rows;
+        try {
+            rows = disciplineGroupRepository.findAllDtos();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            assignments.clear();
+            byTeacher.clear();
+            byGroup.clear();
+            bySubject.clear();
+            bySemester.clear();
+            byYear.clear();
+            allIds.clear();
+            rows.forEach(this::addLocked);
+            changedDuringReload.forEach((id, dto) -> {
+                removeLocked(id);
+                dto.ifPresent(this::addLocked);
+            });
+            changedDuringReload = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Assignment index loaded: {} discipline groups", rows.size());
+    }
+
+    /**
+     * Periodic full reload: covers races between two events of one assignment, each re-reading the row on its own.
+     */
+    @Scheduled(fixedDelayString = "${discipline-groups.index.reconcile-interval:PT10M}",
+            initialDelayString = "${discipline-groups.index.reconcile-interval:PT10M}")
+    public void reconcile() {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.isAbout(DisciplineGroup.class)) {
+            switch (event.changeType()) {
+                case BULK -> reload();
+                case DELETED -> remove(event.id());
+                case CREATED, UPDATED -> disciplineGroupRepository.findDtoById(event.id()).ifPresentOrElse(
+                        this::put, () -> remove(event.id()));
+            }
+        } else if (event.isAbout(Group.class) || event.isAbout(Subject.class) || event.isAbout(User.class)) {
+            onReferencedChange(event);
+        }
+    }
+
+    /** Названия и ФИО хранятся в назначениях, а удаление группы или предмета удаляет их каскадом */
+    private void onReferencedChange(EntityChangeEvent event) {
+        switch (event.changeType()) {
+            case CREATED -> {
+                // Новую группу, предмет или пользователя ещё не назначали
+            }
+            case DELETED -> {
+                if (event.isAbout(Group.class)) {
+                    patch(byGroup, event.id(), dto -> null);
+                } else if (event.isAbout(Subject.class)) {
+                    patch(bySubject, event.id(), dto -> null);
+                } else {
+                    reload();
+                }
+            }
+            case UPDATED -> {
+                if (event.entity() instanceof Group group) {
+                    DisciplineGroupDTO.GroupRef ref = new DisciplineGroupDTO.GroupRef(group.getId(), group.getName());
+                    patch(byGroup, group.getId(), dto -> new DisciplineGroupDTO(
+                            dto.id(), dto.subject(), ref, dto.teacher(), dto.semester(), dto.year()));
+                } else if (event.entity() instanceof Subject subject) {
+                    DisciplineGroupDTO.SubjectRef ref = new DisciplineGroupDTO.SubjectRef(
+                            subject.getId(), subject.getName(), subject.getShortName());
+                    patch(bySubject, subject.getId(), dto -> new DisciplineGroupDTO(
+                            dto.id(), ref, dto.group(), dto.teacher(), dto.semester(), dto.year()));
+                } else if (event.entity() instanceof User user) {
+                    // Смена роли или пароля назначений не касается: патч без изменений ничего не трогает
+                    DisciplineGroupDTO.TeacherRef ref = new DisciplineGroupDTO.TeacherRef(
+                            user.getId(), user.getUsername(), user.getFirstName(), user.getLastName());
+                    patch(byTeacher, user.getId(), dto -> new DisciplineGroupDTO(
+                            dto.id(), dto.subject(), dto.group(), ref, dto.semester(), dto.year()));
+                } else {
+                    reload();
+                }
+            }
+            case BULK -> reload();
+        }
+    }
+
+    public Optional<DisciplineGroupDTO> get(Long id) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(assignments.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Assignments matching every non-null field of the filter, ordered by id.
+     */
+    public List<DisciplineGroupDTO> find(AssignmentFilter filter) {
+        lock.readLock().lock();
+        try {
+            // Перебираем самый короткий из подходящих списков, остальные условия проверяем по DTO
+            Set<Long> candidates = allIds;
+            candidates = narrower(candidates, filter.teacherId(), byTeacher);
+            candidates = narrower(candidates, filter.groupId(), byGroup);
+            candidates = narrower(candidates, filter.subjectId(), bySubject);
+            candidates = narrower(candidates, filter.semester(), bySemester);
+            candidates = narrower(candidates, filter.year(), byYear);
+            List<DisciplineGroupDTO> result = new ArrayList<>(Math.min(candidates.size(), 256));
+            for (Long id : candidates) {
+                DisciplineGroupDTO dto = assignments.get(id);
+                if (matches(dto, filter)) {
+                    result.add(dto);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static <K> Set<Long> narrower(Set<Long> current, K key, Map<K, Set<Long>> index) {
+        if (key == null) {
+            return current;
+        }
+        Set<Long> ids = index.getOrDefault(key, Set.of());
+        return ids.size() < current.size() ? ids : current;
+    }
+
+    private static boolean matches(DisciplineGroupDTO dto, AssignmentFilter filter) {
+        return (filter.teacherId() == null || (dto.teacher() != null && filter.teacherId().equals(dto.teacher().id())))
+                && (filter.groupId() == null || filter.groupId().equals(dto.group().id()))
+                && (filter.subjectId() == null || filter.subjectId().equals(dto.subject().id()))
+                && (filter.semester() == null || filter.semester().equals(dto.semester()))
+                && (filter.year() == null || filter.year().equals(dto.year()));
+    }
+
+    private void put(DisciplineGroupDTO dto) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(dto.id());
+            addLocked(dto);
+            if (changedDuringReload != null) {
+                changedDuringReload.put(dto.id(), Optional.of(dto));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (changedDuringReload != null) {
+                changedDuringReload.put(id, Optional.empty());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces every assignment under {@code key} with {@code change} applied to it; null removes it.
+     * The keys an assignment is indexed by do not change.
+     */
+    private <K> void patch(Map<K, Set<Long>> index, K key, UnaryOperator<DisciplineGroupDTO> change) {
+        boolean reloading;
+        lock.writeLock().lock();
+        try {
+            for (Long id : List.copyOf(index.getOrDefault(key, Set.of()))) {
+                DisciplineGroupDTO before = assignments.get(id);
+                DisciplineGroupDTO after = change.apply(before);
+                if (after == null) {
+                    removeLocked(id);
+                } else if (!after.equals(before)) {
+                    assignments.put(id, after);
+                } else {
+                    continue;
+                }
+                if (changedDuringReload != null) {
+                    changedDuringReload.put(id, Optional.ofNullable(after));
+                }
+            }
+            reloading = changedDuringReload != null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (reloading) {
+            // Идущая перезагрузка могла прочитать снимок до изменения, в том числе с назначениями, которых в индексе ещё нет
+            reload();
+        }
+    }
+
+    private void addLocked(DisciplineGroupDTO dto) {
+        assignments.put(dto.id(), dto);
+        allIds.add(dto.id());
+        if (dto.teacher() != null) {
+            byTeacher.computeIfAbsent(dto.teacher().id(), key -> new TreeSet<>()).add(dto.id());
+        }
+        byGroup.computeIfAbsent(dto.group().id(), key -> new TreeSet<>()).add(dto.id());
+        bySubject.computeIfAbsent(dto.subject().id(), key -> new TreeSet<>()).add(dto.id());
+        bySemester.computeIfAbsent(dto.semester(), key -> new TreeSet<>()).add(dto.id());
+        byYear.computeIfAbsent(dto.year(), key -> new TreeSet<>()).add(dto.id());
+    }
+
+    private void removeLocked(Long id) {
+        DisciplineGroupDTO dto = assignments.remove(id);
+        if (dto == null) {
+            return;
+        }
+        allIds.remove(id);
+        if (dto.teacher() != null) {
+            unlink(byTeacher, dto.teacher().id(), id);
+        }
+        unlink(byGroup, dto.group().id(), id);
+        unlink(bySubject, dto.subject().id(), id);
+        unlink(bySemester, dto.semester(), id);
+        unlink(byYear, dto.year(), id);
+    }
+
+    private static <K> void unlink(Map<K, Set<Long>> index, K key, Long id) {
+        Set<Long> ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
@@ -1,14 +1,30 @@
 package com.agn.web.service;
 
+import com.agn.web.dto.DisciplineGroupBatchReport;
+import com.agn.web.dto.DisciplineGroupBatchRequest;
+import com.agn.web.dto.DisciplineGroupDTO;
 import com.agn.web.entity.DisciplineGroup;
 
 import java.util.List;
 
 public interface DisciplineGroupService {
-    List<DisciplineGroup> getAllDisciplineGroups();
-    List<DisciplineGroup> getDisciplineGroupsByTeacher(Long teacherId);
-    List<DisciplineGroup> getDisciplineGroupsByGroup(Long groupId);
-    DisciplineGroup getDisciplineGroupById(Long id);
-    DisciplineGroup saveDisciplineGroup(DisciplineGroup disciplineGroup);
+    List<DisciplineGroupDTO> getAllDisciplineGroups();
+    List<DisciplineGroupDTO> getDisciplineGroupsByTeacher(Long teacherId);
+    List<DisciplineGroupDTO> getDisciplineGroupsByGroup(Long groupId);
+    DisciplineGroupDTO getDisciplineGroupById(Long id);
+
+    /**
+     * Assignments matching all given keys; null keys are ignored.
+     */
+    List<DisciplineGroupDTO> findDisciplineGroups(Long teacherId, Long groupId, Long subjectId, Integer semester, Integer year);
+
+    DisciplineGroupDTO saveDisciplineGroup(DisciplineGroup disciplineGroup);
+
+    /**
+     * Assigns the subject to every listed group in one transaction, skipping groups that already have it
+     * in the same semester and year.
+     */
+    DisciplineGroupBatchReport assignSubjectToGroups(DisciplineGroupBatchRequest request);
+
     void deleteDisciplineGroup(Long id);
 }
@@ -1,47 +1,152 @@
 package com.agn.web.service;
 
+import com.agn.web.dto.DisciplineGroupBatchReport;
+import com.agn.web.dto.DisciplineGroupBatchRequest;
+import com.agn.web.dto.DisciplineGroupDTO;
 import com.agn.web.entity.DisciplineGroup;
+import com.agn.web.entity.Role;
 import com.agn.web.entity.User;
+import com.agn.web.event.EntityChangeEvent;
 import com.agn.web.repository.DisciplineGroupRepository;
+import com.agn.web.repository.GroupRepository;
+import com.agn.web.repository.SubjectRepository;
 import com.agn.web.repository.UserRepository;
+import com.agn.web.service.DisciplineGroupIndex.AssignmentFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class DisciplineGroupServiceImpl implements DisciplineGroupService {
 
+    private static final int BATCH_SIZE = 500;
+
+    // Одна многострочная вставка на пачку: в отличие от batchUpdate с переписыванием драйвером, она
+    // возвращает точное число вставленных строк. Конфликт — только по uk_discipline_groups_assignment
+    private static final String INSERT_SQL_PREFIX =
+            "INSERT INTO discipline_groups (subject_id, group_id, teacher_id, semester, year) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?)";
+    private static final String INSERT_SQL_SUFFIX = " ON CONFLICT DO NOTHING";
+    private static final int[] INSERT_TYPES = {Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.INTEGER, Types.INTEGER};
+
     private final DisciplineGroupRepository disciplineGroupRepository;
     private final UserRepository userRepository;
+    private final SubjectRepository subjectRepository;
+    private final GroupRepository groupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DisciplineGroupIndex disciplineGroupIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
+    // Чтение идёт из индекса в памяти, без запросов к БД
     @Override
-    public List<DisciplineGroup> getAllDisciplineGroups() {
-        return disciplineGroupRepository.findAll();
+    public List<DisciplineGroupDTO> getAllDisciplineGroups() {
+        return disciplineGroupIndex.find(AssignmentFilter.ALL);
     }
 
     @Override
-    public List<DisciplineGroup> getDisciplineGroupsByTeacher(Long teacherId) {
-        return disciplineGroupRepository.findByTeacherId(teacherId);
+    public List<DisciplineGroupDTO> getDisciplineGroupsByTeacher(Long teacherId) {
+        return disciplineGroupIndex.find(new AssignmentFilter(teacherId, null, null, null, null));
     }
 
     @Override
-    public List<DisciplineGroup> getDisciplineGroupsByGroup(Long groupId) {
-        return disciplineGroupRepository.findByGroupId(groupId);
+    public List<DisciplineGroupDTO> getDisciplineGroupsByGroup(Long groupId) {
+        return disciplineGroupIndex.find(new AssignmentFilter(null, groupId, null, null, null));
     }
 
     @Override
-    public DisciplineGroup getDisciplineGroupById(Long id) {
-        return disciplineGroupRepository.findById(id)
+    public DisciplineGroupDTO getDisciplineGroupById(Long id) {
+        return disciplineGroupIndex.get(id)
                 .orElseThrow(() -> new RuntimeException("DisciplineGroup not found with id: " + id));
     }
 
+    @Override
+    public List<DisciplineGroupDTO> findDisciplineGroups(Long teacherId, Long groupId, Long subjectId,
+                                                         Integer semester, Integer year) {
+        return disciplineGroupIndex.find(new AssignmentFilter(teacherId, groupId, subjectId, semester, year));
+    }
+
     @Override
     @Transactional
-    public DisciplineGroup saveDisciplineGroup(DisciplineGroup disciplineGroup) {
-        return disciplineGroupRepository.save(disciplineGroup);
+    public DisciplineGroupDTO saveDisciplineGroup(DisciplineGroup disciplineGroup) {
+        boolean created = disciplineGroup.getId() == null;
+        DisciplineGroup saved = disciplineGroupRepository.save(disciplineGroup);
+        eventPublisher.publishEvent(created
+                ? EntityChangeEvent.created(DisciplineGroup.class, saved.getId(), saved)
+                : EntityChangeEvent.updated(DisciplineGroup.class, saved.getId(), saved));
+        // Индекс обновится после коммита, поэтому ответ читаем из БД: проекция подтянет названия по ссылкам {id}
+        return disciplineGroupRepository.findDtoById(saved.getId())
+                .orElseThrow(() -> new RuntimeException("DisciplineGroup not found with id: " + saved.getId()));
+    }
+
+    @Override
+    @Transactional
+    public DisciplineGroupBatchReport assignSubjectToGroups(DisciplineGroupBatchRequest request) {
+        if (request.subjectId() == null || request.semester() == null || request.year() == null
+                || request.groupIds() == null || request.groupIds().isEmpty()
+                || request.groupIds().stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Не указаны предмет, семестр, год или группы");
+        }
+        Set<Long> groupIds = new LinkedHashSet<>(request.groupIds());
+        if (!subjectRepository.existsById(request.subjectId())) {
+            throw new IllegalArgumentException("Предмет не найден: " + request.subjectId());
+        }
+        if (request.teacherId() != null && !userRepository.existsByIdAndRole(request.teacherId(), Role.TEACHER)) {
+            throw new IllegalArgumentException("Преподаватель не найден или не имеет роли TEACHER: " + request.teacherId());
+        }
+        // Все группы проверяются одним запросом
+        Set<Long> missing = new LinkedHashSet<>(groupIds);
+        groupRepository.findExistingIds(groupIds).forEach(missing::remove);
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Группы не найдены: " + missing);
+        }
+
+        // Уже назначенные группы отсеиваем заранее, чтобы перечислить их в отчёте; назначение, которое
+        // параллельный запрос успел вставить после этой проверки, отбросит ON CONFLICT, и оно не войдёт в created
+        Set<Long> skipped = new HashSet<>(disciplineGroupRepository.findAssignedGroupIds(
+                request.subjectId(), request.semester(), request.year(), groupIds));
+        List<Object[]> batch = new ArrayList<>(Math.min(groupIds.size(), BATCH_SIZE));
+        int created = 0;
+        for (Long groupId : groupIds) {
+            if (skipped.contains(groupId)) {
+                continue;
+            }
+            batch.add(new Object[]{request.subjectId(), groupId, request.teacherId(), request.semester(), request.year()});
+            if (batch.size() == BATCH_SIZE) {
+                created += insertIgnoringDuplicates(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            created += insertIgnoringDuplicates(batch);
+        }
+        if (created > 0) {
+            eventPublisher.publishEvent(EntityChangeEvent.bulk(DisciplineGroup.class));
+        }
+        return new DisciplineGroupBatchReport(groupIds.size(), created,
+                groupIds.stream().filter(skipped::contains).toList());
+    }
+
+    private int insertIgnoringDuplicates(List<Object[]> rows) {
+        String sql = INSERT_SQL_PREFIX + String.join(", ", Collections.nCopies(rows.size(), INSERT_ROW)) + INSERT_SQL_SUFFIX;
+        Object[] args = new Object[rows.size() * INSERT_TYPES.length];
+        int[] types = new int[args.length];
+        for (int i = 0; i < rows.size(); i++) {
+            System.arraycopy(rows.get(i), 0, args, i * INSERT_TYPES.length, INSERT_TYPES.length);
+            System.arraycopy(INSERT_TYPES, 0, types, i * INSERT_TYPES.length, INSERT_TYPES.length);
+        }
+        return jdbcTemplate.update(sql, args, types);
     }
 
     @Override
@@ -51,5 +156,6 @@ public class DisciplineGroupServiceImpl implements DisciplineGroupService {
             throw new RuntimeException("DisciplineGroup not found with id: " + id);
         }
         disciplineGroupRepository.deleteById(id);
+        eventPublisher.publishEvent(EntityChangeEvent.deleted(DisciplineGroup.class, id, null));
     }
 }
@@ -0,0 +1,38 @@
+package com.agn.web.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Full exports for downstream systems. Rows are read through a database cursor and written
+ * to the stream one by one, so memory use does not depend on the number of rows.
+ */
+public interface ExportService {
+
+    void exportStudents(OutputStream out, ExportFormat format, Long groupId) throws IOException;
+
+    void exportGrades(OutputStream out, ExportFormat format, Long groupId) throws IOException;
+
+    void exportAttendance(OutputStream out, ExportFormat format, Long groupId) throws IOException;
+
+    enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.AttendanceBitmapRow;
+import com.agn.web.dto.AttendanceExportRow;
+import com.agn.web.dto.GradeExportRow;
+import com.agn.web.dto.RosterSlotRow;
+import com.agn.web.dto.StudentRowDTO;
+import com.agn.web.repository.GradeRepository;
+import com.agn.web.repository.LessonAttendanceRepository;
+import com.agn.web.repository.RosterSlotRepository;
+import com.agn.web.repository.StudentRepository;
+import com.agn.web.util.CsvWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    // Как часто проталкивать данные клиенту (gzip с SYNC_FLUSH отдаёт их сразу)
+    private static final int FLUSH_EVERY_ROWS = 1_000;
+
+    private static final String[] STUDENT_HEADER =
+            {"id", "lastName", "firstName", "middleName", "dateBorn", "groupId", "groupName"};
+    private static final String[] GRADE_HEADER =
+            {"gradeId", "studentId", "lastName", "firstName", "groupName", "lessonId", "subjectName", "lessonStart", "score"};
+    private static final String[] ATTENDANCE_HEADER =
+            {"studentId", "lastName", "firstName", "groupName", "lessonId", "subjectName", "lessonStart", "present"};
+
+    private final StudentRepository studentRepository;
+    private final GradeRepository gradeRepository;
+    private final LessonAttendanceRepository lessonAttendanceRepository;
+    private final RosterSlotRepository rosterSlotRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportStudents(OutputStream out, ExportFormat format, Long groupId) throws IOException {
+        try (Stream<StudentRowDTO> rows = groupId != null
+                ? studentRepository.streamRowsByGroupId(groupId)
+                : studentRepository.streamAllRows()) {
+            write(out, format, rows, STUDENT_HEADER, s -> new Object[]{
+                    s.id(), s.lastName(), s.firstName(), s.middleName(), s.dateBorn(),
+                    s.group() != null ? s.group().id() : null,
+                    s.group() != null ? s.group().name() : null});
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportGrades(OutputStream out, ExportFormat format, Long groupId) throws IOException {
+        try (Stream<GradeExportRow> rows = groupId != null
+                ? gradeRepository.streamExportRowsByGroupId(groupId)
+                : gradeRepository.streamExportRows()) {
+            write(out, format, rows, GRADE_HEADER, g -> new Object[]{
+                    g.gradeId(), g.studentId(), g.lastName(), g.firstName(), g.groupName(),
+                    g.lessonId(), g.subjectName(), g.lessonStart(), g.score()});
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAttendance(OutputStream out, ExportFormat format, Long groupId) throws IOException {
+        try (Stream<AttendanceBitmapRow> bitmaps = groupId != null
+                ? lessonAttendanceRepository.streamBitmapsByGroupId(groupId)
+                : lessonAttendanceRepository.streamAllBitmaps()) {
+            // Битовые карты разворачиваются в строки по слотам; слоты каждой группы читаются один раз
+            Map<Long, Map<Integer, RosterSlotRow>> slotsByGroup = new HashMap<>();
+            Stream<AttendanceExportRow> rows = bitmaps.flatMap(bitmap -> expand(bitmap,
+                    slotsByGroup.computeIfAbsent(bitmap.groupId(), this::loadSlots)).stream());
+            write(out, format, rows, ATTENDANCE_HEADER, a -> new Object[]{
+                    a.studentId(), a.lastName(), a.firstName(), a.groupName(),
+                    a.lessonId(), a.subjectName(), a.lessonStart(), a.present()});
+        }
+    }
+
+    private Map<Integer, RosterSlotRow> loadSlots(Long groupId) {
+        Map<Integer, RosterSlotRow> slots = new HashMap<>();
+        for (RosterSlotRow row : rosterSlotRepository.findRowsByGroupId(groupId)) {
+            slots.put(row.slot(), row);
+        }
+        return slots;
+    }
+
+    private static List<AttendanceExportRow> expand(AttendanceBitmapRow bitmap, Map<Integer, RosterSlotRow> slots) {
+        BitSet marked = BitSet.valueOf(bitmap.marked());
+        BitSet present = BitSet.valueOf(bitmap.present());
+        List<AttendanceExportRow> rows = new ArrayList<>(marked.cardinality());
+        marked.stream().forEach(slot -> {
+            RosterSlotRow student = slots.get(slot);
+            if (student != null) {
+                rows.add(new AttendanceExportRow(student.studentId(), student.lastName(), student.firstName(),
+                        bitmap.groupName(), bitmap.lessonId(), bitmap.subjectName(), bitmap.startTime(), present.get(slot)));
+            }
+        });
+        return rows;
+    }
+
+    private <T> void write(OutputStream out, ExportFormat format, Stream<T> rows,
+                           String[] header, Function<T, Object[]> csvColumns) throws IOException {
+        Iterator<T> iterator = rows.iterator();
+        long written = 0;
+        if (format == ExportFormat.CSV) {
+            CsvWriter csv = new CsvWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+            csv.writeRow((Object[]) header);
+            csv.flush();
+            while (iterator.hasNext()) {
+                csv.writeRow(csvColumns.apply(iterator.next()));
+                if (++written % FLUSH_EVERY_ROWS == 0) {
+                    csv.flush();
+                }
+            }
+            csv.flush();
+            return;
+        }
+        // Закрытие SequenceWriter не должно закрывать поток ответа — его закрывает контейнер
+        try (SequenceWriter json = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            while (iterator.hasNext()) {
+                json.write(iterator.next());
+                if (++written % FLUSH_EVERY_ROWS == 0) {
+                    json.flush();
+                }
+            }
+        }
+        if (written > 0) {
+            out.write('\n');
+        }
+        out.flush();
+    }
+}
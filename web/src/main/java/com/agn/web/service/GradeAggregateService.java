@@ -0,0 +1,200 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.GradeAverageDTO;
+import com.agn.web.dto.GradeSumRow;
+import com.agn.web.entity.Grade;
+import com.agn.web.entity.Group;
+import com.agn.web.entity.Lesson;
+import com.agn.web.entity.Subject;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.event.GradesChangedEvent;
+import com.agn.web.event.GradesChangedEvent.GradeDelta;
+import com.agn.web.repository.GradeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Running sum/count of scores, globally and per group, subject and student, so averages are read
+ * without touching the {@code grades} table. Kept current from committed grade writes and
+ * periodically reconciled against the database to repair drift.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GradeAggregateService {
+
+    private final GradeRepository gradeRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private volatile Aggregates aggregates = new Aggregates();
+    // Применение дельт и подмена агрегатов при пересчёте не должны перемежаться; чтение идёт без блокировок
+    private final Object writeLock = new Object();
+    // Дельты, пришедшие во время пересчёта: снимок их не видел, после подмены они применяются повторно.
+    // null — пересчёт не идёт; защищено writeLock
+    private List<GradeDelta> changedDuringRebuild;
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "grade-aggregates");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public GradeAverageDTO getOverall() {
+        return toDto("all", null, aggregates.total.get());
+    }
+
+    public GradeAverageDTO getForGroup(Long groupId) {
+        return toDto("group", groupId, aggregates.byGroup.getOrDefault(groupId, Sum.ZERO));
+    }
+
+    public GradeAverageDTO getForSubject(Long subjectId) {
+        return toDto("subject", subjectId, aggregates.bySubject.getOrDefault(subjectId, Sum.ZERO));
+    }
+
+    public GradeAverageDTO getForStudent(Long studentId) {
+        return toDto("student", studentId, aggregates.byStudent.getOrDefault(studentId, Sum.ZERO));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGradesChanged(GradesChangedEvent event) {
+        synchronized (writeLock) {
+            apply(aggregates, event.deltas());
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.addAll(event.deltas());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        // Каскадные удаления убирают неизвестное число оценок — пересчитываем целиком в фоне
+        boolean gradesRemoved = event.isAbout(Grade.class)
+                || (event.changeType() == EntityChangeEvent.ChangeType.DELETED
+                && (event.isAbout(Group.class) || event.isAbout(Subject.class) || event.isAbout(Lesson.class)));
+        if (gradesRemoved && rebuildQueued.compareAndSet(false, true)) {
+            rebuildExecutor.submit(() -> {
+                rebuildQueued.set(false);
+                reconcile();
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${grades.aggregates.reconcile-interval:PT15M}",
+            initialDelayString = "${grades.aggregates.reconcile-interval:PT15M}")
+    public synchronized void reconcile() {
+        long started = System.currentTimeMillis();
+        Aggregates rebuilt = new Aggregates();
+        // Три суммы из одного снимка, иначе итоги по группам, предметам и студентам расходятся между собой
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setReadOnly(true);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        try {
+            snapshot.executeWithoutResult(status -> {
+                // Журнал включаем прямо перед первым запросом, который фиксирует снимок. Оценка, закоммиченная
+                // в этом промежутке, но дошедшая событием позже, учтётся дважды до следующей сверки
+                synchronized (writeLock) {
+                    changedDuringRebuild = new ArrayList<>();
+                }
+                fill(rebuilt.byGroup, gradeRepository.sumByGroup());
+                fill(rebuilt.bySubject, gradeRepository.sumBySubject());
+                fill(rebuilt.byStudent, gradeRepository.sumByStudent());
+            });
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                changedDuringRebuild = null;
+            }
+            throw e;
+        }
+        // У каждого занятия есть группа, поэтому общий итог — сумма по группам
+        rebuilt.total.set(rebuilt.byGroup.values().stream().reduce(Sum.ZERO, Sum::plus));
+
+        Sum previous;
+        synchronized (writeLock) {
+            apply(rebuilt, changedDuringRebuild);
+            changedDuringRebuild = null;
+            previous = aggregates.total.get();
+            aggregates = rebuilt;
+        }
+        if (!previous.equals(rebuilt.total.get())) {
+            log.info("Grade aggregates reconciled: total {} -> {}", previous, rebuilt.total.get());
+        }
+        log.debug("Grade aggregates rebuilt in {} ms", System.currentTimeMillis() - started);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private static void apply(Aggregates target, List<GradeDelta> deltas) {
+        for (GradeDelta delta : deltas) {
+            Sum sum = new Sum(delta.scoreDelta(), delta.countDelta());
+            target.total.accumulateAndGet(sum, Sum::plus);
+            merge(target.byGroup, delta.groupId(), sum);
+            merge(target.bySubject, delta.subjectId(), sum);
+            merge(target.byStudent, delta.studentId(), sum);
+        }
+    }
+
+    private static void merge(Map<Long, Sum> map, Long key, Sum delta) {
+        if (key != null) {
+            map.merge(key, delta, Sum::plus);
+        }
+    }
+
+    private static void fill(Map<Long, Sum> map, List<GradeSumRow> rows) {
+        for (GradeSumRow row : rows) {
+            if (row.key() != null) {
+                map.put(row.key(), toSum(row));
+            }
+        }
+    }
+
+    private static Sum toSum(GradeSumRow row) {
+        return new Sum(row.sum() != null ? row.sum() : 0, row.count() != null ? row.count() : 0);
+    }
+
+    private static GradeAverageDTO toDto(String scope, Long id, Sum sum) {
+        Double average = sum.count() > 0 ? Math.round((double) sum.sum() / sum.count() * 10.0) / 10.0 : null;
+        return new GradeAverageDTO(scope, id, average, sum.count());
+    }
+
+    /** Неизменяемая пара (сумма, количество); читатели видят её целиком без блокировок */
+    private record Sum(long sum, long count) {
+        static final Sum ZERO = new Sum(0, 0);
+
+        Sum plus(Sum other) {
+            return new Sum(sum + other.sum, count + other.count);
+        }
+    }
+
+    private static class Aggregates {
+        final AtomicReference<Sum> total = new AtomicReference<>(Sum.ZERO);
+        final Map<Long, Sum> byGroup = new ConcurrentHashMap<>();
+        final Map<Long, Sum> bySubject = new ConcurrentHashMap<>();
+        final Map<Long, Sum> byStudent = new ConcurrentHashMap<>();
+    }
+}
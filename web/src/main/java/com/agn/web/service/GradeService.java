@@ -0,0 +1,16 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.GradeColumnReport;
+import com.agn.web.dto.GradeEntryDTO;
+
+import java.util.List;
+
+public interface GradeService {
+    List<GradeEntryDTO> getLessonGrades(Long lessonId);
+
+    /**
+     * Replaces the given cells of a lesson's grade column in one transaction. Students that are not
+     * mentioned keep their grades; a {@code null} score removes the student's grade.
+     */
+    GradeColumnReport saveLessonGrades(Long lessonId, List<GradeEntryDTO> entries);
+}
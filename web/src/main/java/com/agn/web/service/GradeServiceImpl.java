@@ -0,0 +1,135 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.GradeColumnReport;
+import com.agn.web.dto.GradeEntryDTO;
+import com.agn.web.dto.StudentRowDTO;
+import com.agn.web.entity.Lesson;
+import com.agn.web.event.GradesChangedEvent;
+import com.agn.web.event.GradesChangedEvent.GradeDelta;
+import com.agn.web.repository.GradeRepository;
+import com.agn.web.repository.LessonRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class GradeServiceImpl implements GradeService {
+
+    private static final String INSERT_SQL = "INSERT INTO grades (lesson_id, student_id, score) VALUES (?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE grades SET score = ? WHERE lesson_id = ? AND student_id = ?";
+    private static final String DELETE_SQL = "DELETE FROM grades WHERE lesson_id = ? AND student_id = ?";
+
+    static final int MIN_SCORE = 1;
+    static final int MAX_SCORE = 10;
+
+    private final GradeRepository gradeRepository;
+    private final LessonRepository lessonRepository;
+    private final StudentService studentService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GradeEntryDTO> getLessonGrades(Long lessonId) {
+        if (!lessonRepository.existsById(lessonId)) {
+            throw new RuntimeException("Lesson not found with id: " + lessonId);
+        }
+        return gradeRepository.findColumnByLessonId(lessonId);
+    }
+
+    @Override
+    @Transactional
+    public GradeColumnReport saveLessonGrades(Long lessonId, List<GradeEntryDTO> entries) {
+        // До конца транзакции другие сохранения этого занятия ждут, поэтому прочитанная колонка
+        // актуальна: вставки не пересекаются с чужими, а дельты не учитываются дважды
+        Lesson lesson = lessonRepository.findByIdForUpdate(lessonId)
+                .orElseThrow(() -> new RuntimeException("Lesson not found with id: " + lessonId));
+        validate(lesson, entries);
+
+        // Текущая колонка оценок занятия
+        Map<Long, Integer> existing = new HashMap<>();
+        for (GradeEntryDTO cell : gradeRepository.findColumnByLessonId(lessonId)) {
+            existing.put(cell.studentId(), cell.score());
+        }
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<GradeDelta> deltas = new ArrayList<>();
+        Long groupId = lesson.getGroup().getId();
+        Long subjectId = lesson.getSubject().getId();
+        int unchanged = 0;
+        for (GradeEntryDTO entry : entries) {
+            Long studentId = entry.studentId();
+            boolean present = existing.containsKey(studentId);
+            Integer current = existing.get(studentId);
+            if ((entry.score() == null && !present) || (present && Objects.equals(current, entry.score()))) {
+                unchanged++;
+                continue;
+            }
+            if (entry.score() == null) {
+                deletes.add(new Object[]{lessonId, studentId});
+            } else if (!present) {
+                inserts.add(new Object[]{lessonId, studentId, entry.score()});
+            } else {
+                updates.add(new Object[]{entry.score(), lessonId, studentId});
+            }
+            // Пустые оценки (score = null) в суммы не входят, как и в SQL AVG
+            long scoreDelta = valueOf(entry.score()) - valueOf(current);
+            int countDelta = (entry.score() != null ? 1 : 0) - (current != null ? 1 : 0);
+            deltas.add(new GradeDelta(groupId, subjectId, studentId, scoreDelta, countDelta));
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+        }
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(new GradesChangedEvent(lessonId, deltas));
+        }
+        return new GradeColumnReport(lessonId, inserts.size(), updates.size(), deletes.size(), unchanged);
+    }
+
+    private static long valueOf(Integer score) {
+        return score != null ? score : 0;
+    }
+
+    private void validate(Lesson lesson, List<GradeEntryDTO> entries) {
+        // Состав группы берётся из кэша, так что проверка обычно не стоит запроса к БД
+        Set<Long> roster = new HashSet<>();
+        for (StudentRowDTO student : studentService.getStudentsByGroupId(lesson.getGroup().getId())) {
+            roster.add(student.id());
+        }
+        Set<Long> seen = new HashSet<>();
+        for (GradeEntryDTO entry : entries) {
+            if (entry.studentId() == null) {
+                throw new IllegalArgumentException("Не указан студент");
+            }
+            if (!seen.add(entry.studentId())) {
+                throw new IllegalArgumentException("Студент указан дважды: " + entry.studentId());
+            }
+            if (entry.score() != null && (entry.score() < MIN_SCORE || entry.score() > MAX_SCORE)) {
+                throw new IllegalArgumentException("Оценка должна быть от " + MIN_SCORE + " до " + MAX_SCORE);
+            }
+            if (!roster.contains(entry.studentId())) {
+                throw new IllegalArgumentException("Студент " + entry.studentId() + " не состоит в группе занятия");
+            }
+        }
+    }
+}
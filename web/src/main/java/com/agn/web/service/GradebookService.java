@@ -0,0 +1,11 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.GradebookMatrixDTO;
+
+public interface GradebookService {
+
+    /**
+     * Grades and attendance of the group's current students for all lessons of the assignment's subject.
+     */
+    GradebookMatrixDTO getMatrix(Long disciplineGroupId);
+}
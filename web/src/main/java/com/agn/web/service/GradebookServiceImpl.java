@@ -0,0 +1,118 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.GradebookLessonRow;
+import com.agn.web.dto.GradebookMatrixDTO;
+import com.agn.web.dto.GradebookStudentRow;
+import com.agn.web.entity.DisciplineGroup;
+import com.agn.web.repository.DisciplineGroupRepository;
+import com.agn.web.repository.GradeRepository;
+import com.agn.web.repository.LessonRepository;
+import com.agn.web.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class GradebookServiceImpl implements GradebookService {
+
+    static final int MISSING_SCORE = Integer.MIN_VALUE;
+
+    private final DisciplineGroupRepository disciplineGroupRepository;
+    private final StudentRepository studentRepository;
+    private final LessonRepository lessonRepository;
+    private final GradeRepository gradeRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public GradebookMatrixDTO getMatrix(Long disciplineGroupId) {
+        DisciplineGroup disciplineGroup = disciplineGroupRepository.findById(disciplineGroupId)
+                .orElseThrow(() -> new RuntimeException("DisciplineGroup not found with id: " + disciplineGroupId));
+        // id у ленивых прокси доступен без загрузки группы и предмета
+        Long groupId = disciplineGroup.getGroup().getId();
+        Long subjectId = disciplineGroup.getSubject().getId();
+
+        List<GradebookStudentRow> students = studentRepository.findGradebookRows(groupId);
+        List<GradebookLessonRow> lessons = lessonRepository.findGradebookColumns(groupId, subjectId);
+        int rows = students.size();
+        int columns = lessons.size();
+
+        long[] studentIds = new long[rows];
+        String[] lastNames = new String[rows];
+        String[] firstNames = new String[rows];
+        Map<Long, Integer> rowByStudent = new HashMap<>(rows * 2);
+        int maxSlot = -1;
+        for (int r = 0; r < rows; r++) {
+            GradebookStudentRow student = students.get(r);
+            studentIds[r] = student.studentId();
+            lastNames[r] = student.lastName();
+            firstNames[r] = student.firstName();
+            rowByStudent.put(student.studentId(), r);
+            if (student.slot() != null) {
+                maxSlot = Math.max(maxSlot, student.slot());
+            }
+        }
+        // slot -> строка; бывшие студенты группы (без строки) остаются -1
+        int[] rowBySlot = new int[maxSlot + 1];
+        Arrays.fill(rowBySlot, -1);
+        for (int r = 0; r < rows; r++) {
+            Integer slot = students.get(r).slot();
+            if (slot != null) {
+                rowBySlot[slot] = r;
+            }
+        }
+
+        long[] lessonIds = new long[columns];
+        LocalDateTime[] lessonStarts = new LocalDateTime[columns];
+        String[] lessonTypes = new String[columns];
+        Map<Long, Integer> columnByLesson = new HashMap<>(columns * 2);
+        int[] attendance = new int[rows * columns];
+        for (int c = 0; c < columns; c++) {
+            GradebookLessonRow lesson = lessons.get(c);
+            lessonIds[c] = lesson.lessonId();
+            lessonStarts[c] = lesson.startTime();
+            lessonTypes[c] = lesson.type() != null ? lesson.type().name() : null;
+            columnByLesson.put(lesson.lessonId(), c);
+            if (lesson.marked() != null) {
+                fillAttendance(attendance, c, columns, rowBySlot, lesson.marked(), lesson.present());
+            }
+        }
+
+        int[] scores = new int[rows * columns];
+        Arrays.fill(scores, MISSING_SCORE);
+        for (Object[] cell : gradeRepository.findGradebookCells(groupId, subjectId)) {
+            Integer c = columnByLesson.get((Long) cell[0]);
+            Integer r = rowByStudent.get((Long) cell[1]);
+            if (c != null && r != null && cell[2] != null) {
+                scores[r * columns + c] = (Integer) cell[2];
+            }
+        }
+
+        return new GradebookMatrixDTO(disciplineGroupId, groupId, subjectId, studentIds, lastNames, firstNames,
+                lessonIds, lessonStarts, lessonTypes, MISSING_SCORE, scores, attendance);
+    }
+
+    /** Разбирает битовые карты (формат BitSet.toByteArray) прямо по байтам, без промежуточных BitSet */
+    private static void fillAttendance(int[] attendance, int column, int columns, int[] rowBySlot,
+                                       byte[] marked, byte[] present) {
+        int slots = Math.min(rowBySlot.length, marked.length * 8);
+        for (int slot = 0; slot < slots; slot++) {
+            int row = rowBySlot[slot];
+            if (row < 0 || !bit(marked, slot)) {
+                continue;
+            }
+            attendance[row * columns + column] = bit(present, slot) ? GradebookMatrixDTO.PRESENT : GradebookMatrixDTO.ABSENT;
+        }
+    }
+
+    private static boolean bit(byte[] bytes, int index) {
+        int i = index >>> 3;
+        return i < bytes.length && (bytes[i] & (1 << (index & 7))) != 0;
+    }
+}
@@ -1,9 +1,17 @@
 package com.agn.web.service;
 
 import com.agn.web.entity.Group;
+import com.agn.web.entity.Student;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.repository.DisciplineGroupRepository;
+import com.agn.web.repository.GradeRepository;
 import com.agn.web.repository.GroupRepository;
+import com.agn.web.repository.LessonAttendanceRepository;
+import com.agn.web.repository.LessonRepository;
+import com.agn.web.repository.RosterSlotRepository;
 import com.agn.web.repository.StudentRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +24,12 @@ public class GroupServiceImpl implements GroupService {
 
     private final GroupRepository groupRepository;
     private final StudentRepository studentRepository;
+    private final LessonRepository lessonRepository;
+    private final GradeRepository gradeRepository;
+    private final LessonAttendanceRepository lessonAttendanceRepository;
+    private final RosterSlotRepository rosterSlotRepository;
+    private final DisciplineGroupRepository disciplineGroupRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<Group> getAllGroups() {
@@ -24,7 +38,12 @@ public class GroupServiceImpl implements GroupService {
 
     @Override
     public Group saveGroup(Group group) {
-        return groupRepository.save(group);  // ← теперь сохраняем в БД
+        boolean created = group.getId() == null;
+        Group saved = groupRepository.save(group);  // ← теперь сохраняем в БД
+        eventPublisher.publishEvent(created
+                ? EntityChangeEvent.created(Group.class, saved.getId(), saved)
+                : EntityChangeEvent.updated(Group.class, saved.getId(), saved));
+        return saved;
     }
 
     @Override
@@ -41,16 +60,17 @@ public class GroupServiceImpl implements GroupService {
             throw new RuntimeException("Group not found");
         }
         
-        // Находим всех студентов в этой группе через специальный метод
-        List<com.agn.web.entity.Student> studentsInGroup = studentRepository.findByGroupId(id);
-        
-        // Удаляем студентов
-        if (!studentsInGroup.isEmpty()) {
-            studentRepository.deleteAll(studentsInGroup);
-        }
-        
-        // Теперь можно безопасно удалить группу
-        groupRepository.deleteById(id);
+        // Каскад одним DELETE на каждую зависимую таблицу, без загрузки строк в память
+        lessonAttendanceRepository.bulkDeleteByGroupId(id);
+        rosterSlotRepository.bulkDeleteByGroupId(id);
+        gradeRepository.bulkDeleteByGroupId(id);
+        lessonRepository.bulkDeleteByGroupId(id);
+        disciplineGroupRepository.bulkDeleteByGroupId(id);
+        studentRepository.bulkDeleteByGroupId(id);
+        groupRepository.bulkDeleteById(id);
+
+        eventPublisher.publishEvent(EntityChangeEvent.deleted(Group.class, id, null));
+        eventPublisher.publishEvent(EntityChangeEvent.bulk(Student.class));
     }
 
     @Override
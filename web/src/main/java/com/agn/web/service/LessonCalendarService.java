@@ -0,0 +1,330 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.FreeSlotDTO;
+import com.agn.web.dto.LessonCalendarRow;
+import com.agn.web.dto.LessonDTO;
+import com.agn.web.entity.DisciplineGroup;
+import com.agn.web.entity.Group;
+import com.agn.web.entity.Lesson;
+import com.agn.web.entity.Lesson.LessonType;
+import com.agn.web.entity.Subject;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.repository.DisciplineGroupRepository;
+import com.agn.web.repository.LessonRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory calendar of all lessons, bucketed by day and sorted by start time inside a bucket.
+ * Loaded on startup and kept current from {@link EntityChangeEvent}s; queries never touch the database.
+ * A lesson belongs to a teacher when the teacher is assigned to its (subject, group) in any
+ * {@link DisciplineGroup}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LessonCalendarService {
+
+    private static final Comparator<LessonCalendarRow> BY_START =
+            Comparator.comparing(LessonCalendarRow::startTime).thenComparing(LessonCalendarRow::lessonId);
+
+    private final LessonRepository lessonRepository;
+    private final DisciplineGroupRepository disciplineGroupRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<LocalDate, List<LessonCalendarRow>> days = new TreeMap<>();
+    private final Map<Long, LessonCalendarRow> lessons = new HashMap<>();
+    // "subjectId:groupId" -> преподаватели из назначений
+    private final Map<String, Set<Long>> teachers = new HashMap<>();
+    // Изменения, пришедшие во время перезагрузки: снимок мог быть прочитан до них, поэтому после
+    // замены календаря они применяются повторно. null — перезагрузка не идёт; защищено lock
+    private Map<Long, Optional<LessonCalendarRow>> changedDuringReload;
+    // Назначения перечитаны событием во время перезагрузки — они свежее её снимка
+    private boolean teachersChangedDuringReload;
+
+    /**
+     * Any field may be null, which means "no restriction".
+     */
+    public record CalendarFilter(Long groupId, Long teacherId, LessonType type) {
+        public static final CalendarFilter ALL = new CalendarFilter(null, null, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        lock.writeLock().lock();
+        try {
+            changedDuringReload = new HashMap<>();
+            teachersChangedDuringReload = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<LessonCalendarRow> rows;
+        List<Object[]> assignments;
+        try {
+            rows = lessonRepository.findAllCalendarRows();
+            assignments = disciplineGroupRepository.findTeacherAssignments();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            days.clear();
+            lessons.clear();
+            rows.forEach(this::addLocked);
+            changedDuringReload.forEach((id, row) -> {
+                removeLocked(id);
+                row.ifPresent(this::addLocked);
+            });
+            changedDuringReload = null;
+            if (!teachersChangedDuringReload) {
+                loadTeachersLocked(assignments);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Lesson calendar loaded: {} lessons over {} days", rows.size(), days.size());
+    }
+
+    /**
+     * Periodic full reload: covers races between two events of one lesson, each re-reading the row on its own.
+     */
+    @Scheduled(fixedDelayString = "${lessons.calendar.reconcile-interval:PT10M}",
+            initialDelayString = "${lessons.calendar.reconcile-interval:PT10M}")
+    public void reconcile() {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.isAbout(Lesson.class)) {
+            switch (event.changeType()) {
+                case BULK -> reload();
+                case DELETED -> remove(event.id());
+                case CREATED, UPDATED -> lessonRepository.findCalendarRowById(event.id()).ifPresentOrElse(
+                        this::put, () -> remove(event.id()));
+            }
+        } else if (event.isAbout(DisciplineGroup.class)) {
+            List<Object[]> assignments = disciplineGroupRepository.findTeacherAssignments();
+            lock.writeLock().lock();
+            try {
+                loadTeachersLocked(assignments);
+                if (changedDuringReload != null) {
+                    teachersChangedDuringReload = true;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } else if ((event.isAbout(Group.class) || event.isAbout(Subject.class))
+                && event.changeType() != EntityChangeEvent.ChangeType.CREATED) {
+            // Переименование или каскадное удаление затрагивает много занятий сразу
+            reload();
+        }
+    }
+
+    public List<LessonDTO> getDay(LocalDate date, CalendarFilter filter) {
+        lock.readLock().lock();
+        try {
+            List<LessonDTO> result = new ArrayList<>();
+            for (LessonCalendarRow row : days.getOrDefault(date, List.of())) {
+                if (row.startTime().toLocalDate().equals(date) && matches(row, filter)) {
+                    result.add(toDto(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<LessonDTO> getToday(CalendarFilter filter) {
+        return getDay(LocalDate.now(), filter);
+    }
+
+    public long countToday(CalendarFilter filter) {
+        LocalDate today = LocalDate.now();
+        lock.readLock().lock();
+        try {
+            long count = 0;
+            for (LessonCalendarRow row : days.getOrDefault(today, List.of())) {
+                if (row.startTime().toLocalDate().equals(today) && matches(row, filter)) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The next {@code limit} lessons starting at or after {@code from}.
+     */
+    public List<LessonDTO> getUpcoming(LocalDateTime from, int limit, CalendarFilter filter) {
+        lock.readLock().lock();
+        try {
+            List<LessonDTO> result = new ArrayList<>(limit);
+            for (Map.Entry<LocalDate, List<LessonCalendarRow>> bucket : days.tailMap(from.toLocalDate(), true).entrySet()) {
+                for (LessonCalendarRow row : bucket.getValue()) {
+                    // Занятие, начавшееся накануне, уже учтено в своей корзине
+                    if (!row.startTime().isBefore(from) && row.startTime().toLocalDate().equals(bucket.getKey())
+                            && matches(row, filter)) {
+                        result.add(toDto(row));
+                        if (result.size() >= limit) {
+                            return result;
+                        }
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gaps of at least {@code minDuration} between {@code dayStart} and {@code dayEnd} on the given date
+     * when no lesson matching the filter takes place.
+     */
+    public List<FreeSlotDTO> getFreeSlots(LocalDate date, LocalTime dayStart, LocalTime dayEnd,
+                                          Duration minDuration, CalendarFilter filter) {
+        LocalDateTime windowStart = date.atTime(dayStart);
+        LocalDateTime windowEnd = date.atTime(dayEnd);
+        List<FreeSlotDTO> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            // Занятия в корзине отсортированы по началу — достаточно одного прохода
+            LocalDateTime cursor = windowStart;
+            for (LessonCalendarRow row : days.getOrDefault(date, List.of())) {
+                if (!matches(row, filter) || !row.endTime().isAfter(windowStart)) {
+                    continue;
+                }
+                if (!row.startTime().isBefore(windowEnd)) {
+                    break;
+                }
+                addSlot(result, cursor, row.startTime(), minDuration);
+                if (row.endTime().isAfter(cursor)) {
+                    cursor = row.endTime();
+                }
+            }
+            addSlot(result, cursor, windowEnd, minDuration);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private static void addSlot(List<FreeSlotDTO> result, LocalDateTime start, LocalDateTime end, Duration minDuration) {
+        if (start.isBefore(end) && Duration.between(start, end).compareTo(minDuration) >= 0) {
+            result.add(new FreeSlotDTO(start, end));
+        }
+    }
+
+    private void put(LessonCalendarRow row) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(row.lessonId());
+            addLocked(row);
+            if (changedDuringReload != null) {
+                changedDuringReload.put(row.lessonId(), Optional.of(row));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long lessonId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(lessonId);
+            if (changedDuringReload != null) {
+                changedDuringReload.put(lessonId, Optional.empty());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Занятие попадает в корзину каждого дня, который оно задевает (на случай перехода через полночь) */
+    private void addLocked(LessonCalendarRow row) {
+        lessons.put(row.lessonId(), row);
+        LocalDate last = lastDay(row);
+        for (LocalDate day = row.startTime().toLocalDate(); !day.isAfter(last); day = day.plusDays(1)) {
+            List<LessonCalendarRow> bucket = days.computeIfAbsent(day, d -> new ArrayList<>());
+            int index = Collections.binarySearch(bucket, row, BY_START);
+            bucket.add(index < 0 ? -index - 1 : index, row);
+        }
+    }
+
+    private void removeLocked(Long lessonId) {
+        LessonCalendarRow row = lessons.remove(lessonId);
+        if (row == null) {
+            return;
+        }
+        LocalDate last = lastDay(row);
+        for (LocalDate day = row.startTime().toLocalDate(); !day.isAfter(last); day = day.plusDays(1)) {
+            List<LessonCalendarRow> bucket = days.get(day);
+            if (bucket != null) {
+                bucket.removeIf(r -> r.lessonId().equals(lessonId));
+                if (bucket.isEmpty()) {
+                    days.remove(day);
+                }
+            }
+        }
+    }
+
+    private void loadTeachersLocked(List<Object[]> assignments) {
+        teachers.clear();
+        for (Object[] assignment : assignments) {
+            teachers.computeIfAbsent(assignment[0] + ":" + assignment[1], key -> new HashSet<>()).add((Long) assignment[2]);
+        }
+    }
+
+    private boolean matches(LessonCalendarRow row, CalendarFilter filter) {
+        if (filter.groupId() != null && !filter.groupId().equals(row.groupId())) {
+            return false;
+        }
+        if (filter.type() != null && filter.type() != row.type()) {
+            return false;
+        }
+        return filter.teacherId() == null
+                || teachers.getOrDefault(row.subjectId() + ":" + row.groupId(), Set.of()).contains(filter.teacherId());
+    }
+
+    private static LocalDate lastDay(LessonCalendarRow row) {
+        // Занятие, кончающееся ровно в полночь, следующий день не занимает
+        LocalDateTime end = row.endTime().isAfter(row.startTime()) ? row.endTime().minusNanos(1) : row.startTime();
+        return end.toLocalDate();
+    }
+
+    private static LessonDTO toDto(LessonCalendarRow row) {
+        return new LessonDTO(row.lessonId(), row.subjectName(), row.groupName(),
+                row.type() != null ? row.type().name() : null, row.startTime(), row.endTime());
+    }
+}
@@ -0,0 +1,14 @@
+package com.agn.web.service;
+
+import com.agn.web.entity.Lesson;
+
+public interface LessonService {
+    Lesson getLessonById(Long id);
+    Lesson saveLesson(Lesson lesson);
+    Lesson updateLesson(Long id, Lesson lessonDetails);
+
+    /**
+     * Deletes the lesson together with its grades and attendance.
+     */
+    void deleteLesson(Long id);
+}
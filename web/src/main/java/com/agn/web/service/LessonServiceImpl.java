@@ -0,0 +1,94 @@
+package com.agn.web.service;
+
+import com.agn.web.entity.Lesson;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.event.GradesChangedEvent;
+import com.agn.web.event.GradesChangedEvent.GradeDelta;
+import com.agn.web.repository.GradeRepository;
+import com.agn.web.repository.LessonAttendanceRepository;
+import com.agn.web.repository.LessonRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+public class LessonServiceImpl implements LessonService {
+
+    private final LessonRepository lessonRepository;
+    private final GradeRepository gradeRepository;
+    private final LessonAttendanceRepository lessonAttendanceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public Lesson getLessonById(Long id) {
+        return lessonRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Lesson not found with id: " + id));
+    }
+
+    @Override
+    @Transactional
+    public Lesson saveLesson(Lesson lesson) {
+        validate(lesson);
+        lesson.setId(null);
+        Lesson saved = lessonRepository.save(lesson);
+        eventPublisher.publishEvent(EntityChangeEvent.created(Lesson.class, saved.getId(), saved));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public Lesson updateLesson(Long id, Lesson lessonDetails) {
+        // Блокировка как у сохранения оценок: пока занятие переезжает, его оценки не меняются
+        Lesson lesson = lessonRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("Lesson not found with id: " + id));
+        validate(lessonDetails);
+        Long oldGroupId = lesson.getGroup() != null ? lesson.getGroup().getId() : null;
+        Long oldSubjectId = lesson.getSubject() != null ? lesson.getSubject().getId() : null;
+        Long newGroupId = lessonDetails.getGroup() != null ? lessonDetails.getGroup().getId() : null;
+        Long newSubjectId = lessonDetails.getSubject() != null ? lessonDetails.getSubject().getId() : null;
+        if (!Objects.equals(oldGroupId, newGroupId) && lessonAttendanceRepository.existsById(id)) {
+            // Биты посещаемости указывают на слоты состава старой группы — в новой они означали бы других студентов
+            throw new IllegalArgumentException("Нельзя перенести в другую группу занятие с отметками посещаемости");
+        }
+        lesson.setSubject(lessonDetails.getSubject());
+        lesson.setGroup(lessonDetails.getGroup());
+        lesson.setStartTime(lessonDetails.getStartTime());
+        lesson.setEndTime(lessonDetails.getEndTime());
+        lesson.setType(lessonDetails.getType());
+        lesson.setRoom(lessonDetails.getRoom());
+        Lesson saved = lessonRepository.save(lesson);
+        if (!Objects.equals(oldGroupId, newGroupId) || !Objects.equals(oldSubjectId, newSubjectId)) {
+            // Оценки занятия переезжают в суммы другой группы или предмета; у студентов итог не меняется
+            gradeRepository.sumByLessonId(id).filter(sum -> sum.count() > 0).ifPresent(sum ->
+                    eventPublisher.publishEvent(new GradesChangedEvent(id, List.of(
+                            new GradeDelta(oldGroupId, oldSubjectId, null, -sum.sum(), -sum.count().intValue()),
+                            new GradeDelta(newGroupId, newSubjectId, null, sum.sum(), sum.count().intValue())))));
+        }
+        eventPublisher.publishEvent(EntityChangeEvent.updated(Lesson.class, saved.getId(), saved));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void deleteLesson(Long id) {
+        if (!lessonRepository.existsById(id)) {
+            throw new RuntimeException("Lesson not found with id: " + id);
+        }
+        lessonAttendanceRepository.deleteById(id);
+        gradeRepository.bulkDeleteByLessonId(id);
+        lessonRepository.deleteById(id);
+        eventPublisher.publishEvent(EntityChangeEvent.deleted(Lesson.class, id, null));
+    }
+
+    private void validate(Lesson lesson) {
+        if (lesson.getStartTime() == null || lesson.getEndTime() == null
+                || !lesson.getEndTime().isAfter(lesson.getStartTime())) {
+            throw new IllegalArgumentException("Время окончания занятия должно быть позже начала");
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.LiveDeltaDTO;
+import com.agn.web.entity.Grade;
+import com.agn.web.entity.Group;
+import com.agn.web.entity.Lesson;
+import com.agn.web.entity.Student;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.event.GradesChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-Sent Events fan-out of small deltas to the frontend. Connections are async requests, so no
+ * request thread is held per client; a small sender pool drains per-client queues. A queue holds at most
+ * {@link #BUFFER_SIZE} events: for a slow client the oldest are dropped and a "resync" event tells it
+ * to re-fetch. Stats changes are coalesced and pushed at most once per tick. A send blocked for longer
+ * than {@link #SEND_DEADLINE} evicts its client, and the pool gets a spare thread until that send
+ * returns (the connector's write timeout fails it), so a stuck socket cannot starve the other clients.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LiveUpdateService {
+
+    static final int BUFFER_SIZE = 256;
+    static final Duration SEND_DEADLINE = Duration.ofSeconds(10);
+    private static final int SENDER_THREADS = 4;
+
+    private final ObjectMapper objectMapper;
+    private final DashboardService dashboardService;
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean statsChanged = new AtomicBoolean();
+    private final ThreadPoolExecutor senders = new ThreadPoolExecutor(SENDER_THREADS, SENDER_THREADS,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "live-sse");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Registers a new SSE connection; the emitter times out after spring.mvc.async.request-timeout
+     * and EventSource reconnects by itself.
+     */
+    public SseEmitter subscribe() {
+        return register(new SseEmitter());
+    }
+
+    SseEmitter register(SseEmitter emitter) {
+        Client client = new Client(emitter);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(error -> clients.remove(client));
+        clients.add(client);
+        enqueue(client, new LiveEvent("hello", "{}"));
+        return emitter;
+    }
+
+    public int clientCount() {
+        return clients.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.isAbout(Student.class)) {
+            if (event.changeType() == EntityChangeEvent.ChangeType.BULK) {
+                broadcast("students-reload", Map.of());
+            } else {
+                Student student = event.entity() instanceof Student s ? s : null;
+                Long groupId = student != null && student.getGroup() != null ? student.getGroup().getId() : null;
+                broadcast("student", new LiveDeltaDTO(op(event), event.id(), groupId, null));
+            }
+            statsChanged.set(true);
+        } else if (event.isAbout(Group.class)) {
+            Group group = event.entity() instanceof Group g ? g : null;
+            broadcast("group", new LiveDeltaDTO(op(event), event.id(), null, group != null ? group.getName() : null));
+            statsChanged.set(true);
+        } else if (event.isAbout(Lesson.class) || event.isAbout(Grade.class)) {
+            statsChanged.set(true);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGradesChanged(GradesChangedEvent event) {
+        broadcast("grades", Map.of("lessonId", event.lessonId(), "changed", event.deltas().size()));
+        statsChanged.set(true);
+    }
+
+    /** Изменения статистики склеиваются: не больше одного события "stats" за период */
+    @Scheduled(fixedDelayString = "${live.stats-interval:PT2S}")
+    public void pushStats() {
+        if (clients.isEmpty() || !statsChanged.getAndSet(false)) {
+            return;
+        }
+        broadcast("stats", dashboardService.getStats());
+    }
+
+    /** Комментарий-пинг держит соединение через прокси и выявляет отвалившихся клиентов */
+    @Scheduled(fixedDelayString = "${live.heartbeat-interval:PT25S}")
+    public void heartbeat() {
+        LiveEvent ping = new LiveEvent(null, "ping");
+        clients.forEach(client -> enqueue(client, ping));
+    }
+
+    /** Сторож зависших отправок: клиент, чей send висит дольше SEND_DEADLINE, отключается */
+    @Scheduled(fixedDelayString = "${live.send-check-interval:PT1S}")
+    public void evictStalledSenders() {
+        evictStalledSenders(System.nanoTime());
+    }
+
+    void evictStalledSenders(long nowNanos) {
+        for (Client client : clients) {
+            boolean stalled;
+            synchronized (client.queue) {
+                stalled = client.sending && !client.evicted
+                        && nowNanos - client.sendStartedNanos > SEND_DEADLINE.toNanos();
+                if (stalled) {
+                    client.evicted = true;
+                    client.queue.clear();
+                }
+            }
+            if (stalled) {
+                // emitter.complete() здесь нельзя: он ждёт ту же блокировку, что держит зависший send
+                clients.remove(client);
+                resizeSenders(1);
+                log.info("Live client evicted: send blocked for more than {}", SEND_DEADLINE);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+        clients.forEach(client -> client.emitter.complete());
+        clients.clear();
+    }
+
+    private void broadcast(String name, Object payload) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        String data;
+        try {
+            // Сериализуем один раз на событие, а не на клиента
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Live event {} could not be serialized", name, e);
+            return;
+        }
+        LiveEvent event = new LiveEvent(name, data);
+        clients.forEach(client -> enqueue(client, event));
+    }
+
+    private void enqueue(Client client, LiveEvent event) {
+        synchronized (client.queue) {
+            if (client.queue.size() >= BUFFER_SIZE) {
+                client.queue.pollFirst();
+                client.overflowed = true;
+            }
+            client.queue.addLast(event);
+        }
+        if (client.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(client));
+        }
+    }
+
+    private void drain(Client client) {
+        try {
+            while (true) {
+                LiveEvent event;
+                boolean overflowed;
+                synchronized (client.queue) {
+                    event = client.queue.pollFirst();
+                    overflowed = client.overflowed;
+                    client.overflowed = false;
+                }
+                // Клиент не успевал читать и потерял часть событий — пусть перечитает данные целиком
+                if (overflowed && !send(client, SseEmitter.event().name("resync").data("{}"))) {
+                    return;
+                }
+                if (event == null) {
+                    break;
+                }
+                if (!send(client, event.name() != null
+                        ? SseEmitter.event().name(event.name()).data(event.data())
+                        : SseEmitter.event().comment(event.data()))) {
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            clients.remove(client);
+            client.emitter.completeWithError(e);
+            return;
+        } finally {
+            client.draining.set(false);
+        }
+        // Событие могло прийти между опустошением очереди и сбросом флага
+        boolean pending;
+        synchronized (client.queue) {
+            pending = !client.queue.isEmpty();
+        }
+        if (pending && !client.evicted && client.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(client));
+        }
+    }
+
+    /** false — клиент вытеснен сторожем, пока висела отправка, и больше не обслуживается */
+    private boolean send(Client client, SseEmitter.SseEventBuilder event) throws IOException {
+        synchronized (client.queue) {
+            if (client.evicted) {
+                return false;
+            }
+            client.sending = true;
+            client.sendStartedNanos = System.nanoTime();
+        }
+        boolean evicted;
+        try {
+            client.emitter.send(event);
+        } finally {
+            synchronized (client.queue) {
+                client.sending = false;
+                evicted = client.evicted;
+            }
+            if (evicted) {
+                // Зависшая отправка вернулась — запасной поток, выданный сторожем, больше не нужен
+                resizeSenders(-1);
+            }
+        }
+        if (evicted) {
+            client.emitter.complete();
+        }
+        return !evicted;
+    }
+
+    private void resizeSenders(int delta) {
+        synchronized (senders) {
+            int size = senders.getCorePoolSize() + delta;
+            // Порядок важен: core не может превышать max
+            if (delta > 0) {
+                senders.setMaximumPoolSize(size);
+                senders.setCorePoolSize(size);
+            } else {
+                senders.setCorePoolSize(size);
+                senders.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private static String op(EntityChangeEvent event) {
+        return event.changeType().name().toLowerCase(Locale.ROOT);
+    }
+
+    /** name == null — SSE-комментарий (пинг) */
+    private record LiveEvent(String name, String data) {}
+
+    private static final class Client {
+        final SseEmitter emitter;
+        final ArrayDeque<LiveEvent> queue = new ArrayDeque<>();
+        final AtomicBoolean draining = new AtomicBoolean();
+        boolean overflowed;  // под монитором queue
+        boolean sending;  // под монитором queue
+        long sendStartedNanos;  // под монитором queue
+        volatile boolean evicted;  // пишется под монитором queue
+
+        Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
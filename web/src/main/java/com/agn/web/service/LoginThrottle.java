@@ -0,0 +1,162 @@
+package com.agn.web.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts failed logins per username and per client IP over a sliding window and refuses further
+ * attempts before any password hashing is done. Counting is lock-free: each key owns a ring of
+ * per-minute buckets updated with CAS.
+ * <p>
+ * An attempt is counted as a failure up front by {@link #reserve} and given back by
+ * {@link #recordSuccess}, so parallel guesses cannot all pass the check before any of them is recorded.
+ */
+@Service
+public class LoginThrottle {
+
+    static final int MAX_FAILURES_PER_USERNAME = 10;
+    static final int MAX_FAILURES_PER_IP = 50;
+
+    private static final int BUCKETS = 10;
+    private static final long BUCKET_MILLIS = Duration.ofMinutes(1).toMillis();
+    // Защита от раздувания карт перебором случайных логинов
+    private static final int MAX_TRACKED_KEYS = 100_000;
+
+    private final Map<String, SlidingWindow> byUsername = new ConcurrentHashMap<>();
+    private final Map<String, SlidingWindow> byIp = new ConcurrentHashMap<>();
+    private final LongAdder throttled = new LongAdder();
+
+    /**
+     * Counts the attempt as a failure and checks the limits including it. Unless
+     * {@link #recordSuccess} is called with the returned attempt, it stays counted.
+     *
+     * @throws TooManyRequestsException when the username or the IP has too many recent failures
+     */
+    public Attempt reserve(String username, String ip) {
+        return reserve(username, ip, System.currentTimeMillis());
+    }
+
+    Attempt reserve(String username, String ip, long now) {
+        // Сначала занимаем место в окне, потом сравниваем: каждый параллельный запрос видит и себя, и всех до него
+        long byName = record(byUsername, username, now);
+        long byAddress = record(byIp, ip, now);
+        Attempt attempt = new Attempt(username, ip, now);
+        if (byName > MAX_FAILURES_PER_USERNAME || byAddress > MAX_FAILURES_PER_IP) {
+            // Отклонённая попытка пароль не проверяла — не продлеваем ею блокировку
+            release(attempt);
+            throttled.increment();
+            throw new TooManyRequestsException("Слишком много неудачных попыток входа, попробуйте позже");
+        }
+        return attempt;
+    }
+
+    /**
+     * Resets the username's counter and gives back the IP slot taken by the attempt.
+     */
+    public void recordSuccess(Attempt attempt) {
+        if (attempt.username() != null) {
+            byUsername.remove(attempt.username());
+        }
+        release(byIp, attempt.ip(), attempt.at());
+    }
+
+    /**
+     * Gives back an attempt whose password was never checked (e.g. the hashing pool was full).
+     */
+    public void release(Attempt attempt) {
+        release(byUsername, attempt.username(), attempt.at());
+        release(byIp, attempt.ip(), attempt.at());
+    }
+
+    public long getThrottledCount() {
+        return throttled.sum();
+    }
+
+    public int getTrackedKeys() {
+        return byUsername.size() + byIp.size();
+    }
+
+    @Scheduled(fixedDelayString = "${auth.throttle.purge-interval:PT5M}")
+    public void purgeIdle() {
+        long now = System.currentTimeMillis();
+        byUsername.values().removeIf(window -> window.count(now) == 0);
+        byIp.values().removeIf(window -> window.count(now) == 0);
+    }
+
+    long count(String username, String ip, long now) {
+        return Math.max(count(byUsername, username, now), count(byIp, ip, now));
+    }
+
+    private static void release(Map<String, SlidingWindow> windows, String key, long at) {
+        SlidingWindow window = key != null ? windows.get(key) : null;
+        if (window != null) {
+            window.release(at);
+        }
+    }
+
+    private static long count(Map<String, SlidingWindow> windows, String key, long now) {
+        SlidingWindow window = key != null ? windows.get(key) : null;
+        return window != null ? window.count(now) : 0;
+    }
+
+    /** @return the window's count including this attempt; 0 when there is no key to count */
+    private static long record(Map<String, SlidingWindow> windows, String key, long now) {
+        if (key == null) {
+            return 0;
+        }
+        SlidingWindow window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= MAX_TRACKED_KEYS) {
+                windows.values().removeIf(w -> w.count(now) == 0);
+            }
+            window = windows.computeIfAbsent(key, k -> new SlidingWindow());
+        }
+        window.record(now);
+        return window.count(now);
+    }
+
+    /** A reserved login attempt; pass it back to {@link #recordSuccess} if the password was right. */
+    public record Attempt(String username, String ip, long at) {}
+
+    /** Кольцо минутных корзин; корзина помечена номером своей минуты и обнуляется при повторном использовании */
+    private static final class SlidingWindow {
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLongArray minutes = new AtomicLongArray(BUCKETS);
+
+        void record(long now) {
+            long minute = now / BUCKET_MILLIS;
+            int index = (int) (minute % BUCKETS);
+            long seen = minutes.get(index);
+            if (seen != minute && minutes.compareAndSet(index, seen, minute)) {
+                counts.set(index, 0);
+            }
+            counts.incrementAndGet(index);
+        }
+
+        /** Снимает одну попытку, если её корзина ещё не переиспользована под другую минуту */
+        void release(long at) {
+            long minute = at / BUCKET_MILLIS;
+            int index = (int) (minute % BUCKETS);
+            if (minutes.get(index) == minute) {
+                counts.updateAndGet(index, count -> Math.max(0, count - 1));
+            }
+        }
+
+        long count(long now) {
+            long minute = now / BUCKET_MILLIS;
+            long sum = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (minute - minutes.get(i) < BUCKETS) {
+                    sum += counts.get(i);
+                }
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.SearchHitDTO;
+import com.agn.web.dto.StudentRowDTO;
+import com.agn.web.entity.Group;
+import com.agn.web.entity.Student;
+import com.agn.web.entity.Subject;
+import com.agn.web.entity.User;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.repository.GroupRepository;
+import com.agn.web.repository.StudentRepository;
+import com.agn.web.repository.SubjectRepository;
+import com.agn.web.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory prefix/trigram index over students, users, groups and subjects for autocomplete.
+ * Built on startup and kept current from {@link EntityChangeEvent}s; queries never touch the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchIndexService {
+
+    public enum DocType {
+        STUDENT, USER, GROUP, SUBJECT
+    }
+
+    private static final double EXACT_SCORE = 1.0;
+    private static final double PREFIX_SCORE = 0.8;
+    private static final double FUZZY_SCORE = 0.6;
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int MAX_FUZZY_CANDIDATES = 200;
+
+    private final StudentRepository studentRepository;
+    private final UserRepository userRepository;
+    private final GroupRepository groupRepository;
+    private final SubjectRepository subjectRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<DocKey, Doc> docs = new HashMap<>();
+    // токен -> документы; TreeMap даёт поиск по префиксу через subMap
+    private final TreeMap<String, Set<DocKey>> postings = new TreeMap<>();
+    // триграмма -> токены словаря, для поиска с опечатками
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    // Изменения, пришедшие во время перестроения: снимок мог быть прочитан до них, поэтому после
+    // замены документов они применяются повторно. null — перестроение не идёт; защищено lock
+    private Map<DocKey, Optional<Doc>> changedDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAll() {
+        for (DocType type : DocType.values()) {
+            rebuild(type);
+        }
+        log.info("Search index built: {} documents, {} tokens", docs.size(), postings.size());
+    }
+
+    public synchronized void rebuild(DocType type) {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Doc> loaded = List.of();
+        boolean succeeded = false;
+        try {
+            loaded = switch (type) {
+                case STUDENT -> studentRepository.findAllRows().stream().map(SearchIndexService::studentDoc).toList();
+                case USER -> userRepository.findAll().stream().map(SearchIndexService::userDoc).toList();
+                case GROUP -> groupRepository.findAll().stream().map(SearchIndexService::groupDoc).toList();
+                case SUBJECT -> subjectRepository.findAll().stream().map(SearchIndexService::subjectDoc).toList();
+            };
+            succeeded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (succeeded) {
+                    new ArrayList<>(docs.keySet()).stream()
+                            .filter(key -> key.type() == type)
+                            .forEach(this::removeLocked);
+                    loaded.forEach(this::addLocked);
+                    changedDuringRebuild.forEach((key, doc) -> {
+                        if (key.type() == type) {
+                            removeLocked(key);
+                            doc.ifPresent(this::addLocked);
+                        }
+                    });
+                }
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        DocType type = docType(event.entityType());
+        if (type == null) {
+            return;
+        }
+        switch (event.changeType()) {
+            case BULK -> rebuild(type);
+            case DELETED -> remove(new DocKey(type, event.id()));
+            case CREATED, UPDATED -> {
+                switch (type) {
+                    // Группа в сохранённом студенте может быть ссылкой без имени — перечитываем строку
+                    case STUDENT -> studentRepository.findRowById(event.id()).map(SearchIndexService::studentDoc).ifPresent(this::put);
+                    case USER -> put(userDoc((User) event.entity()));
+                    case SUBJECT -> put(subjectDoc((Subject) event.entity()));
+                    case GROUP -> {
+                        put(groupDoc((Group) event.entity()));
+                        if (event.changeType() == EntityChangeEvent.ChangeType.UPDATED) {
+                            // Название группы показывается у её студентов — перечитываем только их
+                            studentRepository.findRowsByGroupId(event.id()).stream()
+                                    .map(SearchIndexService::studentDoc)
+                                    .forEach(this::put);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * All query tokens must match (as a prefix, exactly, or within a small edit distance).
+     */
+    public List<SearchHitDTO> search(String query, Set<DocType> types, int limit) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (queryTokens.size() == 1) {
+                return searchSingleToken(queryTokens.get(0), types, limit);
+            }
+            Map<DocKey, Double> scores = null;
+            for (String token : queryTokens) {
+                Map<DocKey, Double> tokenScores = matchToken(token, types);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((key, score) -> score + tokenScores.get(key));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            // Top-k через кучу размера limit, без сортировки всех кандидатов
+            Comparator<Map.Entry<DocKey, Double>> ranking = Map.Entry.<DocKey, Double>comparingByValue()
+                    .thenComparing(entry -> docs.get(entry.getKey()).title(), Comparator.reverseOrder());
+            PriorityQueue<Map.Entry<DocKey, Double>> top = new PriorityQueue<>(limit + 1, ranking);
+            for (Map.Entry<DocKey, Double> entry : scores.entrySet()) {
+                top.offer(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<SearchHitDTO> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                hits.add(docs.get(top.poll().getKey()).toHit());
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Autocomplete fast path: exact matches outrank prefix matches, which outrank fuzzy ones, so the scan
+     * stops as soon as {@code limit} hits are collected. Within a tier hits follow token order.
+     */
+    private List<SearchHitDTO> searchSingleToken(String token, Set<DocType> types, int limit) {
+        Set<DocKey> hits = new LinkedHashSet<>();
+        addUpTo(hits, postings.get(token), types, limit);
+        for (Map.Entry<String, Set<DocKey>> entry : postings.subMap(token, false, token + Character.MAX_VALUE, true).entrySet()) {
+            if (hits.size() >= limit) {
+                break;
+            }
+            addUpTo(hits, entry.getValue(), types, limit);
+        }
+        if (hits.size() < limit && token.length() >= MIN_FUZZY_LENGTH) {
+            fuzzyMatches(token).entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue())
+                    .forEach(entry -> addUpTo(hits, postings.get(entry.getKey()), types, limit));
+        }
+        return hits.stream().map(key -> docs.get(key).toHit()).toList();
+    }
+
+    private void addUpTo(Set<DocKey> hits, Set<DocKey> keys, Set<DocType> types, int limit) {
+        if (keys == null) {
+            return;
+        }
+        for (DocKey key : keys) {
+            if (hits.size() >= limit) {
+                return;
+            }
+            if (types.contains(key.type())) {
+                hits.add(key);
+            }
+        }
+    }
+
+    private Map<DocKey, Double> matchToken(String token, Set<DocType> types) {
+        Map<DocKey, Double> result = new HashMap<>();
+        for (Map.Entry<String, Set<DocKey>> entry : postings.subMap(token, true, token + Character.MAX_VALUE, true).entrySet()) {
+            double score = entry.getKey().equals(token) ? EXACT_SCORE : PREFIX_SCORE;
+            collect(result, entry.getValue(), types, score);
+        }
+        if (token.length() >= MIN_FUZZY_LENGTH) {
+            fuzzyMatches(token).forEach((candidate, distance) ->
+                    collect(result, postings.get(candidate), types, FUZZY_SCORE - 0.1 * distance));
+        }
+        return result;
+    }
+
+    /** Токены словаря, отличающиеся от запроса (целиком или своим префиксом) на 1–2 правки -> расстояние */
+    private Map<String, Integer> fuzzyMatches(String token) {
+        int maxDistance = token.length() <= 4 ? 1 : 2;
+        Map<String, Integer> matches = new HashMap<>();
+        for (String candidate : fuzzyCandidates(token)) {
+            if (candidate.startsWith(token)) {
+                continue;
+            }
+            int distance = Math.min(
+                    editDistance(token, candidate),
+                    editDistance(token, candidate.substring(0, Math.min(candidate.length(), token.length()))));
+            if (distance <= maxDistance) {
+                matches.put(candidate, distance);
+            }
+        }
+        return matches;
+    }
+
+    private void collect(Map<DocKey, Double> result, Set<DocKey> keys, Set<DocType> types, double score) {
+        for (DocKey key : keys) {
+            if (types.contains(key.type())) {
+                result.merge(key, score, Math::max);
+            }
+        }
+    }
+
+    private List<String> fuzzyCandidates(String token) {
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : trigramsOf(token)) {
+            for (String candidate : trigrams.getOrDefault(trigram, Set.of())) {
+                shared.merge(candidate, 1, Integer::sum);
+            }
+        }
+        return shared.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(MAX_FUZZY_CANDIDATES)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private void put(Doc doc) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(doc.key());
+            addLocked(doc);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(doc.key(), Optional.of(doc));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(DocKey key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(key, Optional.empty());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(Doc doc) {
+        docs.put(doc.key(), doc);
+        for (String token : doc.tokens()) {
+            postings.computeIfAbsent(token, t -> {
+                trigramsOf(t).forEach(trigram -> trigrams.computeIfAbsent(trigram, g -> new HashSet<>()).add(t));
+                return new HashSet<>();
+            }).add(doc.key());
+        }
+    }
+
+    private void removeLocked(DocKey key) {
+        Doc doc = docs.remove(key);
+        if (doc == null) {
+            return;
+        }
+        for (String token : doc.tokens()) {
+            Set<DocKey> keys = postings.get(token);
+            if (keys == null) {
+                continue;
+            }
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                postings.remove(token);
+                for (String trigram : trigramsOf(token)) {
+                    Set<String> tokens = trigrams.get(trigram);
+                    if (tokens != null) {
+                        tokens.remove(token);
+                        if (tokens.isEmpty()) {
+                            trigrams.remove(trigram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static DocType docType(Class<?> entityType) {
+        if (entityType == Student.class) {
+            return DocType.STUDENT;
+        } else if (entityType == User.class) {
+            return DocType.USER;
+        } else if (entityType == Group.class) {
+            return DocType.GROUP;
+        } else if (entityType == Subject.class) {
+            return DocType.SUBJECT;
+        }
+        return null;
+    }
+
+    private static Doc studentDoc(StudentRowDTO row) {
+        String title = join(row.lastName(), row.firstName(), row.middleName());
+        String subtitle = row.group() != null ? row.group().name() : null;
+        return new Doc(new DocKey(DocType.STUDENT, row.id()), title, subtitle,
+                tokensOf(row.lastName(), row.firstName(), row.middleName()));
+    }
+
+    private static Doc userDoc(User user) {
+        String title = join(user.getLastName(), user.getFirstName());
+        return new Doc(new DocKey(DocType.USER, user.getId()), title.isEmpty() ? user.getUsername() : title,
+                user.getUsername(), tokensOf(user.getUsername(), user.getLastName(), user.getFirstName()));
+    }
+
+    private static Doc groupDoc(Group group) {
+        return new Doc(new DocKey(DocType.GROUP, group.getId()), group.getName(), null, tokensOf(group.getName()));
+    }
+
+    private static Doc subjectDoc(Subject subject) {
+        return new Doc(new DocKey(DocType.SUBJECT, subject.getId()), subject.getName(), subject.getShortName(),
+                tokensOf(subject.getName(), subject.getShortName()));
+    }
+
+    /** Слова каждого поля плюс поле целиком без разделителей ("ИВТ-21" → ивт, 21, ивт21) */
+    private static Set<String> tokensOf(String... fields) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String field : fields) {
+            List<String> words = tokenize(field);
+            tokens.addAll(words);
+            if (words.size() > 1) {
+                tokens.add(String.join("", words));
+            }
+        }
+        return tokens;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char ch = normalized.charAt(i);
+            if (Character.isLetterOrDigit(ch)) {
+                current.append(ch);
+            } else if (!current.isEmpty()) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (!current.isEmpty()) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    /** Триграммы с маркером начала слова; конец не маркируется, чтобы префикс запроса совпадал с префиксом токена */
+    private static List<String> trigramsOf(String token) {
+        String padded = "$" + token;
+        List<String> result = new ArrayList<>(padded.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        if (result.isEmpty()) {
+            result.add(padded);
+        }
+        return result;
+    }
+
+    /** Расстояние Дамерау–Левенштейна (с перестановкой соседних букв) */
+    private static int editDistance(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    private static String join(String... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.isBlank()) {
+                if (!sb.isEmpty()) {
+                    sb.append(' ');
+                }
+                sb.append(part.trim());
+            }
+        }
+        return sb.toString();
+    }
+
+    private record DocKey(DocType type, Long id) {}
+
+    private record Doc(DocKey key, String title, String subtitle, Set<String> tokens) {
+        SearchHitDTO toHit() {
+            return new SearchHitDTO(key.type().name(), key.id(), title, subtitle);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.SemesterGenerationReport;
+import com.agn.web.dto.SemesterPlanRequest;
+
+public interface SemesterGeneratorService {
+
+    /**
+     * Expands the weekly template into lessons, checks group, teacher and room overlaps against each
+     * other and against existing lessons, and inserts the lessons only when there are no conflicts.
+     */
+    SemesterGenerationReport generate(SemesterPlanRequest request);
+}
@@ -0,0 +1,218 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.LessonSlotRow;
+import com.agn.web.dto.ScheduleConflictDTO;
+import com.agn.web.dto.SemesterGenerationReport;
+import com.agn.web.dto.SemesterPlanRequest;
+import com.agn.web.dto.SemesterPlanRequest.WeekParity;
+import com.agn.web.dto.SemesterPlanRequest.WeeklySlot;
+import com.agn.web.entity.DisciplineGroup;
+import com.agn.web.entity.Lesson;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.repository.DisciplineGroupRepository;
+import com.agn.web.repository.LessonRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class SemesterGeneratorServiceImpl implements SemesterGeneratorService {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int MAX_REPORTED_CONFLICTS = 1_000;
+    private static final int MAX_SEMESTER_DAYS = 366;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO lessons (subject_id, group_id, start_time, end_time, type, room) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int[] INSERT_TYPES =
+            {Types.BIGINT, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR};
+
+    private static final Comparator<Interval> BY_START =
+            Comparator.comparing(Interval::start).thenComparing(Interval::end);
+
+    private final DisciplineGroupRepository disciplineGroupRepository;
+    private final LessonRepository lessonRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public SemesterGenerationReport generate(SemesterPlanRequest request) {
+        validate(request);
+        Map<Long, DisciplineGroup> disciplineGroups = loadDisciplineGroups(request);
+        List<Draft> drafts = expand(request, disciplineGroups);
+        List<ScheduleConflictDTO> conflicts = new ArrayList<>();
+        int conflictCount = findConflicts(request, drafts, conflicts);
+
+        int inserted = 0;
+        if (!request.dryRun() && conflictCount == 0 && !drafts.isEmpty()) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (Draft draft : drafts) {
+                batch.add(new Object[]{draft.subjectId(), draft.groupId(), Timestamp.valueOf(draft.start()),
+                        Timestamp.valueOf(draft.end()), draft.type().name(), draft.room()});
+                if (batch.size() == BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, INSERT_TYPES);
+                    inserted += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, INSERT_TYPES);
+                inserted += batch.size();
+            }
+            eventPublisher.publishEvent(EntityChangeEvent.bulk(Lesson.class));
+        }
+        return new SemesterGenerationReport(drafts.size(), inserted, conflictCount, conflicts, request.dryRun());
+    }
+
+    private void validate(SemesterPlanRequest request) {
+        if (request.startDate() == null || request.endDate() == null || request.endDate().isBefore(request.startDate())) {
+            throw new IllegalArgumentException("Неверные даты семестра");
+        }
+        if (ChronoUnit.DAYS.between(request.startDate(), request.endDate()) > MAX_SEMESTER_DAYS) {
+            throw new IllegalArgumentException("Семестр длиннее года");
+        }
+        if (request.slots() == null || request.slots().isEmpty()) {
+            throw new IllegalArgumentException("Пустой шаблон расписания");
+        }
+        for (WeeklySlot slot : request.slots()) {
+            if (slot.disciplineGroupId() == null || slot.dayOfWeek() == null || slot.type() == null
+                    || slot.startTime() == null || slot.endTime() == null || !slot.endTime().isAfter(slot.startTime())) {
+                throw new IllegalArgumentException("Неверный слот шаблона: " + slot);
+            }
+        }
+    }
+
+    private Map<Long, DisciplineGroup> loadDisciplineGroups(SemesterPlanRequest request) {
+        Set<Long> ids = request.slots().stream().map(WeeklySlot::disciplineGroupId).collect(Collectors.toSet());
+        Map<Long, DisciplineGroup> result = disciplineGroupRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(DisciplineGroup::getId, Function.identity()));
+        for (Long id : ids) {
+            DisciplineGroup dg = result.get(id);
+            if (dg == null) {
+                throw new IllegalArgumentException("Назначение не найдено: " + id);
+            }
+            if ((request.semester() != null && !request.semester().equals(dg.getSemester()))
+                    || (request.year() != null && !request.year().equals(dg.getYear()))) {
+                throw new IllegalArgumentException("Назначение " + id + " относится к другому семестру");
+            }
+        }
+        return result;
+    }
+
+    private List<Draft> expand(SemesterPlanRequest request, Map<Long, DisciplineGroup> disciplineGroups) {
+        Set<LocalDate> skip = request.skipDates() != null ? new HashSet<>(request.skipDates()) : Set.of();
+        LocalDate firstMonday = request.startDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        List<Draft> drafts = new ArrayList<>();
+        for (WeeklySlot slot : request.slots()) {
+            DisciplineGroup dg = disciplineGroups.get(slot.disciplineGroupId());
+            Long teacherId = dg.getTeacher() != null ? dg.getTeacher().getId() : null;
+            String room = slot.room() != null && !slot.room().isBlank() ? slot.room().trim() : null;
+            WeekParity parity = slot.weeks() != null ? slot.weeks() : WeekParity.EVERY;
+            for (LocalDate day = request.startDate().with(TemporalAdjusters.nextOrSame(slot.dayOfWeek()));
+                 !day.isAfter(request.endDate()); day = day.plusWeeks(1)) {
+                // Первая неделя семестра — нечётная
+                long week = ChronoUnit.WEEKS.between(firstMonday, day) + 1;
+                if (skip.contains(day) || (parity == WeekParity.ODD && week % 2 == 0)
+                        || (parity == WeekParity.EVEN && week % 2 == 1)) {
+                    continue;
+                }
+                drafts.add(new Draft(dg.getId(), dg.getSubject().getId(), dg.getGroup().getId(), teacherId, room,
+                        slot.type(), day.atTime(slot.startTime()), day.atTime(slot.endTime())));
+            }
+        }
+        return drafts;
+    }
+
+    /**
+     * Sorted sweep per resource (group, teacher, room): intervals are sorted by start and each one is
+     * compared with the interval that currently reaches furthest. Existing lessons take part, but
+     * conflicts between two existing lessons are not reported.
+     */
+    private int findConflicts(SemesterPlanRequest request, List<Draft> drafts, List<ScheduleConflictDTO> conflicts) {
+        Map<String, List<Interval>> byResource = new HashMap<>();
+        for (Draft draft : drafts) {
+            String label = "discipline-group " + draft.disciplineGroupId();
+            addInterval(byResource, "group", draft.groupId(), label, draft.start(), draft.end(), true);
+            addInterval(byResource, "teacher", draft.teacherId(), label, draft.start(), draft.end(), true);
+            addInterval(byResource, "room", roomKey(draft.room()), label, draft.start(), draft.end(), true);
+        }
+
+        Map<String, Set<Long>> teachersBySubjectGroup = new HashMap<>();
+        for (Object[] assignment : disciplineGroupRepository.findTeacherAssignments()) {
+            teachersBySubjectGroup.computeIfAbsent(assignment[0] + ":" + assignment[1], key -> new HashSet<>())
+                    .add((Long) assignment[2]);
+        }
+        List<LessonSlotRow> existing = lessonRepository.findSlotsBetween(
+                request.startDate().atStartOfDay(), request.endDate().plusDays(1).atStartOfDay());
+        for (LessonSlotRow row : existing) {
+            String label = "lesson " + row.lessonId();
+            addInterval(byResource, "group", row.groupId(), label, row.startTime(), row.endTime(), false);
+            for (Long teacherId : teachersBySubjectGroup.getOrDefault(row.subjectId() + ":" + row.groupId(), Set.of())) {
+                addInterval(byResource, "teacher", teacherId, label, row.startTime(), row.endTime(), false);
+            }
+            addInterval(byResource, "room", roomKey(row.room()), label, row.startTime(), row.endTime(), false);
+        }
+
+        int count = 0;
+        for (Map.Entry<String, List<Interval>> entry : byResource.entrySet()) {
+            List<Interval> intervals = entry.getValue();
+            intervals.sort(BY_START);
+            Interval furthest = null;
+            for (Interval interval : intervals) {
+                if (furthest != null && interval.start().isBefore(furthest.end())
+                        && (interval.generated() || furthest.generated())) {
+                    count++;
+                    if (conflicts.size() < MAX_REPORTED_CONFLICTS) {
+                        String[] resource = entry.getKey().split(":", 2);
+                        LocalDateTime overlapEnd = interval.end().isBefore(furthest.end()) ? interval.end() : furthest.end();
+                        conflicts.add(new ScheduleConflictDTO(resource[0], resource[1], furthest.label(), interval.label(),
+                                interval.start(), overlapEnd));
+                    }
+                }
+                if (furthest == null || interval.end().isAfter(furthest.end())) {
+                    furthest = interval;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static void addInterval(Map<String, List<Interval>> byResource, String kind, Object key, String label,
+                                    LocalDateTime start, LocalDateTime end, boolean generated) {
+        if (key != null) {
+            byResource.computeIfAbsent(kind + ":" + key, k -> new ArrayList<>())
+                    .add(new Interval(start, end, label, generated));
+        }
+    }
+
+    private static String roomKey(String room) {
+        return room != null ? room.toLowerCase(Locale.ROOT).replace(" ", "") : null;
+    }
+
+    private record Draft(Long disciplineGroupId, Long subjectId, Long groupId, Long teacherId, String room,
+                         Lesson.LessonType type, LocalDateTime start, LocalDateTime end) {}
+
+    private record Interval(LocalDateTime start, LocalDateTime end, String label, boolean generated) {}
+}
@@ -0,0 +1,13 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.StudentImportReport;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface StudentImportService {
+    /**
+     * Imports students from a CSV or XLSX file with a header row
+     * (lastName, firstName, middleName, dateBorn, group — English or Russian column names).
+     * Valid rows are inserted, invalid ones are reported with their row number.
+     */
+    StudentImportReport importStudents(MultipartFile file);
+}
@@ -0,0 +1,213 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.StudentImportReport;
+import com.agn.web.dto.StudentImportReport.RowError;
+import com.agn.web.entity.Group;
+import com.agn.web.entity.Student;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.repository.GroupRepository;
+import com.agn.web.util.SpreadsheetReader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class StudentImportServiceImpl implements StudentImportService {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int MAX_REPORTED_ERRORS = 1_000;
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO students (last_name, first_name, middle_name, date_born, group_id) VALUES (?, ?, ?, ?, ?)";
+    private static final int[] INSERT_TYPES = {Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.DATE, Types.BIGINT};
+
+    // STRICT: 31.02 — ошибка строки, а не молча 28.02 (uuuu — иначе STRICT требует эру)
+    private static final DateTimeFormatter RU_DATE = DateTimeFormatter.ofPattern("dd.MM.uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    // Допустимые заголовки колонок (в нижнем регистре, без пробелов и подчёркиваний)
+    private static final Map<String, Column> HEADER_ALIASES = Map.ofEntries(
+            Map.entry("lastname", Column.LAST_NAME),
+            Map.entry("фамилия", Column.LAST_NAME),
+            Map.entry("firstname", Column.FIRST_NAME),
+            Map.entry("имя", Column.FIRST_NAME),
+            Map.entry("middlename", Column.MIDDLE_NAME),
+            Map.entry("отчество", Column.MIDDLE_NAME),
+            Map.entry("dateborn", Column.DATE_BORN),
+            Map.entry("датарождения", Column.DATE_BORN),
+            Map.entry("group", Column.GROUP),
+            Map.entry("группа", Column.GROUP)
+    );
+
+    private final GroupRepository groupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public StudentImportReport importStudents(MultipartFile file) {
+        ImportRun run = new ImportRun();
+        String filename = Optional.ofNullable(file.getOriginalFilename()).orElse("").toLowerCase(Locale.ROOT);
+        try {
+            if (filename.endsWith(".xlsx")) {
+                // POI читает XLSX потоково только из файла, а не из InputStream
+                Path tmp = Files.createTempFile("students-import", ".xlsx");
+                try {
+                    file.transferTo(tmp);
+                    SpreadsheetReader.readXlsx(tmp.toFile(), run::accept);
+                } finally {
+                    Files.deleteIfExists(tmp);
+                }
+            } else {
+                try (InputStream in = file.getInputStream()) {
+                    SpreadsheetReader.readCsv(in, run::accept);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        run.flush();
+        if (run.importedRows > 0) {
+            eventPublisher.publishEvent(EntityChangeEvent.bulk(Student.class));
+        }
+        return run.report();
+    }
+
+    private enum Column {
+        LAST_NAME, FIRST_NAME, MIDDLE_NAME, DATE_BORN, GROUP
+    }
+
+    /** Состояние одного импорта: маппинг колонок, текущий батч, кэш групп и ошибки */
+    private class ImportRun {
+
+        private final Map<Column, Integer> columns = new HashMap<>();
+        private final List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        private final Map<String, Optional<Long>> groupIds = new HashMap<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private boolean headerRead;
+        private long totalRows;
+        private long importedRows;
+        private long failedRows;
+
+        void accept(long rowNumber, List<String> cells) {
+            if (!headerRead) {
+                readHeader(cells);
+                headerRead = true;
+                return;
+            }
+            if (cells.stream().allMatch(String::isBlank)) {
+                return;
+            }
+            totalRows++;
+            try {
+                batch.add(toInsertArgs(cells));
+            } catch (IllegalArgumentException e) {
+                failedRows++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new RowError(rowNumber, e.getMessage()));
+                }
+                return;
+            }
+            if (batch.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, INSERT_TYPES);
+            importedRows += batch.size();
+            batch.clear();
+        }
+
+        StudentImportReport report() {
+            return new StudentImportReport(totalRows, importedRows, failedRows, errors);
+        }
+
+        private void readHeader(List<String> cells) {
+            for (int i = 0; i < cells.size(); i++) {
+                String key = cells.get(i).trim().toLowerCase(Locale.ROOT).replace(" ", "").replace("_", "");
+                Column column = HEADER_ALIASES.get(key);
+                if (column != null) {
+                    columns.putIfAbsent(column, i);
+                }
+            }
+            if (!columns.containsKey(Column.LAST_NAME) || !columns.containsKey(Column.FIRST_NAME)) {
+                throw new IllegalArgumentException("В заголовке файла должны быть колонки lastName и firstName");
+            }
+        }
+
+        private Object[] toInsertArgs(List<String> cells) {
+            String lastName = required(cells, Column.LAST_NAME, "Не указана фамилия");
+            String firstName = required(cells, Column.FIRST_NAME, "Не указано имя");
+            String middleName = optional(cells, Column.MIDDLE_NAME);
+            if (middleName != null && middleName.length() > MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException("Слишком длинное отчество");
+            }
+
+            String dateValue = optional(cells, Column.DATE_BORN);
+            Date dateBorn = dateValue != null ? Date.valueOf(parseDate(dateValue)) : null;
+
+            String groupName = optional(cells, Column.GROUP);
+            Long groupId = null;
+            if (groupName != null) {
+                groupId = groupIds.computeIfAbsent(groupName, name -> groupRepository.findByName(name).map(Group::getId))
+                        .orElseThrow(() -> new IllegalArgumentException("Группа не найдена: " + groupName));
+            }
+            return new Object[]{lastName, firstName, middleName, dateBorn, groupId};
+        }
+
+        private String required(List<String> cells, Column column, String message) {
+            String value = optional(cells, column);
+            if (value == null) {
+                throw new IllegalArgumentException(message);
+            }
+            if (value.length() > MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException("Слишком длинное значение: " + value.substring(0, 32) + "…");
+            }
+            return value;
+        }
+
+        private String optional(List<String> cells, Column column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= cells.size()) {
+                return null;
+            }
+            String value = cells.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private LocalDate parseDate(String value) {
+            try {
+                return value.contains(".") ? LocalDate.parse(value, RU_DATE) : LocalDate.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Неверная дата рождения: " + value);
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.agn.web.service;
 
+import com.agn.web.dto.StudentPageDTO;
+import com.agn.web.dto.StudentRowDTO;
 import com.agn.web.entity.Student;
 
 import java.util.List;
@@ -11,5 +13,18 @@ public interface StudentService {
     Student getStudentById(Long id);
     void deleteStudent(Long id);
     Student updateStudent(Long id, Student studentDetails);
-    List<Student> getStudentsByGroupId(Long groupId);
-}
\ No newline at end of file
+    List<StudentRowDTO> getStudentsByGroupId(Long groupId);
+
+    /**
+     * Returns one page of students after the cursor {@code after} (exclusive; null for the first page),
+     * optionally restricted to a group and ordered by last name instead of id.
+     *
+     * @throws IllegalArgumentException if {@code after} is not a cursor issued by this method
+     */
+    StudentPageDTO getStudentsPage(String after, int limit, Long groupId, StudentSort sort);
+
+    enum StudentSort {
+        ID,
+        LAST_NAME
+    }
+}
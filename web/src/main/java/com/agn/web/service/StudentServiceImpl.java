@@ -1,18 +1,42 @@
 package com.agn.web.service;
 
 
+import com.agn.web.config.CacheConfig;
+import com.agn.web.dto.StudentPageDTO;
+import com.agn.web.dto.StudentRowDTO;
+import com.agn.web.entity.Grade;
+import com.agn.web.entity.Group;
 import com.agn.web.entity.Student;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.event.StudentMovedEvent;
+import com.agn.web.repository.GradeRepository;
+import com.agn.web.repository.RosterSlotRepository;
 import com.agn.web.repository.StudentRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class StudentServiceImpl implements StudentService{
 
     private final StudentRepository studentRepository;
-
+    private final RosterSlotRepository rosterSlotRepository;
+    private final GradeRepository gradeRepository;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<Student> getAllStudents() {
@@ -21,7 +45,16 @@ public class StudentServiceImpl implements StudentService{
 
     @Override
     public Student saveStudent(Student student) {
-        return studentRepository.save(student);
+        boolean created = student.getId() == null;
+        // Форма редактирования сохраняет отсоединённую сущность — прежнюю группу берём из БД
+        Long previousGroupId = created ? null : studentRepository.findGroupIdById(student.getId()).orElse(null);
+        Student saved = studentRepository.save(student);
+        if (created) {
+            eventPublisher.publishEvent(EntityChangeEvent.created(Student.class, saved.getId(), saved));
+        } else {
+            publishUpdated(saved, previousGroupId);
+        }
+        return saved;
     }
 
     @Override
@@ -31,27 +64,161 @@ public class StudentServiceImpl implements StudentService{
     }
 
     @Override
+    @Transactional
     public void deleteStudent(Long id) {
-        studentRepository.deleteById(id);
+        // Слоты посещаемости и оценки удаляем первыми; bulk DELETE очищает контекст, поэтому до загрузки студента
+        rosterSlotRepository.bulkDeleteByStudentId(id);
+        int gradesRemoved = gradeRepository.bulkDeleteByStudentId(id);
+        studentRepository.findById(id).ifPresent(student -> {
+            studentRepository.delete(student);
+            eventPublisher.publishEvent(EntityChangeEvent.deleted(Student.class, id, student));
+        });
+        if (gradesRemoved > 0) {
+            // Средние и счётчики пересчитываются по событию
+            eventPublisher.publishEvent(EntityChangeEvent.bulk(Grade.class));
+        }
     }
 
     @Override
     public Student updateStudent(Long id, Student studentDetails) {
         Student student = getStudentById(id);
+        Long previousGroupId = groupIdOf(student);
         student.setFirstName(studentDetails.getFirstName());
         student.setLastName(studentDetails.getLastName());
         student.setMiddleName(studentDetails.getMiddleName());
         student.setDateBorn(studentDetails.getDateBorn());
         student.setGroup(studentDetails.getGroup());
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        publishUpdated(saved, previousGroupId);
+        return saved;
+    }
+
+    private void publishUpdated(Student saved, Long previousGroupId) {
+        eventPublisher.publishEvent(EntityChangeEvent.updated(Student.class, saved.getId(), saved));
+        if (!Objects.equals(previousGroupId, groupIdOf(saved))) {
+            eventPublisher.publishEvent(new StudentMovedEvent(saved.getId(), previousGroupId, groupIdOf(saved)));
+        }
     }
 
     @Override
-    public List<Student> getStudentsByGroupId(Long groupId) {
-        // TODO: Реализовать метод в репозитории, если нужно фильтровать по группе
-        // Пока возвращаем всех (или нужно добавить метод в репозиторий)
-        return studentRepository.findAll().stream()
-                .filter(s -> s.getGroup() != null && s.getGroup().getId().equals(groupId))
-                .toList();
+    @Cacheable(cacheNames = CacheConfig.GROUP_ROSTERS, key = "#groupId")
+    public List<StudentRowDTO> getStudentsByGroupId(Long groupId) {
+        // В кэше неизменяемые строки, а не управляемые сущности: их читают параллельные запросы
+        return List.copyOf(studentRepository.findRowsByGroupId(groupId));
+    }
+
+    /**
+     * Составы сбрасываются только после коммита: иначе параллельное чтение успело бы положить в кэш
+     * ещё не закоммиченный (старый) состав.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        Cache rosters = cacheManager.getCache(CacheConfig.GROUP_ROSTERS);
+        if (rosters == null) {
+            return;
+        }
+        if (event.isAbout(Group.class) && event.id() != null) {
+            // Переименование тоже: в кэшированных студентах лежит группа с названием
+            rosters.evict(event.id());
+        } else if (event.isAbout(Student.class)) {
+            EntityChangeEvent.ChangeType type = event.changeType();
+            Long groupId = event.entity() instanceof Student student ? groupIdOf(student) : null;
+            if (type == EntityChangeEvent.ChangeType.BULK) {
+                // Импорт или каскадное удаление задевают многие группы
+                rosters.clear();
+            } else if (groupId != null) {
+                // Прежнюю группу при переводе сбрасывает StudentMovedEvent
+                rosters.evict(groupId);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentMoved(StudentMovedEvent event) {
+        Cache rosters = cacheManager.getCache(CacheConfig.GROUP_ROSTERS);
+        if (rosters != null && event.fromGroupId() != null) {
+            rosters.evict(event.fromGroupId());
+        }
+    }
+
+    @Override
+    public StudentPageDTO getStudentsPage(String after, int limit, Long groupId, StudentSort sort) {
+        // Запрашиваем на одну строку больше, чтобы понять, есть ли следующая страница
+        int fetch = limit + 1;
+        Cursor cursor = after != null ? Cursor.decode(after) : null;
+        List<StudentRowDTO> rows = sort == StudentSort.LAST_NAME
+                ? fetchByLastName(cursor, fetch, groupId)
+                : fetchById(cursor != null ? cursor.id() : 0L, fetch, groupId);
+
+        if (rows.size() <= limit) {
+            return new StudentPageDTO(rows, null);
+        }
+        List<StudentRowDTO> page = rows.subList(0, limit);
+        StudentRowDTO last = page.get(limit - 1);
+        Cursor next = sort == StudentSort.LAST_NAME ? new Cursor(last.lastName(), last.id()) : new Cursor(null, last.id());
+        return new StudentPageDTO(page, next.encode());
+    }
+
+    private List<StudentRowDTO> fetchById(long after, int fetch, Long groupId) {
+        return groupId != null
+                ? studentRepository.findGroupPageAfterId(groupId, after, Limit.of(fetch))
+                : studentRepository.findPageAfterId(after, Limit.of(fetch));
+    }
+
+    private List<StudentRowDTO> fetchByLastName(Cursor cursor, int fetch, Long groupId) {
+        String lastName = "";
+        long afterId = 0L;
+        if (cursor != null) {
+            if (cursor.lastName() == null) {
+                // Курсор уже в хвосте без фамилий
+                return fetchWithoutLastName(cursor.id(), fetch, groupId);
+            }
+            // Ключ сортировки берём из курсора, а не из строки-якоря: её могли удалить или переименовать
+            lastName = cursor.lastName();
+            afterId = cursor.id();
+        }
+
+        List<StudentRowDTO> rows = groupId != null
+                ? studentRepository.findGroupPageAfterLastName(groupId, lastName, afterId, Limit.of(fetch))
+                : studentRepository.findPageAfterLastName(lastName, afterId, Limit.of(fetch));
+        if (rows.size() == fetch) {
+            return rows;
+        }
+        List<StudentRowDTO> combined = new ArrayList<>(rows);
+        combined.addAll(fetchWithoutLastName(0L, fetch - rows.size(), groupId));
+        return combined;
+    }
+
+    private List<StudentRowDTO> fetchWithoutLastName(long after, int fetch, Long groupId) {
+        return groupId != null
+                ? studentRepository.findGroupPageWithoutLastName(groupId, after, Limit.of(fetch))
+                : studentRepository.findPageWithoutLastName(after, Limit.of(fetch));
+    }
+
+    private static Long groupIdOf(Student student) {
+        return student.getGroup() != null ? student.getGroup().getId() : null;
+    }
+
+    /**
+     * Keyset position: the sort key and id of the last row returned. Opaque to clients (URL-safe base64).
+     */
+    record Cursor(String lastName, long id) {
+
+        String encode() {
+            String raw = lastName != null ? id + ":" + lastName : Long.toString(id);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            try {
+                return separator < 0
+                        ? new Cursor(null, Long.parseLong(raw))
+                        : new Cursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed cursor: " + value, e);
+            }
+        }
     }
 }
@@ -1,8 +1,14 @@
 package com.agn.web.service;
 
 import com.agn.web.entity.Subject;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.repository.DisciplineGroupRepository;
+import com.agn.web.repository.GradeRepository;
+import com.agn.web.repository.LessonAttendanceRepository;
+import com.agn.web.repository.LessonRepository;
 import com.agn.web.repository.SubjectRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,6 +19,11 @@ import java.util.List;
 public class SubjectServiceImpl implements SubjectService {
 
     private final SubjectRepository subjectRepository;
+    private final LessonRepository lessonRepository;
+    private final GradeRepository gradeRepository;
+    private final LessonAttendanceRepository lessonAttendanceRepository;
+    private final DisciplineGroupRepository disciplineGroupRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<Subject> getAllSubjects() {
@@ -28,16 +39,27 @@ public class SubjectServiceImpl implements SubjectService {
     @Override
     @Transactional
     public Subject saveSubject(Subject subject) {
-        return subjectRepository.save(subject);
+        boolean created = subject.getId() == null;
+        Subject saved = subjectRepository.save(subject);
+        eventPublisher.publishEvent(created
+                ? EntityChangeEvent.created(Subject.class, saved.getId(), saved)
+                : EntityChangeEvent.updated(Subject.class, saved.getId(), saved));
+        return saved;
     }
 
     @Override
     @Transactional
     public void deleteSubject(Long id) {
-        // Cascade delete автоматически удалит все DisciplineGroup
         if (!subjectRepository.existsById(id)) {
             throw new RuntimeException("Subject not found with id: " + id);
         }
-        subjectRepository.deleteById(id);
+        // Bulk DELETE вместо orphanRemoval: коллекция disciplineGroups не загружается
+        lessonAttendanceRepository.bulkDeleteBySubjectId(id);
+        gradeRepository.bulkDeleteBySubjectId(id);
+        lessonRepository.bulkDeleteBySubjectId(id);
+        disciplineGroupRepository.bulkDeleteBySubjectId(id);
+        subjectRepository.bulkDeleteById(id);
+
+        eventPublisher.publishEvent(EntityChangeEvent.deleted(Subject.class, id, null));
     }
 }
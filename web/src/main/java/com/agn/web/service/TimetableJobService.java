@@ -0,0 +1,213 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.SemesterPlanRequest.WeekParity;
+import com.agn.web.dto.SemesterPlanRequest.WeeklySlot;
+import com.agn.web.dto.TimetableJobDTO;
+import com.agn.web.dto.TimetableRequest;
+import com.agn.web.entity.Lesson.LessonType;
+import com.agn.web.repository.DisciplineGroupRepository;
+import com.agn.web.timetable.TimetableProblem;
+import com.agn.web.timetable.TimetableSolution;
+import com.agn.web.timetable.TimetableSolver;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Background jobs that build a weekly timetable for all DisciplineGroup assignments of a semester
+ * with {@link TimetableSolver}. A job can be cancelled; it then finishes with the best timetable found so far.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimetableJobService {
+
+    private static final int DEFAULT_LESSON_MINUTES = 90;
+    private static final int DEFAULT_TIME_LIMIT_SECONDS = 30;
+    private static final int MAX_TIME_LIMIT_SECONDS = 600;
+    private static final int ACADEMIC_HOURS_PER_LESSON = 2;
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+
+    private final DisciplineGroupRepository disciplineGroupRepository;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // Решатель сам распараллеливается на все ядра, поэтому задания выполняются по одному
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "timetable-solver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TimetableJobDTO start(TimetableRequest request) {
+        Grid grid = validate(request);
+        TimetableProblem.Builder builder = TimetableProblem.builder(grid.days().size(), grid.periodStarts().size());
+        for (Object[] row : disciplineGroupRepository.findTimetableLoad(request.semester(), request.year())) {
+            builder.addLessons((Long) row[0], (Long) row[1], (Long) row[2], lessonsPerWeek((Integer) row[3]));
+        }
+        TimetableProblem problem = builder.build();
+        if (problem.eventCount() == 0) {
+            throw new IllegalArgumentException("Нет назначений на " + request.semester() + " семестр " + request.year() + " года");
+        }
+
+        purgeFinishedJobs();
+        Job job = new Job(UUID.randomUUID().toString(), request, grid, problem);
+        jobs.put(job.id, job);
+        executor.submit(() -> run(job));
+        return job.toDto();
+    }
+
+    public Optional<TimetableJobDTO> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toDto);
+    }
+
+    /**
+     * Asks the solver to stop; the job keeps the best timetable found before the request.
+     */
+    public Optional<TimetableJobDTO> cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        job.cancelled = true;
+        return Optional.of(job.toDto());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(job -> job.cancelled = true);
+        executor.shutdownNow();
+    }
+
+    private void run(Job job) {
+        if (job.cancelled) {
+            job.status = "CANCELLED";
+            job.finishedAt = LocalDateTime.now();
+            return;
+        }
+        job.status = "RUNNING";
+        try {
+            TimetableSolution solution = TimetableSolver.solve(job.problem, job.timeLimit,
+                    Runtime.getRuntime().availableProcessors(), System.nanoTime(), () -> job.cancelled);
+            job.solution = solution;
+            job.slots = toSlots(job, solution);
+            job.status = job.cancelled ? "CANCELLED" : "COMPLETED";
+            log.info("Timetable {} for semester {}/{}: {} lessons, {} hard violations, penalty {}, {} moves",
+                    job.id, job.semester, job.year, job.problem.eventCount(), solution.hardViolations(),
+                    solution.softPenalty(), solution.iterations());
+        } catch (RuntimeException e) {
+            log.error("Timetable job {} failed", job.id, e);
+            job.status = "FAILED";
+            job.error = e.getMessage();
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private static List<WeeklySlot> toSlots(Job job, TimetableSolution solution) {
+        TimetableProblem problem = job.problem;
+        List<WeeklySlot> slots = new ArrayList<>(problem.eventCount());
+        for (int e = 0; e < problem.eventCount(); e++) {
+            LocalTime start = job.grid.periodStarts().get(solution.period(e, problem));
+            slots.add(new WeeklySlot(problem.eventTag(e), job.grid.days().get(solution.day(e, problem)),
+                    start, start.plusMinutes(job.grid.lessonMinutes()), job.type, null, WeekParity.EVERY));
+        }
+        return slots;
+    }
+
+    /** Subject.credits — недельная нагрузка в академических часах, одна пара — два часа */
+    private static int lessonsPerWeek(Integer credits) {
+        if (credits == null || credits <= 0) {
+            return 1;
+        }
+        return (credits + ACADEMIC_HOURS_PER_LESSON - 1) / ACADEMIC_HOURS_PER_LESSON;
+    }
+
+    private static Grid validate(TimetableRequest request) {
+        if (request.semester() == null || request.year() == null) {
+            throw new IllegalArgumentException("Укажите семестр и год");
+        }
+        if (request.days() == null || request.days().isEmpty()
+                || request.days().stream().distinct().count() != request.days().size()) {
+            throw new IllegalArgumentException("Дни недели должны быть указаны без повторов");
+        }
+        if (request.periodStarts() == null || request.periodStarts().isEmpty()) {
+            throw new IllegalArgumentException("Укажите время начала пар");
+        }
+        int minutes = request.lessonMinutes() != null ? request.lessonMinutes() : DEFAULT_LESSON_MINUTES;
+        if (minutes <= 0) {
+            throw new IllegalArgumentException("Длительность пары должна быть положительной");
+        }
+        List<LocalTime> starts = request.periodStarts();
+        for (int i = 0; i < starts.size(); i++) {
+            LocalTime start = starts.get(i);
+            if (start == null || start.plusMinutes(minutes).isBefore(start)) {
+                throw new IllegalArgumentException("Пара должна заканчиваться в тот же день");
+            }
+            if (i > 0 && starts.get(i - 1).plusMinutes(minutes).isAfter(start)) {
+                throw new IllegalArgumentException("Пары не должны пересекаться: " + starts.get(i - 1) + " и " + start);
+            }
+        }
+        int seconds = request.timeLimitSeconds() != null ? request.timeLimitSeconds() : DEFAULT_TIME_LIMIT_SECONDS;
+        if (seconds <= 0 || seconds > MAX_TIME_LIMIT_SECONDS) {
+            throw new IllegalArgumentException("Лимит времени должен быть от 1 до " + MAX_TIME_LIMIT_SECONDS + " секунд");
+        }
+        return new Grid(List.copyOf(request.days()), List.copyOf(starts), minutes, Duration.ofSeconds(seconds));
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    private record Grid(List<DayOfWeek> days, List<LocalTime> periodStarts, int lessonMinutes, Duration timeLimit) {}
+
+    private static class Job {
+        final String id;
+        final Integer semester;
+        final Integer year;
+        final Grid grid;
+        final Duration timeLimit;
+        final LessonType type;
+        final TimetableProblem problem;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        volatile boolean cancelled;
+        volatile String status = "QUEUED";
+        volatile TimetableSolution solution;
+        volatile List<WeeklySlot> slots;
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        Job(String id, TimetableRequest request, Grid grid, TimetableProblem problem) {
+            this.id = id;
+            this.semester = request.semester();
+            this.year = request.year();
+            this.grid = grid;
+            this.timeLimit = grid.timeLimit();
+            this.type = request.type() != null ? request.type() : LessonType.LECTURE;
+            this.problem = problem;
+        }
+
+        TimetableJobDTO toDto() {
+            TimetableSolution result = solution;
+            return new TimetableJobDTO(id, semester, year, status, problem.eventCount(),
+                    result != null ? result.hardViolations() : null,
+                    result != null ? result.softPenalty() : null,
+                    result != null ? result.iterations() : null,
+                    startedAt, finishedAt, error, slots);
+        }
+    }
+}
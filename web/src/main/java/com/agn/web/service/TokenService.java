@@ -0,0 +1,185 @@
+package com.agn.web.service;
+
+import com.agn.web.entity.Role;
+import com.agn.web.entity.User;
+import com.agn.web.event.EntityChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and verifies self-contained HS256 tokens (compact JWT). Verification needs only the key and
+ * the in-memory revocation list, never the database.
+ */
+@Slf4j
+@Service
+public class TokenService {
+
+    public static final Duration ACCESS_TOKEN_TTL = Duration.ofMinutes(15);
+    public static final Duration REFRESH_TOKEN_TTL = Duration.ofHours(12);
+
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String HEADER =
+            ENCODER.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    public enum TokenType {
+        ACCESS, REFRESH
+    }
+
+    /**
+     * Verified token contents; used as the principal of authenticated API requests.
+     */
+    public record TokenClaims(String id, Long userId, String username, Role role, TokenType type, Instant expiresAt) {
+    }
+
+    public record TokenPair(String accessToken, String refreshToken, long expiresIn) {
+    }
+
+    // Поля полезной нагрузки в том виде, в каком они лежат в токене
+    private record Payload(String jti, Long uid, String sub, String role, String typ, long iat, long exp) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    // jti -> срок действия; после него запись больше не нужна
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    // userId -> токены, выданные не позже этой секунды, недействительны (смена роли, удаление)
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    public TokenService(ObjectMapper objectMapper, @Value("${auth.token.secret:}") String secret) {
+        this.objectMapper = objectMapper;
+        byte[] secretBytes;
+        if (secret.isBlank()) {
+            secretBytes = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(secretBytes);
+            log.warn("auth.token.secret is not set; using a random key, tokens will not survive a restart");
+        } else {
+            secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (secretBytes.length < MIN_SECRET_BYTES) {
+                throw new IllegalStateException("auth.token.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+            }
+        }
+        this.key = new SecretKeySpec(secretBytes, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public TokenPair issue(User user) {
+        return issue(user.getId(), user.getUsername(), user.getRole());
+    }
+
+    public TokenPair issue(Long userId, String username, Role role) {
+        Instant now = Instant.now();
+        String access = sign(userId, username, role, TokenType.ACCESS, now, ACCESS_TOKEN_TTL);
+        String refresh = sign(userId, username, role, TokenType.REFRESH, now, REFRESH_TOKEN_TTL);
+        return new TokenPair(access, refresh, ACCESS_TOKEN_TTL.toSeconds());
+    }
+
+    /**
+     * Checks signature, type, expiry and revocation. Any malformed token is simply not valid.
+     */
+    public Optional<TokenClaims> verify(String token, TokenType expectedType) {
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot || !token.startsWith(HEADER + ".")) {
+            return Optional.empty();
+        }
+        try {
+            byte[] expected = macs.get().doFinal(token.substring(0, lastDot).getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(expected, DECODER.decode(token.substring(lastDot + 1)))) {
+                return Optional.empty();
+            }
+            Payload payload = objectMapper.readValue(DECODER.decode(token.substring(firstDot + 1, lastDot)), Payload.class);
+            long now = Instant.now().getEpochSecond();
+            if (payload.jti() == null || payload.uid() == null || payload.role() == null
+                    || payload.exp() <= now || !expectedType.name().equals(payload.typ())
+                    || revokedTokens.containsKey(payload.jti())
+                    || payload.iat() <= revokedBefore.getOrDefault(payload.uid(), Long.MIN_VALUE)) {
+                return Optional.empty();
+            }
+            return Optional.of(new TokenClaims(payload.jti(), payload.uid(), payload.sub(), Role.valueOf(payload.role()),
+                    expectedType, Instant.ofEpochSecond(payload.exp())));
+        } catch (IOException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public void revoke(TokenClaims claims) {
+        revokedTokens.put(claims.id(), claims.expiresAt());
+    }
+
+    /**
+     * Invalidates every token issued to the user so far; the next login gets a fresh role claim.
+     */
+    public void revokeAll(Long userId) {
+        revokedBefore.put(userId, Instant.now().getEpochSecond());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.isAbout(User.class) && event.id() != null
+                && (event.changeType() == EntityChangeEvent.ChangeType.UPDATED
+                || event.changeType() == EntityChangeEvent.ChangeType.DELETED)) {
+            revokeAll(event.id());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.purge-interval:PT10M}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        // Все токены, выданные до отметки, к этому времени уже истекли
+        long horizon = now.minus(REFRESH_TOKEN_TTL).getEpochSecond();
+        revokedBefore.values().removeIf(cutoff -> cutoff < horizon);
+    }
+
+    private String sign(Long userId, String username, Role role, TokenType type, Instant now, Duration ttl) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("jti", UUID.randomUUID().toString());
+        payload.put("uid", userId);
+        payload.put("sub", username);
+        payload.put("role", role.name());
+        payload.put("typ", type.name());
+        payload.put("iat", now.getEpochSecond());
+        payload.put("exp", now.plus(ttl).getEpochSecond());
+        try {
+            String unsigned = HEADER + "." + ENCODER.encodeToString(objectMapper.writeValueAsBytes(payload));
+            return unsigned + "." + ENCODER.encodeToString(macs.get().doFinal(unsigned.getBytes(StandardCharsets.US_ASCII)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize token payload", e);
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
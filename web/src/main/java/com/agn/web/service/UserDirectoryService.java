@@ -0,0 +1,99 @@
+package com.agn.web.service;
+
+import com.agn.web.config.CacheConfig;
+import com.agn.web.dto.UserDirectoryPage;
+import com.agn.web.dto.UserSummaryDTO;
+import com.agn.web.entity.Role;
+import com.agn.web.entity.User;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Teacher and student pickers. Each role's directory is one projection query, sorted once and cached
+ * until any user changes; paging and the name-prefix filter work on the cached list.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserDirectoryService {
+
+    private static final Comparator<UserSummaryDTO> ORDER = Comparator
+            .comparing(UserSummaryDTO::lastName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(UserSummaryDTO::firstName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(UserSummaryDTO::id);
+
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    /**
+     * Users of the role ordered by last name, first name and id. A non-blank {@code prefix} keeps users whose
+     * last name, first name or username starts with it, ignoring case.
+     */
+    public UserDirectoryPage getPage(Role role, String prefix, int offset, int limit) {
+        Directory directory = directory(role);
+        String needle = prefix != null ? prefix.trim().toLowerCase(Locale.ROOT) : "";
+        List<UserSummaryDTO> items = new ArrayList<>(Math.min(limit, directory.users().size()));
+        int matched = 0;
+        for (int i = 0; i < directory.users().size(); i++) {
+            if (!needle.isEmpty() && !directory.matches(i, needle)) {
+                continue;
+            }
+            if (matched >= offset && items.size() < limit) {
+                items.add(directory.users().get(i));
+            }
+            matched++;
+        }
+        return new UserDirectoryPage(items, matched);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.isAbout(User.class)) {
+            Cache cache = cacheManager.getCache(CacheConfig.USER_DIRECTORY);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private Directory directory(Role role) {
+        Cache cache = cacheManager.getCache(CacheConfig.USER_DIRECTORY);
+        return cache != null ? cache.get(role, () -> load(role)) : load(role);
+    }
+
+    private Directory load(Role role) {
+        List<UserSummaryDTO> users = new ArrayList<>(userRepository.findSummariesByRole(role));
+        users.sort(ORDER);
+        // Ключи поиска в нижнем регистре считаем один раз при загрузке, а не на каждый запрос
+        String[][] keys = new String[users.size()][];
+        for (int i = 0; i < users.size(); i++) {
+            UserSummaryDTO user = users.get(i);
+            keys[i] = new String[]{lower(user.lastName()), lower(user.firstName()), lower(user.username())};
+        }
+        return new Directory(List.copyOf(users), keys);
+    }
+
+    private static String lower(String s) {
+        return s != null ? s.toLowerCase(Locale.ROOT) : "";
+    }
+
+    private record Directory(List<UserSummaryDTO> users, String[][] keys) {
+        boolean matches(int index, String prefix) {
+            for (String key : keys[index]) {
+                if (key.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
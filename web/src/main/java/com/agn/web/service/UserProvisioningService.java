@@ -0,0 +1,14 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.ProvisionedCredentialDTO;
+import com.agn.web.dto.UserProvisioningRequest;
+
+import java.util.List;
+
+public interface UserProvisioningService {
+    /**
+     * Creates accounts for a whole roster in one transaction and returns the generated credentials.
+     * Raw passwords exist only in the returned sheet.
+     */
+    List<ProvisionedCredentialDTO> provision(UserProvisioningRequest request);
+}
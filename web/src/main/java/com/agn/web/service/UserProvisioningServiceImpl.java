@@ -0,0 +1,149 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.ProvisionedCredentialDTO;
+import com.agn.web.dto.UserProvisioningRequest;
+import com.agn.web.dto.UserProvisioningRequest.Person;
+import com.agn.web.entity.Role;
+import com.agn.web.entity.User;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.repository.GroupRepository;
+import com.agn.web.repository.StudentRepository;
+import com.agn.web.util.CredentialsGenerator;
+import com.agn.web.util.CredentialsGenerator.GeneratedCredentials;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.stream.IntStream;
+
+@Service
+@RequiredArgsConstructor
+public class UserProvisioningServiceImpl implements UserProvisioningService {
+
+    private static final int MAX_ACCOUNTS = 10_000;
+    private static final int BATCH_SIZE = 500;
+    // Стартовые пароли временные: хэш cost 8 в 4 раза дешевле стандартного 10 и при первом входе
+    // перехэшируется с полной стойкостью (см. CustomUserDetailsService.updatePassword)
+    private static final int INITIAL_BCRYPT_STRENGTH = 8;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO users (username, password, first_name, last_name, role) VALUES (?, ?, ?, ?, ?)";
+    private static final int[] INSERT_TYPES = {Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR};
+
+    private final UsernameAllocator usernameAllocator;
+    private final StudentRepository studentRepository;
+    private final GroupRepository groupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final BCryptPasswordEncoder initialEncoder = new BCryptPasswordEncoder(INITIAL_BCRYPT_STRENGTH);
+    private final ForkJoinPool hashingPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    // Один прогон за раз: он занимает все ядра
+    private final Semaphore running = new Semaphore(1);
+
+    @Override
+    @Transactional
+    public List<ProvisionedCredentialDTO> provision(UserProvisioningRequest request) {
+        List<Entry> entries = roster(request);
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("Пустой список пользователей");
+        }
+        if (entries.size() > MAX_ACCOUNTS) {
+            throw new IllegalArgumentException("Не больше " + MAX_ACCOUNTS + " пользователей за раз");
+        }
+        Role role = request.role() != null ? request.role() : Role.STUDENT;
+        if (!running.tryAcquire()) {
+            throw new TooManyRequestsException("Создание учётных записей уже выполняется");
+        }
+        try {
+            List<GeneratedCredentials> credentials = entries.stream()
+                    .map(entry -> CredentialsGenerator.generate(entry.firstName(), entry.lastName()))
+                    .toList();
+            List<String> usernames = credentials.stream()
+                    .map(generated -> usernameAllocator.allocate(generated.getUsername()))
+                    .toList();
+            try {
+                List<String> hashes = hashAll(credentials);
+                List<Object[]> batch = new ArrayList<>(Math.min(entries.size(), BATCH_SIZE));
+                List<ProvisionedCredentialDTO> sheet = new ArrayList<>(entries.size());
+                for (int i = 0; i < entries.size(); i++) {
+                    Entry entry = entries.get(i);
+                    batch.add(new Object[]{usernames.get(i), hashes.get(i), entry.firstName(), entry.lastName(), role.name()});
+                    sheet.add(new ProvisionedCredentialDTO(entry.studentId(), entry.lastName(), entry.firstName(),
+                            usernames.get(i), credentials.get(i).getPassword(), role.name()));
+                    if (batch.size() == BATCH_SIZE) {
+                        jdbcTemplate.batchUpdate(INSERT_SQL, batch, INSERT_TYPES);
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, INSERT_TYPES);
+                }
+                eventPublisher.publishEvent(EntityChangeEvent.bulk(User.class));
+                return sheet;
+            } catch (RuntimeException e) {
+                // Транзакция откатится — логины можно отдать снова
+                usernames.forEach(usernameAllocator::release);
+                throw e;
+            }
+        } finally {
+            running.release();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    private List<Entry> roster(UserProvisioningRequest request) {
+        if (request.groupId() != null) {
+            if (!groupRepository.existsById(request.groupId())) {
+                throw new RuntimeException("Group not found");
+            }
+            return studentRepository.findByGroupId(request.groupId()).stream()
+                    .map(student -> new Entry(student.getId(), student.getFirstName(), student.getLastName()))
+                    .toList();
+        }
+        if (request.people() == null) {
+            return List.of();
+        }
+        List<Entry> entries = new ArrayList<>(request.people().size());
+        for (Person person : request.people()) {
+            if (person == null || isBlank(person.firstName()) || isBlank(person.lastName())) {
+                throw new IllegalArgumentException("У каждого пользователя должны быть имя и фамилия");
+            }
+            entries.add(new Entry(null, person.firstName().trim(), person.lastName().trim()));
+        }
+        return entries;
+    }
+
+    private List<String> hashAll(List<GeneratedCredentials> credentials) {
+        try {
+            return hashingPool.submit(() -> IntStream.range(0, credentials.size()).parallel()
+                    .mapToObj(i -> initialEncoder.encode(credentials.get(i).getPassword()))
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    private record Entry(Long studentId, String firstName, String lastName) {}
+}
@@ -10,6 +10,12 @@ public interface UserService {
      */
     UserDTO createUser(UserDTO userDTO);
 
+    /**
+     * Updates the non-null fields of an existing user; a non-blank password is re-hashed.
+     * The returned DTO carries no password.
+     */
+    UserDTO updateUser(Long id, UserDTO userDTO);
+
     /**
      * Generates a username and raw password from firstName and lastName.
      */
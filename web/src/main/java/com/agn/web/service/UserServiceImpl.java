@@ -2,10 +2,12 @@ package com.agn.web.service;
 
 import com.agn.web.dto.UserDTO;
 import com.agn.web.entity.User;
+import com.agn.web.event.EntityChangeEvent;
 import com.agn.web.repository.UserRepository;
 import com.agn.web.util.CredentialsGenerator;
 import com.agn.web.util.CredentialsGenerator.GeneratedCredentials;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -15,31 +17,88 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CustomUserDetailsService userDetailsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UsernameAllocator usernameAllocator;
 
     @Override
     public UserDTO createUser(UserDTO userDTO) {
         // Если логин или пароль не заданы – генерируем их из ФИО
         if (isBlank(userDTO.getUsername()) || isBlank(userDTO.getPassword())) {
-            GeneratedCredentials creds = generateCredentials(userDTO.getFirstName(), userDTO.getLastName());
-            userDTO.setGeneratedUsername(creds.getUsername());
+            GeneratedCredentials creds = CredentialsGenerator.generate(userDTO.getFirstName(), userDTO.getLastName());
+            String username = usernameAllocator.allocate(creds.getUsername());
+            userDTO.setGeneratedUsername(username);
             userDTO.setGeneratedPassword(creds.getPassword());
-            userDTO.setUsername(creds.getUsername());
+            userDTO.setUsername(username);
             userDTO.setPassword(creds.getPassword());
+        } else if (!usernameAllocator.claim(userDTO.getUsername())) {
+            throw new IllegalArgumentException("Логин уже занят: " + userDTO.getUsername());
         }
-        // Создаём сущность User
+        // Создаём сущность User; логин уже занят за нами, поэтому и отказ пула хэширования (429) его освобождает
         User user = new User();
         user.setUsername(userDTO.getUsername());
-        user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
-        user.setFirstName(userDTO.getFirstName());
-        user.setLastName(userDTO.getLastName());
-        user.setRole(userDTO.getRole() != null ? userDTO.getRole() : com.agn.web.entity.Role.ADMIN);
-        userRepository.save(user);
+        try {
+            user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+            user.setFirstName(userDTO.getFirstName());
+            user.setLastName(userDTO.getLastName());
+            user.setRole(userDTO.getRole() != null ? userDTO.getRole() : com.agn.web.entity.Role.STUDENT);
+            userRepository.save(user);
+        } catch (RuntimeException e) {
+            usernameAllocator.release(user.getUsername());
+            throw e;
+        }
+        userDetailsService.evict(user.getUsername());
+        eventPublisher.publishEvent(EntityChangeEvent.created(User.class, user.getId(), user));
         return userDTO;
     }
 
+    @Override
+    public UserDTO updateUser(Long id, UserDTO userDTO) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        String oldUsername = user.getUsername();
+        // Хэшируем до захвата нового логина: отказ пула хэширования (429) не должен оставить его занятым
+        String password = !isBlank(userDTO.getPassword()) ? passwordEncoder.encode(userDTO.getPassword()) : null;
+        if (!isBlank(userDTO.getUsername()) && !userDTO.getUsername().equals(oldUsername)) {
+            if (!usernameAllocator.claim(userDTO.getUsername())) {
+                throw new IllegalArgumentException("Логин уже занят: " + userDTO.getUsername());
+            }
+            user.setUsername(userDTO.getUsername());
+        }
+        if (password != null) {
+            user.setPassword(password);
+        }
+        if (userDTO.getFirstName() != null) {
+            user.setFirstName(userDTO.getFirstName());
+        }
+        if (userDTO.getLastName() != null) {
+            user.setLastName(userDTO.getLastName());
+        }
+        if (userDTO.getRole() != null) {
+            user.setRole(userDTO.getRole());
+        }
+        try {
+            userRepository.save(user);
+        } catch (RuntimeException e) {
+            if (!user.getUsername().equals(oldUsername)) {
+                usernameAllocator.release(user.getUsername());
+            }
+            throw e;
+        }
+        if (!user.getUsername().equals(oldUsername)) {
+            usernameAllocator.release(oldUsername);
+        }
+        // Старый логин тоже: иначе по нему ещё можно войти до истечения TTL
+        userDetailsService.evict(oldUsername, user.getUsername());
+        eventPublisher.publishEvent(EntityChangeEvent.updated(User.class, user.getId(), user));
+        return new UserDTO(user.getUsername(), null, user.getFirstName(), user.getLastName(), null, null, user.getRole());
+    }
+
     @Override
     public GeneratedCredentials generateCredentials(String firstName, String lastName) {
-        return CredentialsGenerator.generate(firstName, lastName);
+        // Только подсказка: логин не резервируется, при создании может достаться следующий номер
+        GeneratedCredentials creds = CredentialsGenerator.generate(firstName, lastName);
+        return new GeneratedCredentials(usernameAllocator.suggest(creds.getUsername()), creds.getPassword());
     }
 
     private boolean isBlank(String s) {
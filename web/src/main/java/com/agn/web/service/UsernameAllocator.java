@@ -0,0 +1,144 @@
+package com.agn.web.service;
+
+import com.agn.web.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out unique usernames without touching the database: all taken names are kept in memory,
+ * and for every base name ({@code ivan.petrov}) the next free numeric suffix is remembered, so
+ * namesakes get {@code ivan.petrov2}, {@code ivan.petrov3}, ... in O(1). Allocations of the same base
+ * are serialized by one of {@link #STRIPES} locks; the final claim is an atomic set insert, so different
+ * bases that happen to produce the same name cannot both get it.
+ * <p>
+ * A name stays reserved even if the transaction that wanted it rolls back, unless it is {@link #release}d.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UsernameAllocator {
+
+    private static final int STRIPES = 64;
+    // Длиннее — уже не номер тёзки, а часть логина
+    private static final int MAX_SUFFIX_DIGITS = 6;
+
+    private final UserRepository userRepository;
+
+    private final Set<String> taken = ConcurrentHashMap.newKeySet();
+    // база -> следующий суффикс, с которого искать; меняется только под замком полосы базы
+    private final Map<String, Integer> nextSuffix = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = newLocks();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        ensureLoaded();
+    }
+
+    /**
+     * Reserves {@code base} itself or, if it is taken, {@code base + n} with the smallest free n &ge; 2
+     * seen so far.
+     */
+    public String allocate(String base) {
+        ensureLoaded();
+        ReentrantLock lock = lockFor(base);
+        lock.lock();
+        try {
+            if (taken.add(base)) {
+                return base;
+            }
+            int suffix = nextSuffix.getOrDefault(base, 2);
+            while (!taken.add(base + suffix)) {
+                suffix++;
+            }
+            nextSuffix.put(base, suffix + 1);
+            return base + suffix;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A free name for preview; nothing is reserved, so a later {@link #allocate} may return another one.
+     */
+    public String suggest(String base) {
+        ensureLoaded();
+        if (!taken.contains(base)) {
+            return base;
+        }
+        int suffix = nextSuffix.getOrDefault(base, 2);
+        while (taken.contains(base + suffix)) {
+            suffix++;
+        }
+        return base + suffix;
+    }
+
+    /**
+     * Reserves an explicitly chosen name.
+     *
+     * @return false if the name is already taken
+     */
+    public boolean claim(String username) {
+        ensureLoaded();
+        return taken.add(username);
+    }
+
+    public void release(String username) {
+        if (username != null) {
+            taken.remove(username);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            List<String> usernames = userRepository.findAllUsernames();
+            for (String username : usernames) {
+                taken.add(username);
+                rememberSuffix(username);
+            }
+            loaded = true;
+            log.info("Username index loaded: {} names", usernames.size());
+        }
+    }
+
+    /** По существующему ivan.petrov7 следующему тёзке сразу достаётся 8, без перебора 2..7 */
+    private void rememberSuffix(String username) {
+        int digitsStart = username.length();
+        while (digitsStart > 0 && Character.isDigit(username.charAt(digitsStart - 1))) {
+            digitsStart--;
+        }
+        int digits = username.length() - digitsStart;
+        if (digits == 0 || digits > MAX_SUFFIX_DIGITS || digitsStart == 0) {
+            return;
+        }
+        int suffix = Integer.parseInt(username.substring(digitsStart));
+        nextSuffix.merge(username.substring(0, digitsStart), Math.max(suffix + 1, 2), Math::max);
+    }
+
+    private static ReentrantLock[] newLocks() {
+        ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private ReentrantLock lockFor(String base) {
+        return locks[(base.hashCode() & Integer.MAX_VALUE) % STRIPES];
+    }
+}
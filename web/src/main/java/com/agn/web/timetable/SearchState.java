@@ -0,0 +1,222 @@
+package com.agn.web.timetable;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Mutable per-thread search state. Everything is preallocated in the constructor; the annealing loop
+ * only updates int arrays, so it does not allocate.
+ */
+final class SearchState {
+
+    static final long HARD_WEIGHT = 10_000;
+    static final int GAP_WEIGHT = 3;
+    static final int BALANCE_WEIGHT = 1;
+
+    private static final int CLOCK_CHECK_MASK = 1023;
+    private static final int CONFLICT_SAMPLES = 16;
+
+    private final TimetableProblem problem;
+    private final int slots;
+    private final int periods;
+    private final int days;
+    private final SplittableRandom random;
+
+    final int[] slot;
+    private final int[] groupOcc;    // group * slots + slot -> занятий группы в слоте
+    private final int[] teacherOcc;  // teacher * slots + slot
+    private final int[] groupDay;    // group * days + day -> занятий группы за день
+    final int[] bestSlot;
+    int hard;
+    long soft;
+    int bestHard;
+    long bestSoft;
+    long iterations;
+
+    SearchState(TimetableProblem problem, long seed) {
+        this.problem = problem;
+        this.slots = problem.slots;
+        this.periods = problem.periodsPerDay;
+        this.days = problem.days;
+        this.random = new SplittableRandom(seed);
+        int events = problem.eventCount();
+        this.slot = new int[events];
+        this.bestSlot = new int[events];
+        this.groupOcc = new int[problem.groupCount * slots];
+        this.teacherOcc = new int[Math.max(problem.teacherCount, 1) * slots];
+        this.groupDay = new int[problem.groupCount * days];
+    }
+
+    void randomize() {
+        clear();
+        for (int e = 0; e < slot.length; e++) {
+            place(e, random.nextInt(slots));
+        }
+        recomputeSoft();
+        saveBest();
+    }
+
+    /**
+     * Starts from {@code start}, moving {@code kicks} random events to random slots to diversify restarts.
+     */
+    void load(int[] start, int kicks) {
+        clear();
+        for (int e = 0; e < slot.length; e++) {
+            place(e, start[e]);
+        }
+        for (int i = 0; i < kicks && slot.length > 0; i++) {
+            int e = random.nextInt(slot.length);
+            unplace(e);
+            place(e, random.nextInt(slots));
+        }
+        recomputeSoft();
+        saveBest();
+    }
+
+    /**
+     * Simulated annealing until the deadline or cancellation; the temperature falls from {@code startTemperature}
+     * towards zero as the deadline approaches.
+     */
+    void anneal(long startNanos, long deadlineNanos, double startTemperature, BooleanSupplier cancelled) {
+        if (slot.length == 0 || slots < 2) {
+            return;
+        }
+        long bestCost = cost(bestHard, bestSoft);
+        double temperature = startTemperature;
+        double span = Math.max(1, deadlineNanos - startNanos);
+        for (long i = 0; ; i++) {
+            if ((i & CLOCK_CHECK_MASK) == 0) {
+                long now = System.nanoTime();
+                if (now >= deadlineNanos || cancelled.getAsBoolean()) {
+                    iterations += i;
+                    return;
+                }
+                double left = 1.0 - (now - startNanos) / span;
+                temperature = startTemperature * left * left + 0.01;
+            }
+            int e = pickEvent();
+            int from = slot[e];
+            int to = random.nextInt(slots - 1);
+            if (to >= from) {
+                to++;
+            }
+            long delta = move(e, to);
+            if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                long cost = cost(hard, soft);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    saveBest();
+                }
+            } else {
+                move(e, from);
+            }
+        }
+    }
+
+    private int pickEvent() {
+        // Пока есть накладки, чаще двигаем конфликтующие занятия
+        if (hard > 0 && random.nextInt(4) != 0) {
+            for (int i = 0; i < CONFLICT_SAMPLES; i++) {
+                int e = random.nextInt(slot.length);
+                if (isConflicted(e)) {
+                    return e;
+                }
+            }
+        }
+        return random.nextInt(slot.length);
+    }
+
+    private boolean isConflicted(int e) {
+        int t = problem.eventTeacher[e];
+        return groupOcc[problem.eventGroup[e] * slots + slot[e]] > 1
+                || (t >= 0 && teacherOcc[t * slots + slot[e]] > 1);
+    }
+
+    /** Переносит занятие и возвращает изменение стоимости; ход остаётся применённым */
+    private long move(int e, int to) {
+        int g = problem.eventGroup[e];
+        int dayFrom = slot[e] / periods;
+        int dayTo = to / periods;
+        long softBefore = dayPenalty(g, dayFrom) + (dayTo != dayFrom ? dayPenalty(g, dayTo) : 0);
+        int hardBefore = hard;
+        unplace(e);
+        place(e, to);
+        long softAfter = dayPenalty(g, dayFrom) + (dayTo != dayFrom ? dayPenalty(g, dayTo) : 0);
+        soft += softAfter - softBefore;
+        return (hard - hardBefore) * HARD_WEIGHT + softAfter - softBefore;
+    }
+
+    private void place(int e, int s) {
+        slot[e] = s;
+        int g = problem.eventGroup[e];
+        if (groupOcc[g * slots + s]++ > 0) {
+            hard++;
+        }
+        int t = problem.eventTeacher[e];
+        if (t >= 0 && teacherOcc[t * slots + s]++ > 0) {
+            hard++;
+        }
+        groupDay[g * days + s / periods]++;
+    }
+
+    private void unplace(int e) {
+        int s = slot[e];
+        int g = problem.eventGroup[e];
+        if (--groupOcc[g * slots + s] > 0) {
+            hard--;
+        }
+        int t = problem.eventTeacher[e];
+        if (t >= 0 && --teacherOcc[t * slots + s] > 0) {
+            hard--;
+        }
+        groupDay[g * days + s / periods]--;
+    }
+
+    /** Окна между парами группы за день плюс квадрат нагрузки дня (минимален при равномерном распределении) */
+    private long dayPenalty(int g, int day) {
+        int base = g * slots + day * periods;
+        int first = -1;
+        int last = -1;
+        int occupied = 0;
+        for (int p = 0; p < periods; p++) {
+            if (groupOcc[base + p] > 0) {
+                if (first < 0) {
+                    first = p;
+                }
+                last = p;
+                occupied++;
+            }
+        }
+        int gaps = first < 0 ? 0 : last - first + 1 - occupied;
+        long load = groupDay[g * days + day];
+        return GAP_WEIGHT * gaps + BALANCE_WEIGHT * load * load;
+    }
+
+    private void recomputeSoft() {
+        soft = 0;
+        for (int g = 0; g < problem.groupCount; g++) {
+            for (int d = 0; d < days; d++) {
+                soft += dayPenalty(g, d);
+            }
+        }
+    }
+
+    private void saveBest() {
+        System.arraycopy(slot, 0, bestSlot, 0, slot.length);
+        bestHard = hard;
+        bestSoft = soft;
+    }
+
+    private void clear() {
+        Arrays.fill(groupOcc, 0);
+        Arrays.fill(teacherOcc, 0);
+        Arrays.fill(groupDay, 0);
+        hard = 0;
+        soft = 0;
+    }
+
+    static long cost(int hard, long soft) {
+        return hard * HARD_WEIGHT + soft;
+    }
+}
@@ -0,0 +1,101 @@
+package com.agn.web.timetable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Weekly timetabling instance: a set of lesson events, each belonging to a group and optionally a teacher,
+ * to be placed into {@code days * periodsPerDay} slots. Groups and teachers are mapped to dense indices
+ * so the solver works on flat int arrays.
+ */
+public final class TimetableProblem {
+
+    final int days;
+    final int periodsPerDay;
+    final int slots;
+    final int groupCount;
+    final int teacherCount;
+    final int[] eventGroup;
+    final int[] eventTeacher;  // -1 — преподаватель не назначен
+    final long[] eventTag;
+
+    private TimetableProblem(Builder builder) {
+        this.days = builder.days;
+        this.periodsPerDay = builder.periodsPerDay;
+        this.slots = days * periodsPerDay;
+        this.groupCount = builder.groups.size();
+        this.teacherCount = builder.teachers.size();
+        this.eventGroup = Arrays.copyOf(builder.eventGroup, builder.size);
+        this.eventTeacher = Arrays.copyOf(builder.eventTeacher, builder.size);
+        this.eventTag = Arrays.copyOf(builder.eventTag, builder.size);
+    }
+
+    public static Builder builder(int days, int periodsPerDay) {
+        if (days < 1 || periodsPerDay < 1) {
+            throw new IllegalArgumentException("Сетка расписания должна быть непустой");
+        }
+        return new Builder(days, periodsPerDay);
+    }
+
+    public int eventCount() {
+        return eventGroup.length;
+    }
+
+    public int days() {
+        return days;
+    }
+
+    public int periodsPerDay() {
+        return periodsPerDay;
+    }
+
+    /**
+     * The caller's identifier of the event, e.g. the DisciplineGroup id it was created for.
+     */
+    public long eventTag(int event) {
+        return eventTag[event];
+    }
+
+    public static final class Builder {
+        private final int days;
+        private final int periodsPerDay;
+        private final Map<Long, Integer> groups = new HashMap<>();
+        private final Map<Long, Integer> teachers = new HashMap<>();
+        private int[] eventGroup = new int[64];
+        private int[] eventTeacher = new int[64];
+        private long[] eventTag = new long[64];
+        private int size;
+
+        private Builder(int days, int periodsPerDay) {
+            this.days = days;
+            this.periodsPerDay = periodsPerDay;
+        }
+
+        /**
+         * Adds {@code perWeek} identical events.
+         *
+         * @param teacherId null when no teacher is assigned yet
+         */
+        public Builder addLessons(long tag, long groupId, Long teacherId, int perWeek) {
+            int group = groups.computeIfAbsent(groupId, id -> groups.size());
+            int teacher = teacherId != null ? teachers.computeIfAbsent(teacherId, id -> teachers.size()) : -1;
+            for (int i = 0; i < perWeek; i++) {
+                if (size == eventGroup.length) {
+                    eventGroup = Arrays.copyOf(eventGroup, size * 2);
+                    eventTeacher = Arrays.copyOf(eventTeacher, size * 2);
+                    eventTag = Arrays.copyOf(eventTag, size * 2);
+                }
+                eventGroup[size] = group;
+                eventTeacher[size] = teacher;
+                eventTag[size] = tag;
+                size++;
+            }
+            return this;
+        }
+
+        public TimetableProblem build() {
+            return new TimetableProblem(this);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.agn.web.timetable;
+
+/**
+ * Best assignment found by {@link TimetableSolver}.
+ *
+ * @param slotOfEvent    slot index per event; day = slot / periodsPerDay, period = slot % periodsPerDay
+ * @param hardViolations double-booked (group, slot) and (teacher, slot) pairs; 0 means a valid timetable
+ * @param softPenalty    weighted gaps between lessons plus day-load imbalance; lower is better
+ * @param iterations     moves evaluated by all threads together
+ */
+public record TimetableSolution(int[] slotOfEvent, int hardViolations, long softPenalty, long iterations) {
+
+    public int day(int event, TimetableProblem problem) {
+        return slotOfEvent[event] / problem.periodsPerDay;
+    }
+
+    public int period(int event, TimetableProblem problem) {
+        return slotOfEvent[event] % problem.periodsPerDay;
+    }
+}
@@ -0,0 +1,114 @@
+package com.agn.web.timetable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Local-search timetable solver. The time budget is split into rounds; in every round each worker of a
+ * fork-join pool runs simulated annealing from its own start (random in the first round, a perturbed
+ * copy of the best timetable so far afterwards), and the best result survives into the next round.
+ * Hard constraint: no group or teacher has two lessons in the same slot. Soft: fewer gaps, even days.
+ */
+public final class TimetableSolver {
+
+    private static final int ROUNDS = 4;
+    private static final double FIRST_ROUND_TEMPERATURE = 20.0;
+    private static final double LATER_ROUND_TEMPERATURE = 4.0;
+    private static final double KICK_RATIO = 0.02;
+
+    private TimetableSolver() {
+    }
+
+    public static TimetableSolution solve(TimetableProblem problem, Duration budget, int parallelism,
+                                          long seed, BooleanSupplier cancelled) {
+        int threads = Math.max(1, parallelism);
+        long start = System.nanoTime();
+        long budgetNanos = Math.max(budget.toNanos(), 1);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            int[] best = null;
+            long bestCost = Long.MAX_VALUE;
+            int bestHard = 0;
+            long bestSoft = 0;
+            long iterations = 0;
+            for (int round = 0; round < ROUNDS && !cancelled.getAsBoolean(); round++) {
+                long roundStart = System.nanoTime();
+                long roundDeadline = start + budgetNanos * (round + 1) / ROUNDS;
+                List<Restart> restarts = new ArrayList<>(threads);
+                for (int i = 0; i < threads; i++) {
+                    // Первый поток раунда продолжает лучшее решение как есть, остальные — со встряской
+                    int kicks = i == 0 ? 0 : (int) Math.ceil(problem.eventCount() * KICK_RATIO);
+                    restarts.add(new Restart(problem, seed + round * 7919L + i, best, kicks, roundStart, roundDeadline,
+                            round == 0 ? FIRST_ROUND_TEMPERATURE : LATER_ROUND_TEMPERATURE, cancelled));
+                }
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        ForkJoinTask.invokeAll(restarts);
+                    }
+                });
+                for (Restart restart : restarts) {
+                    SearchState state = restart.join();
+                    iterations += state.iterations;
+                    long cost = SearchState.cost(state.bestHard, state.bestSoft);
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        best = state.bestSlot.clone();
+                        bestHard = state.bestHard;
+                        bestSoft = state.bestSoft;
+                    }
+                }
+            }
+            if (best == null) {
+                // Отменили до первого раунда — отдаём случайное размещение
+                SearchState state = new SearchState(problem, seed);
+                state.randomize();
+                return new TimetableSolution(state.bestSlot, state.bestHard, state.bestSoft, 0);
+            }
+            return new TimetableSolution(best, bestHard, bestSoft, iterations);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static final class Restart extends RecursiveTask<SearchState> {
+        private final TimetableProblem problem;
+        private final long seed;
+        private final int[] start;
+        private final int kicks;
+        private final long startNanos;
+        private final long deadlineNanos;
+        private final double temperature;
+        private final BooleanSupplier cancelled;
+
+        Restart(TimetableProblem problem, long seed, int[] start, int kicks, long startNanos, long deadlineNanos,
+                double temperature, BooleanSupplier cancelled) {
+            this.problem = problem;
+            this.seed = seed;
+            this.start = start;
+            this.kicks = kicks;
+            this.startNanos = startNanos;
+            this.deadlineNanos = deadlineNanos;
+            this.temperature = temperature;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected SearchState compute() {
+            SearchState state = new SearchState(problem, seed);
+            if (start == null) {
+                state.randomize();
+            } else {
+                state.load(start, kicks);
+            }
+            state.anneal(startNanos, deadlineNanos, temperature, cancelled);
+            return state;
+        }
+    }
+}
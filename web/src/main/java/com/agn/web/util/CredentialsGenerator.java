@@ -1,24 +1,34 @@
 package com.agn.web.util;
 
-import java.util.Random;
+import java.security.SecureRandom;
 
 public class CredentialsGenerator {
 
-    private static final Random RANDOM = new Random();
+    private static final SecureRandom RANDOM = new SecureRandom();
+    // Без похожих символов (0/O, 1/l/I), чтобы пароль с распечатки вводился без ошибок
+    private static final char[] PASSWORD_ALPHABET = "abcdefghijkmnpqrstuvwxyzABCDEFGHJKLMNPQRSTUVWXYZ23456789".toCharArray();
+    private static final int PASSWORD_LENGTH = 12;
 
     /**
-     * Generates a username and a raw password based on first and last name.
-     * Username format: firstName.lastName (lowercase).
-     * Password format: username + three‑digit random number.
+     * Generates a base username and a random raw password.
+     * Username format: firstName.lastName (lowercase); it is not checked for uniqueness,
+     * use {@code UsernameAllocator} to get a free one.
+     * Password: 12 random characters from {@link SecureRandom}.
      */
     public static GeneratedCredentials generate(String firstName, String lastName) {
         if (firstName == null || lastName == null) {
             throw new IllegalArgumentException("First name and last name must be provided");
         }
-        String username = (firstName + "." + lastName).toLowerCase();
-        int suffix = RANDOM.nextInt(1000); // 0‑999
-        String password = username + String.format("%03d", suffix);
-        return new GeneratedCredentials(username, password);
+        String username = (firstName.trim() + "." + lastName.trim()).toLowerCase();
+        return new GeneratedCredentials(username, generatePassword());
+    }
+
+    public static String generatePassword() {
+        char[] password = new char[PASSWORD_LENGTH];
+        for (int i = 0; i < password.length; i++) {
+            password[i] = PASSWORD_ALPHABET[RANDOM.nextInt(PASSWORD_ALPHABET.length)];
+        }
+        return new String(password);
     }
 
     /** Simple holder for generated credentials */
@@ -0,0 +1,187 @@
+package com.agn.web.util;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Row-by-row readers for CSV and XLSX files. Neither reader keeps more than the current row
+ * in memory (XLSX additionally keeps the workbook's shared string table).
+ */
+public class SpreadsheetReader {
+
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * @param rowNumber 1-based row number as the user sees it in the file
+         */
+        void row(long rowNumber, List<String> cells);
+    }
+
+    /**
+     * Reads a CSV file (RFC 4180 quoting). The delimiter is detected from the first line:
+     * Excel with a Russian locale writes ';' instead of ','.
+     */
+    public static void readCsv(InputStream input, RowHandler handler) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        char delimiter = detectDelimiter(reader);
+
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        boolean rowHasData = false;
+        long rowNumber = 1;
+        int ch;
+        while ((ch = reader.read()) != -1) {
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        cell.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    cell.append((char) ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+                rowHasData = true;
+            } else if (ch == delimiter) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+                rowHasData = true;
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (rowHasData || cell.length() > 0) {
+                    cells.add(cell.toString());
+                    handler.row(rowNumber, cells);
+                }
+                cells = new ArrayList<>(cells.size());
+                cell.setLength(0);
+                rowHasData = false;
+                rowNumber++;
+            } else if (ch == '\uFEFF' && rowNumber == 1 && cells.isEmpty() && cell.length() == 0) {
+                // UTF-8 BOM от Excel
+            } else {
+                cell.append((char) ch);
+                rowHasData = true;
+            }
+        }
+        if (rowHasData || cell.length() > 0) {
+            cells.add(cell.toString());
+            handler.row(rowNumber, cells);
+        }
+    }
+
+    /**
+     * Reads the first sheet of an XLSX workbook with the SAX event API, so the sheet itself is never
+     * materialized. Date cells are returned as ISO-8601 dates regardless of their display format.
+     */
+    public static void readXlsx(File file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, null, strings, new SheetRowCollector(handler), new IsoDateFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Не удалось прочитать XLSX: " + e.getMessage(), e);
+        }
+    }
+
+    private static char detectDelimiter(BufferedReader reader) throws IOException {
+        reader.mark(8192);
+        int commas = 0;
+        int semicolons = 0;
+        int ch;
+        int read = 0;
+        while (read++ < 8192 && (ch = reader.read()) != -1 && ch != '\n') {
+            if (ch == ',') {
+                commas++;
+            } else if (ch == ';') {
+                semicolons++;
+            }
+        }
+        reader.reset();
+        return semicolons > commas ? ';' : ',';
+    }
+
+    private static class SheetRowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private final List<String> cells = new ArrayList<>();
+
+        SheetRowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!cells.isEmpty()) {
+                handler.row(rowNum + 1L, new ArrayList<>(cells));
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // Пустые ячейки в XLSX не записываются — выравниваем по номеру колонки
+            int column = new CellReference(cellReference).getCol();
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            cells.add(formattedValue);
+        }
+    }
+
+    private static class IsoDateFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value).toLocalDate().toString();
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.agn.web;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Inserts rows straight through JDBC for H2 tests; names get a unique suffix so tests sharing a context
+ * do not collide on unique constraints.
+ */
+public class Fixtures {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Fixtures(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long group(String name) {
+        return insert("groups", Map.of("name", name + "-" + SEQUENCE.incrementAndGet()));
+    }
+
+    public long student(long groupId, String firstName, String lastName) {
+        return insert("students", Map.of("group_id", groupId, "first_name", firstName, "last_name", lastName));
+    }
+
+    public long subject(String name) {
+        String unique = name + "-" + SEQUENCE.incrementAndGet();
+        return insert("subjects", Map.of("name", unique, "short_name", unique));
+    }
+
+    public long lesson(long subjectId, long groupId, LocalDateTime start) {
+        return insert("lessons", Map.of("subject_id", subjectId, "group_id", groupId, "start_time", start,
+                "end_time", start.plusMinutes(90), "type", "LECTURE"));
+    }
+
+    public long grade(long lessonId, long studentId, int score) {
+        return insert("grades", Map.of("lesson_id", lessonId, "student_id", studentId, "score", score));
+    }
+
+    public long user(String username, String firstName, String lastName, String role) {
+        return insert("users", Map.of("username", username, "password", "{noop}x", "first_name", firstName,
+                "last_name", lastName, "role", role));
+    }
+
+    public long count(String table, String where, Object... args) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table + " where " + where, Long.class, args);
+    }
+
+    private long insert(String table, Map<String, Object> values) {
+        return new SimpleJdbcInsert(jdbcTemplate).withTableName(table).usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(values).longValue();
+    }
+}
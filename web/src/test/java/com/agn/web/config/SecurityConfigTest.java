@@ -0,0 +1,80 @@
+package com.agn.web.config;
+
+import com.agn.web.entity.Role;
+import com.agn.web.service.TokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Test
+    void rejectsRequestsWithoutToken() throws Exception {
+        mvc.perform(get("/api/groups")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void studentCannotManageAccountsOrDelete() throws Exception {
+        String token = bearer(Role.STUDENT);
+        mvc.perform(post("/api/users").header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"mallory\",\"password\":\"x\",\"role\":\"ADMIN\"}"))
+                .andExpect(status().isForbidden());
+        mvc.perform(put("/api/users/1").header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"role\":\"ADMIN\"}"))
+                .andExpect(status().isForbidden());
+        mvc.perform(post("/api/users/provision").header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isForbidden());
+        mvc.perform(delete("/api/groups/1").param("async", "true").header("Authorization", token))
+                .andExpect(status().isForbidden());
+        mvc.perform(delete("/api/subjects/1").header("Authorization", token))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/api/delete-jobs/x").header("Authorization", token))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/api/users/teachers").header("Authorization", token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void teacherCanReadPickersButNotAccounts() throws Exception {
+        String token = bearer(Role.TEACHER);
+        mvc.perform(get("/api/users/teachers").header("Authorization", token)).andExpect(status().isOk());
+        mvc.perform(get("/api/users/students").header("Authorization", token)).andExpect(status().isOk());
+        mvc.perform(post("/api/users/generate-credentials").header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"firstName\":\"A\",\"lastName\":\"B\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void adminPassesRoleChecks() throws Exception {
+        String token = bearer(Role.ADMIN);
+        mvc.perform(get("/api/delete-jobs/missing").header("Authorization", token)).andExpect(status().isNotFound());
+        mvc.perform(post("/api/users/generate-credentials").header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"firstName\":\"A\",\"lastName\":\"B\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private String bearer(Role role) {
+        return "Bearer " + tokenService.issue(1000L + role.ordinal(), role.name().toLowerCase(), role).accessToken();
+    }
+}
@@ -0,0 +1,107 @@
+package com.agn.web.service;
+
+import com.agn.web.Fixtures;
+import com.agn.web.dto.AbsenceStreakDTO;
+import com.agn.web.dto.AttendanceMarkRequest;
+import com.agn.web.dto.LessonAttendanceDTO;
+import com.agn.web.dto.StudentAttendanceDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class AttendanceServiceImplTest {
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Fixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(jdbcTemplate);
+    }
+
+    @Test
+    void marksOverwriteAndUnmarkRemovesTheRecord() {
+        long group = fixtures.group("att");
+        long ivan = fixtures.student(group, "Ivan", "Petrov");
+        long olga = fixtures.student(group, "Olga", "Sidorova");
+        long lesson = fixtures.lesson(fixtures.subject("math"), group, LocalDateTime.now());
+
+        LessonAttendanceDTO marked = attendanceService.markAttendance(lesson,
+                new AttendanceMarkRequest(List.of(ivan), List.of(olga)));
+        assertEquals(List.of(ivan), marked.presentStudentIds());
+        assertEquals(List.of(olga), marked.absentStudentIds());
+
+        // Повторная отметка меняет только указанных студентов
+        LessonAttendanceDTO changed = attendanceService.markAttendance(lesson,
+                new AttendanceMarkRequest(null, List.of(ivan)));
+        assertEquals(2, changed.marked());
+        assertEquals(0, changed.present());
+
+        LessonAttendanceDTO unmarked = attendanceService.unmarkAttendance(lesson, List.of(olga));
+        assertEquals(List.of(ivan), unmarked.absentStudentIds());
+        // Слот остаётся за студентом: старые битовые карты должны читаться так же
+        assertEquals(2, fixtures.count("roster_slots", "group_id = ?", group));
+
+        attendanceService.unmarkAttendance(lesson, List.of(ivan));
+        assertEquals(0, fixtures.count("lesson_attendance", "lesson_id = ?", lesson));
+        assertEquals(0, attendanceService.getLessonAttendance(lesson).marked());
+    }
+
+    @Test
+    void rejectsStudentsOutsideTheGroupOrListedTwice() {
+        long group = fixtures.group("att-bad");
+        long other = fixtures.group("att-other");
+        long ivan = fixtures.student(group, "Ivan", "Petrov");
+        long stranger = fixtures.student(other, "Olga", "Sidorova");
+        long lesson = fixtures.lesson(fixtures.subject("math"), group, LocalDateTime.now());
+
+        assertThrows(IllegalArgumentException.class, () -> attendanceService.markAttendance(lesson,
+                new AttendanceMarkRequest(List.of(stranger), null)));
+        assertThrows(IllegalArgumentException.class, () -> attendanceService.markAttendance(lesson,
+                new AttendanceMarkRequest(List.of(ivan), List.of(ivan))));
+        assertEquals(0, fixtures.count("roster_slots", "group_id = ?", group));
+    }
+
+    @Test
+    void ratesAndStreaksFollowLessonOrder() {
+        long group = fixtures.group("att-rate");
+        long ivan = fixtures.student(group, "Ivan", "Petrov");
+        long olga = fixtures.student(group, "Olga", "Sidorova");
+        long subject = fixtures.subject("math");
+        LocalDateTime monday = LocalDateTime.of(2025, 9, 1, 9, 0);
+        // Занятия создаём не по порядку: серия считается по времени начала, а не по id
+        long third = fixtures.lesson(subject, group, monday.plusDays(2));
+        long first = fixtures.lesson(subject, group, monday);
+        long second = fixtures.lesson(subject, group, monday.plusDays(1));
+
+        attendanceService.markAttendance(first, new AttendanceMarkRequest(List.of(ivan), List.of(olga)));
+        attendanceService.markAttendance(second, new AttendanceMarkRequest(null, List.of(ivan, olga)));
+        attendanceService.markAttendance(third, new AttendanceMarkRequest(List.of(olga), List.of(ivan)));
+
+        StudentAttendanceDTO stats = attendanceService.getStudentAttendance(ivan);
+        assertEquals(3, stats.lessonsMarked());
+        assertEquals(1, stats.lessonsAttended());
+        assertEquals(0.333, stats.rate());
+        assertEquals(2, stats.absentStreak());
+        assertEquals(0, attendanceService.getStudentAttendance(olga).absentStreak());
+
+        assertEquals(List.of(ivan), attendanceService.getAbsenceStreaks(group, 2).stream()
+                .map(AbsenceStreakDTO::studentId).toList());
+    }
+}
@@ -0,0 +1,48 @@
+package com.agn.web.service;
+
+import com.agn.web.Fixtures;
+import com.agn.web.dto.DeleteJobDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class CascadeDeleteJobServiceTest {
+
+    @Autowired
+    private CascadeDeleteJobService cascadeDeleteJobService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deletesGroupAfterAllChildren() throws InterruptedException {
+        Fixtures fixtures = new Fixtures(jdbcTemplate);
+        long group = fixtures.group("cascade");
+        long subject = fixtures.subject("history");
+        for (int i = 0; i < 3; i++) {
+            long student = fixtures.student(group, "S" + i, "L" + i);
+            long lesson = fixtures.lesson(subject, group, LocalDateTime.now().plusDays(i));
+            fixtures.grade(lesson, student, 5);
+        }
+
+        DeleteJobDTO job = cascadeDeleteJobService.startGroupDeletion(group);
+        for (int i = 0; i < 100 && job.finishedAt() == null; i++) {
+            Thread.sleep(50);
+            job = cascadeDeleteJobService.getJob(job.id()).orElseThrow();
+        }
+
+        assertEquals("COMPLETED", job.status());
+        assertEquals(0, fixtures.count("groups", "id = ?", group));
+        assertEquals(0, fixtures.count("students", "group_id = ?", group));
+        assertEquals(0, fixtures.count("lessons", "group_id = ?", group));
+        assertEquals(1, fixtures.count("subjects", "id = ?", subject));
+    }
+}
@@ -0,0 +1,94 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.DisciplineGroupDTO;
+import com.agn.web.entity.DisciplineGroup;
+import com.agn.web.entity.Group;
+import com.agn.web.entity.Role;
+import com.agn.web.entity.Subject;
+import com.agn.web.entity.User;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.repository.DisciplineGroupRepository;
+import com.agn.web.service.DisciplineGroupIndex.AssignmentFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DisciplineGroupIndexTest {
+
+    private final DisciplineGroupRepository repository = mock(DisciplineGroupRepository.class);
+    private final DisciplineGroupIndex index = new DisciplineGroupIndex(repository);
+
+    @Test
+    void findsByAnyCombinationOfKeys() {
+        when(repository.findAllDtos()).thenReturn(List.of(
+                assignment(1L, 10L, 100L, 7L, 1), assignment(2L, 10L, 101L, 8L, 1), assignment(3L, 11L, 100L, 7L, 2)));
+        index.reload();
+
+        assertEquals(List.of(1L, 3L), ids(new AssignmentFilter(7L, null, null, null, null)));
+        assertEquals(List.of(1L), ids(new AssignmentFilter(7L, 10L, null, 1, null)));
+        assertEquals(List.of(1L, 2L, 3L), ids(AssignmentFilter.ALL));
+        assertEquals(List.of(), ids(new AssignmentFilter(9L, null, null, null, null)));
+    }
+
+    @Test
+    void keepsChangesCommittedWhileReloadReadsSnapshot() {
+        DisciplineGroupDTO old = assignment(1L, 10L, 100L, 7L, 1);
+        DisciplineGroupDTO created = assignment(2L, 10L, 101L, 8L, 1);
+        when(repository.findDtoById(2L)).thenReturn(Optional.of(created));
+        when(repository.findAllDtos()).thenAnswer(invocation -> {
+            // Снимок прочитан до коммита нового назначения, а событие о нём обработано раньше конца загрузки
+            index.onEntityChange(EntityChangeEvent.created(DisciplineGroup.class, 2L, null));
+            index.onEntityChange(EntityChangeEvent.deleted(DisciplineGroup.class, 1L, null));
+            return List.of(old);
+        });
+
+        index.reload();
+
+        assertTrue(index.get(2L).isPresent());
+        assertTrue(index.get(1L).isEmpty());
+        assertEquals(List.of(2L), ids(AssignmentFilter.ALL));
+    }
+
+    @Test
+    void patchesRenamesAndCascadeDeletesWithoutReloading() {
+        when(repository.findAllDtos()).thenReturn(List.of(
+                assignment(1L, 10L, 100L, 7L, 1), assignment(2L, 10L, 101L, 8L, 1), assignment(3L, 11L, 100L, 7L, 2)));
+        index.reload();
+
+        Group group = new Group();
+        group.setId(10L);
+        group.setName("ИВТ-1");
+        index.onEntityChange(EntityChangeEvent.updated(Group.class, 10L, group));
+        User teacher = new User();
+        teacher.setId(7L);
+        teacher.setUsername("t7");
+        teacher.setFirstName("Иван");
+        teacher.setLastName("Петров");
+        teacher.setRole(Role.ADMIN);
+        index.onEntityChange(EntityChangeEvent.updated(User.class, 7L, teacher));
+        index.onEntityChange(EntityChangeEvent.deleted(Subject.class, 101L, null));
+
+        assertEquals("ИВТ-1", index.get(1L).orElseThrow().group().name());
+        assertEquals("G11", index.get(3L).orElseThrow().group().name());
+        assertEquals("Петров", index.get(3L).orElseThrow().teacher().lastName());
+        assertEquals(List.of(1L, 3L), ids(AssignmentFilter.ALL));
+        verify(repository, times(1)).findAllDtos();
+    }
+
+    private List<Long> ids(AssignmentFilter filter) {
+        return index.find(filter).stream().map(DisciplineGroupDTO::id).toList();
+    }
+
+    private static DisciplineGroupDTO assignment(Long id, Long groupId, Long subjectId, Long teacherId, int semester) {
+        return new DisciplineGroupDTO(id, subjectId, "S" + subjectId, "s", groupId, "G" + groupId,
+                teacherId, "t" + teacherId, "T", "T", semester, 2025);
+    }
+}
@@ -0,0 +1,91 @@
+package com.agn.web.service;
+
+import com.agn.web.Fixtures;
+import com.agn.web.dto.DisciplineGroupBatchReport;
+import com.agn.web.dto.DisciplineGroupBatchRequest;
+import com.agn.web.repository.DisciplineGroupRepository;
+import com.agn.web.repository.GroupRepository;
+import com.agn.web.repository.SubjectRepository;
+import com.agn.web.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class DisciplineGroupServiceImplTest {
+
+    @Autowired
+    private DisciplineGroupService disciplineGroupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private DisciplineGroupIndex disciplineGroupIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Fixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(jdbcTemplate);
+    }
+
+    @Test
+    void refusesUserWhoIsNotTeacher() {
+        long subject = fixtures.subject("batch-role");
+        long group = fixtures.group("batch-role");
+        long student = fixtures.user("batch.student", "Ivan", "Petrov", "STUDENT");
+
+        assertThrows(IllegalArgumentException.class, () -> disciplineGroupService.assignSubjectToGroups(
+                new DisciplineGroupBatchRequest(subject, List.of(group), student, 1, 2025)));
+        assertEquals(0, fixtures.count("discipline_groups", "subject_id = ?", subject));
+    }
+
+    @Test
+    void countsOnlyRowsActuallyInsertedWhenAssignmentAppearsAfterCheck() {
+        long subject = fixtures.subject("batch-race");
+        long first = fixtures.group("batch-race-1");
+        long second = fixtures.group("batch-race-2");
+        long teacher = fixtures.user("batch.teacher", "Olga", "Sidorova", "TEACHER");
+        disciplineGroupService.assignSubjectToGroups(new DisciplineGroupBatchRequest(subject, List.of(first), null, 1, 2025));
+        // Проверка «не видит» уже вставленное назначение — как если бы его вставил параллельный запрос
+        DisciplineGroupRepository blindRepository = mock(DisciplineGroupRepository.class);
+        when(blindRepository.findAssignedGroupIds(anyLong(), anyInt(), anyInt(), any())).thenReturn(List.of());
+        DisciplineGroupService service = new DisciplineGroupServiceImpl(blindRepository, userRepository,
+                subjectRepository, groupRepository, jdbcTemplate, disciplineGroupIndex, eventPublisher);
+
+        DisciplineGroupBatchReport report = service.assignSubjectToGroups(
+                new DisciplineGroupBatchRequest(subject, List.of(first, second), teacher, 1, 2025));
+
+        assertEquals(1, report.created());
+        assertEquals(2, fixtures.count("discipline_groups", "subject_id = ?", subject));
+        assertEquals(1, fixtures.count("discipline_groups", "subject_id = ? and group_id = ?", subject, first));
+    }
+}
@@ -0,0 +1,58 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.GradeSumRow;
+import com.agn.web.event.GradesChangedEvent;
+import com.agn.web.event.GradesChangedEvent.GradeDelta;
+import com.agn.web.repository.GradeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GradeAggregateServiceTest {
+
+    private final GradeRepository gradeRepository = mock(GradeRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final GradeAggregateService aggregates = new GradeAggregateService(gradeRepository, transactionManager);
+
+    @Test
+    void keepsDeltasAppliedWhileReconcileReadsSnapshot() {
+        when(gradeRepository.sumByGroup()).thenAnswer(invocation -> {
+            // Оценка сохранена после снимка, а событие о ней обработано раньше конца пересчёта
+            aggregates.onGradesChanged(new GradesChangedEvent(1L, List.of(new GradeDelta(10L, 100L, 7L, 5, 1))));
+            return List.of(new GradeSumRow(10L, 8L, 2L));
+        });
+        when(gradeRepository.sumBySubject()).thenReturn(List.of(new GradeSumRow(100L, 8L, 2L)));
+        when(gradeRepository.sumByStudent()).thenReturn(List.of(new GradeSumRow(7L, 8L, 2L)));
+
+        aggregates.reconcile();
+
+        assertEquals(3, aggregates.getOverall().count());
+        assertEquals(3, aggregates.getForGroup(10L).count());
+        assertEquals(3, aggregates.getForSubject(100L).count());
+        assertEquals(4.3, aggregates.getForStudent(7L).average());
+        // Все три суммы читаются в одной транзакции REPEATABLE_READ
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()
+                && definition.getIsolationLevel() == TransactionDefinition.ISOLATION_REPEATABLE_READ));
+    }
+
+    @Test
+    void appliesDeltasBetweenReconciles() {
+        when(gradeRepository.sumByGroup()).thenReturn(List.of(new GradeSumRow(10L, 8L, 2L)));
+        aggregates.reconcile();
+
+        aggregates.onGradesChanged(new GradesChangedEvent(1L, List.of(
+                new GradeDelta(10L, 100L, 7L, -4, -1), new GradeDelta(11L, 100L, 8L, 9, 1))));
+
+        assertEquals(1, aggregates.getForGroup(10L).count());
+        assertEquals(9.0, aggregates.getForGroup(11L).average());
+        assertEquals(2, aggregates.getOverall().count());
+    }
+}
@@ -0,0 +1,111 @@
+package com.agn.web.service;
+
+import com.agn.web.Fixtures;
+import com.agn.web.dto.GradeColumnReport;
+import com.agn.web.dto.GradeEntryDTO;
+import com.agn.web.event.GradesChangedEvent;
+import com.agn.web.event.GradesChangedEvent.GradeDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@RecordApplicationEvents
+class GradeServiceImplTest {
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Fixtures fixtures;
+    private long lesson;
+    private long first;
+    private long second;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(jdbcTemplate);
+        long group = fixtures.group("grades");
+        first = fixtures.student(group, "Ivan", "Petrov");
+        second = fixtures.student(group, "Olga", "Sidorova");
+        lesson = fixtures.lesson(fixtures.subject("physics"), group, LocalDateTime.now());
+    }
+
+    @Test
+    void upsertReportsInsertsUpdatesAndDeletesWithDeltas() {
+        GradeColumnReport created = gradeService.saveLessonGrades(lesson,
+                List.of(new GradeEntryDTO(first, 5), new GradeEntryDTO(second, 4)));
+        assertEquals(new GradeColumnReport(lesson, 2, 0, 0, 0), created);
+
+        GradeColumnReport changed = gradeService.saveLessonGrades(lesson,
+                List.of(new GradeEntryDTO(first, 8), new GradeEntryDTO(second, null)));
+        assertEquals(new GradeColumnReport(lesson, 0, 1, 1, 0), changed);
+
+        List<GradeDelta> deltas = events.stream(GradesChangedEvent.class).toList().get(1).deltas();
+        assertEquals(List.of(
+                new GradeDelta(deltas.get(0).groupId(), deltas.get(0).subjectId(), first, 3, 0),
+                new GradeDelta(deltas.get(0).groupId(), deltas.get(0).subjectId(), second, -4, -1)), deltas);
+        assertEquals(List.of(new GradeEntryDTO(first, 8)), gradeService.getLessonGrades(lesson));
+    }
+
+    @Test
+    void unchangedCellsProduceNoEvent() {
+        gradeService.saveLessonGrades(lesson, List.of(new GradeEntryDTO(first, 5)));
+        GradeColumnReport again = gradeService.saveLessonGrades(lesson,
+                List.of(new GradeEntryDTO(first, 5), new GradeEntryDTO(second, null)));
+
+        assertEquals(new GradeColumnReport(lesson, 0, 0, 0, 2), again);
+        assertEquals(1, events.stream(GradesChangedEvent.class).count());
+    }
+
+    @Test
+    void rejectsScoresOutOfRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> gradeService.saveLessonGrades(lesson, List.of(new GradeEntryDTO(first, 0))));
+        assertThrows(IllegalArgumentException.class,
+                () -> gradeService.saveLessonGrades(lesson, List.of(new GradeEntryDTO(first, 11))));
+        assertEquals(0, fixtures.count("grades", "lesson_id = ?", lesson));
+    }
+
+    @Test
+    void concurrentSavesOfOneLessonInsertOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<GradeColumnReport>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> gradeService.saveLessonGrades(lesson,
+                        List.of(new GradeEntryDTO(first, 5), new GradeEntryDTO(second, 4)))));
+            }
+            int inserted = 0;
+            for (Future<GradeColumnReport> result : results) {
+                inserted += result.get().inserted();
+            }
+            // Вставка (и дельта +1 в суммах) — ровно одна на студента, остальные сохранения ничего не меняют
+            assertEquals(2, inserted);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(2, fixtures.count("grades", "lesson_id = ?", lesson));
+    }
+}
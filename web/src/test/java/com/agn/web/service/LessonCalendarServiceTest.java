@@ -0,0 +1,81 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.LessonCalendarRow;
+import com.agn.web.dto.LessonDTO;
+import com.agn.web.entity.DisciplineGroup;
+import com.agn.web.entity.Lesson;
+import com.agn.web.entity.Lesson.LessonType;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.repository.DisciplineGroupRepository;
+import com.agn.web.repository.LessonRepository;
+import com.agn.web.service.LessonCalendarService.CalendarFilter;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LessonCalendarServiceTest {
+
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final DisciplineGroupRepository disciplineGroupRepository = mock(DisciplineGroupRepository.class);
+    private final LessonCalendarService calendar = new LessonCalendarService(lessonRepository, disciplineGroupRepository);
+
+    @Test
+    void keepsChangesCommittedWhileReloadReadsSnapshot() {
+        LocalDate today = LocalDate.now();
+        LessonCalendarRow created = lesson(2L, 10L, today.atTime(12, 0));
+        when(lessonRepository.findCalendarRowById(2L)).thenReturn(Optional.of(created));
+        when(disciplineGroupRepository.findTeacherAssignments()).thenReturn(List.of());
+        when(lessonRepository.findAllCalendarRows()).thenAnswer(invocation -> {
+            // Снимок прочитан до коммита нового занятия, а событие о нём обработано раньше конца загрузки
+            calendar.onEntityChange(EntityChangeEvent.created(Lesson.class, 2L, null));
+            calendar.onEntityChange(EntityChangeEvent.deleted(Lesson.class, 1L, null));
+            return List.of(lesson(1L, 10L, today.atTime(9, 0)));
+        });
+
+        calendar.reload();
+
+        assertEquals(List.of(2L), calendar.getDay(today, CalendarFilter.ALL).stream().map(LessonDTO::id).toList());
+    }
+
+    @Test
+    void keepsTeacherAssignmentsReadWhileReloadRuns() {
+        LocalDate today = LocalDate.now();
+        when(lessonRepository.findAllCalendarRows()).thenAnswer(invocation -> {
+            when(disciplineGroupRepository.findTeacherAssignments())
+                    .thenReturn(List.<Object[]>of(new Object[]{100L, 10L, 7L}));
+            calendar.onEntityChange(EntityChangeEvent.created(DisciplineGroup.class, 1L, null));
+            // Снимок назначений самой перезагрузки старее события
+            when(disciplineGroupRepository.findTeacherAssignments()).thenReturn(List.of());
+            return List.of(lesson(1L, 10L, today.atTime(9, 0)));
+        });
+
+        calendar.reload();
+
+        assertEquals(1, calendar.countToday(new CalendarFilter(null, 7L, null)));
+    }
+
+    @Test
+    void countsTodayWithFilter() {
+        LocalDate today = LocalDate.now();
+        when(disciplineGroupRepository.findTeacherAssignments()).thenReturn(List.of());
+        when(lessonRepository.findAllCalendarRows()).thenReturn(List.of(
+                lesson(1L, 10L, today.atTime(9, 0)), lesson(2L, 11L, today.atTime(11, 0)),
+                lesson(3L, 10L, today.minusDays(1).atTime(23, 0)), lesson(4L, 10L, today.plusDays(1).atTime(9, 0))));
+
+        calendar.reload();
+
+        assertEquals(2, calendar.countToday(CalendarFilter.ALL));
+        assertEquals(1, calendar.countToday(new CalendarFilter(10L, null, null)));
+    }
+
+    private static LessonCalendarRow lesson(Long id, Long groupId, LocalDateTime start) {
+        return new LessonCalendarRow(id, groupId, "G" + groupId, 100L, "S", LessonType.LECTURE, start, start.plusMinutes(90));
+    }
+}
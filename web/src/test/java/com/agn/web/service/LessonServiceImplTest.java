@@ -0,0 +1,99 @@
+package com.agn.web.service;
+
+import com.agn.web.Fixtures;
+import com.agn.web.dto.AttendanceMarkRequest;
+import com.agn.web.entity.Group;
+import com.agn.web.entity.Lesson;
+import com.agn.web.entity.Subject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class LessonServiceImplTest {
+
+    @Autowired
+    private LessonService lessonService;
+
+    @Autowired
+    private GradeAggregateService gradeAggregateService;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Fixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(jdbcTemplate);
+    }
+
+    @Test
+    void movingLessonMovesItsGradesInAggregates() {
+        long from = fixtures.group("from");
+        long to = fixtures.group("to");
+        long math = fixtures.subject("math");
+        long physics = fixtures.subject("physics");
+        long student = fixtures.student(from, "Ivan", "Petrov");
+        LocalDateTime start = LocalDateTime.now().withNano(0);
+        long lesson = fixtures.lesson(math, from, start);
+        fixtures.grade(lesson, student, 8);
+        // Строки вставлены мимо сервисов — выравниваем суммы с БД перед проверкой
+        gradeAggregateService.reconcile();
+        long overall = gradeAggregateService.getOverall().count();
+
+        lessonService.updateLesson(lesson, lesson(to, physics, start));
+
+        assertEquals(0, gradeAggregateService.getForGroup(from).count());
+        assertEquals(0, gradeAggregateService.getForSubject(math).count());
+        assertEquals(8.0, gradeAggregateService.getForGroup(to).average());
+        assertEquals(8.0, gradeAggregateService.getForSubject(physics).average());
+        assertEquals(1, gradeAggregateService.getForStudent(student).count());
+        assertEquals(overall, gradeAggregateService.getOverall().count());
+    }
+
+    @Test
+    void refusesToMoveLessonWithAttendanceToAnotherGroup() {
+        long from = fixtures.group("from");
+        long to = fixtures.group("to");
+        long math = fixtures.subject("math");
+        long student = fixtures.student(from, "Ivan", "Petrov");
+        LocalDateTime start = LocalDateTime.now().withNano(0);
+        long lesson = fixtures.lesson(math, from, start);
+        attendanceService.markAttendance(lesson, new AttendanceMarkRequest(List.of(student), null));
+
+        assertThrows(IllegalArgumentException.class, () -> lessonService.updateLesson(lesson, lesson(to, math, start)));
+        assertEquals(1, fixtures.count("lessons", "id = ? and group_id = ?", lesson, from));
+
+        // Перенос во времени в той же группе отметки не портит
+        lessonService.updateLesson(lesson, lesson(from, math, start.plusDays(1)));
+        assertEquals(List.of(student), attendanceService.getLessonAttendance(lesson).presentStudentIds());
+    }
+
+    private static Lesson lesson(long groupId, long subjectId, LocalDateTime start) {
+        Group group = new Group();
+        group.setId(groupId);
+        Subject subject = new Subject();
+        subject.setId(subjectId);
+        Lesson lesson = new Lesson();
+        lesson.setGroup(group);
+        lesson.setSubject(subject);
+        lesson.setStartTime(start);
+        lesson.setEndTime(start.plusMinutes(90));
+        lesson.setType(Lesson.LessonType.LECTURE);
+        return lesson;
+    }
+}
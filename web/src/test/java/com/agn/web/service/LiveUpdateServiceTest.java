@@ -0,0 +1,97 @@
+package com.agn.web.service;
+
+import com.agn.web.event.GradesChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class LiveUpdateServiceTest {
+
+    private final LiveUpdateService service = new LiveUpdateService(new ObjectMapper(), mock(DashboardService.class));
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void stalledClientsAreEvictedAndDoNotStarveOthers() throws Exception {
+        // Каждый «зависший» клиент занимает поток отправки уже на приветствии
+        List<BlockingEmitter> stalled = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            BlockingEmitter emitter = new BlockingEmitter(release);
+            service.register(emitter);
+            stalled.add(emitter);
+        }
+        for (BlockingEmitter emitter : stalled) {
+            assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+        }
+        RecordingEmitter healthy = new RecordingEmitter();
+        service.register(healthy);
+
+        service.evictStalledSenders(System.nanoTime() + LiveUpdateService.SEND_DEADLINE.toNanos() + 1);
+        assertEquals(1, service.clientCount());
+
+        service.onGradesChanged(new GradesChangedEvent(7L, List.of()));
+        assertNotNull(healthy.sent.poll(5, TimeUnit.SECONDS));  // hello
+        assertNotNull(healthy.sent.poll(5, TimeUnit.SECONDS));  // grades
+
+        // Когда зависшая отправка вернулась, вытесненный клиент закрывается и больше ничего не получает
+        release.countDown();
+        for (BlockingEmitter emitter : stalled) {
+            assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+            assertEquals(1, emitter.sends);
+        }
+    }
+
+    private static final class BlockingEmitter extends SseEmitter {
+        final CountDownLatch release;
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+        volatile int sends;
+
+        BlockingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sends++;
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.agn.web.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoginThrottleTest {
+
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+    private static final long START = 1_000 * MINUTE;
+
+    private final LoginThrottle throttle = new LoginThrottle();
+
+    @Test
+    void refusesUsernameOverLimitUntilWindowSlidesPast() {
+        for (int i = 0; i < LoginThrottle.MAX_FAILURES_PER_USERNAME; i++) {
+            throttle.reserve("ivanov", "10.0.0." + i, START + i * MINUTE / 2);
+        }
+        assertThrows(TooManyRequestsException.class, () -> throttle.reserve("ivanov", "10.0.1.1", START + 5 * MINUTE));
+        assertDoesNotThrow(() -> throttle.reserve("petrov", "10.0.1.1", START + 5 * MINUTE));
+
+        // Через 10 минут после первой корзины она выпадает из окна и освобождает место
+        assertDoesNotThrow(() -> throttle.reserve("ivanov", "10.0.1.1", START + 10 * MINUTE));
+    }
+
+    @Test
+    void refusesIpOverLimitAcrossUsernames() {
+        for (int i = 0; i < LoginThrottle.MAX_FAILURES_PER_IP; i++) {
+            throttle.reserve("user" + i, "10.0.0.1", START);
+        }
+        assertThrows(TooManyRequestsException.class, () -> throttle.reserve("other", "10.0.0.1", START));
+        assertDoesNotThrow(() -> throttle.reserve("other", "10.0.0.2", START));
+    }
+
+    @Test
+    void rejectedAttemptsDoNotExtendTheBlock() {
+        for (int i = 0; i < LoginThrottle.MAX_FAILURES_PER_USERNAME; i++) {
+            throttle.reserve("ivanov", "10.0.0.1", START);
+        }
+        for (int i = 0; i < 20; i++) {
+            assertThrows(TooManyRequestsException.class, () -> throttle.reserve("ivanov", "10.0.0.1", START + MINUTE));
+        }
+        assertEquals(LoginThrottle.MAX_FAILURES_PER_USERNAME, throttle.count("ivanov", null, START + MINUTE));
+        assertDoesNotThrow(() -> throttle.reserve("ivanov", "10.0.0.1", START + 10 * MINUTE));
+    }
+
+    @Test
+    void successResetsUsernameAndGivesBackIpSlot() {
+        for (int i = 0; i < LoginThrottle.MAX_FAILURES_PER_USERNAME - 1; i++) {
+            throttle.reserve("ivanov", "10.0.0.1", START);
+        }
+        throttle.recordSuccess(throttle.reserve("ivanov", "10.0.0.1", START));
+
+        assertEquals(0, throttle.count("ivanov", null, START));
+        assertEquals(LoginThrottle.MAX_FAILURES_PER_USERNAME - 1, throttle.count(null, "10.0.0.1", START));
+    }
+
+    @Test
+    void parallelGuessesNeverExceedLimit() throws Exception {
+        int threads = 8;
+        int attempts = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                String ip = "10.0." + (i % 50) + ".1";
+                Callable<Boolean> guess = () -> {
+                    start.await();
+                    try {
+                        throttle.reserve("ivanov", ip);
+                        return true;
+                    } catch (TooManyRequestsException e) {
+                        return false;
+                    }
+                };
+                results.add(pool.submit(guess));
+            }
+            start.countDown();
+            int allowed = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    allowed++;
+                }
+            }
+            assertEquals(LoginThrottle.MAX_FAILURES_PER_USERNAME, allowed);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.SearchHitDTO;
+import com.agn.web.dto.StudentRowDTO;
+import com.agn.web.entity.Group;
+import com.agn.web.entity.Student;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.repository.GroupRepository;
+import com.agn.web.repository.StudentRepository;
+import com.agn.web.repository.SubjectRepository;
+import com.agn.web.repository.UserRepository;
+import com.agn.web.service.SearchIndexService.DocType;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SearchIndexServiceTest {
+
+    private final StudentRepository studentRepository = mock(StudentRepository.class);
+    private final SearchIndexService index = new SearchIndexService(studentRepository,
+            mock(UserRepository.class), mock(GroupRepository.class), mock(SubjectRepository.class));
+
+    @Test
+    void keepsChangesIndexedWhileRebuildReadsSnapshot() {
+        StudentRowDTO created = row(2L, "Петров", 10L, "ИВТ-1");
+        when(studentRepository.findRowById(2L)).thenReturn(Optional.of(created));
+        when(studentRepository.findAllRows()).thenAnswer(invocation -> {
+            // Снимок прочитан до коммита нового студента, а событие о нём обработано раньше конца загрузки
+            index.onEntityChange(EntityChangeEvent.created(Student.class, 2L, null));
+            index.onEntityChange(EntityChangeEvent.deleted(Student.class, 1L, null));
+            return List.of(row(1L, "Иванов", 10L, "ИВТ-1"));
+        });
+
+        index.rebuild(DocType.STUDENT);
+
+        assertEquals(List.of(), ids("Иванов"));
+        assertEquals(List.of(2L), ids("Петров"));
+    }
+
+    @Test
+    void groupRenameRemapsOnlyItsStudents() {
+        when(studentRepository.findAllRows()).thenReturn(List.of(row(1L, "Иванов", 10L, "ИВТ-1")));
+        index.rebuild(DocType.STUDENT);
+        when(studentRepository.findRowsByGroupId(10L)).thenReturn(List.of(row(1L, "Иванов", 10L, "ИВТ-2")));
+
+        Group group = new Group();
+        group.setId(10L);
+        group.setName("ИВТ-2");
+        index.onEntityChange(EntityChangeEvent.updated(Group.class, 10L, group));
+
+        assertEquals("ИВТ-2", index.search("Иванов", EnumSet.of(DocType.STUDENT), 10).get(0).subtitle());
+        verify(studentRepository, times(1)).findAllRows();
+        verify(studentRepository, never()).findRowById(anyLong());
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, EnumSet.of(DocType.STUDENT), 10).stream().map(SearchHitDTO::id).toList();
+    }
+
+    private static StudentRowDTO row(Long id, String lastName, Long groupId, String groupName) {
+        return new StudentRowDTO(id, "Имя", lastName, null, null, groupId, groupName);
+    }
+}
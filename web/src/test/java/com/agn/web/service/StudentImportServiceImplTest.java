@@ -0,0 +1,68 @@
+package com.agn.web.service;
+
+import com.agn.web.Fixtures;
+import com.agn.web.dto.StudentImportReport;
+import com.agn.web.dto.StudentImportReport.RowError;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class StudentImportServiceImplTest {
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Fixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(jdbcTemplate);
+    }
+
+    @Test
+    void importsValidRowsAndReportsTheRest() {
+        long groupId = fixtures.group("imp");
+        String group = jdbcTemplate.queryForObject("select name from groups where id = ?", String.class, groupId);
+        String csv = "Фамилия;Имя;Дата рождения;Группа\n"
+                + "Иванов;Иван;14.03.2005;" + group + "\n"
+                + "Петрова;Ольга;2004-11-02;" + group + "\n"
+                + ";Без фамилии;;" + group + "\n"
+                + "Сидоров;Пётр;31.02.2005;" + group + "\n"
+                + ";;;\n"
+                + "Козлов;Павел;;Нет такой\n";
+
+        StudentImportReport report = studentImportService.importStudents(csv("students.csv", csv));
+
+        assertEquals(5, report.totalRows());
+        assertEquals(2, report.importedRows());
+        assertEquals(3, report.failedRows());
+        assertEquals(List.of(4L, 5L, 7L), report.errors().stream().map(RowError::row).toList());
+        assertEquals(2, fixtures.count("students", "group_id = ?", groupId));
+        assertEquals(1, fixtures.count("students", "group_id = ? and date_born = date '2005-03-14'", groupId));
+    }
+
+    @Test
+    void rejectsFileWithoutRequiredColumns() {
+        assertThrows(IllegalArgumentException.class,
+                () -> studentImportService.importStudents(csv("students.csv", "Фамилия,Группа\nИванов,ИВТ\n")));
+    }
+
+    private static MockMultipartFile csv(String name, String content) {
+        return new MockMultipartFile("file", name, "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
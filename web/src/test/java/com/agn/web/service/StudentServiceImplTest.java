@@ -0,0 +1,153 @@
+package com.agn.web.service;
+
+import com.agn.web.Fixtures;
+import com.agn.web.dto.StudentPageDTO;
+import com.agn.web.dto.StudentRowDTO;
+import com.agn.web.entity.Group;
+import com.agn.web.entity.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class StudentServiceImplTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Fixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(jdbcTemplate);
+    }
+
+    @Test
+    void deletesStudentTogetherWithGrades() {
+        long group = fixtures.group("del");
+        long student = fixtures.student(group, "Ivan", "Petrov");
+        long other = fixtures.student(group, "Olga", "Sidorova");
+        long lesson = fixtures.lesson(fixtures.subject("math"), group, LocalDateTime.now());
+        fixtures.grade(lesson, student, 5);
+        fixtures.grade(lesson, other, 4);
+
+        studentService.deleteStudent(student);
+
+        assertEquals(0, fixtures.count("students", "id = ?", student));
+        assertEquals(0, fixtures.count("grades", "student_id = ?", student));
+        assertEquals(1, fixtures.count("grades", "student_id = ?", other));
+    }
+
+    @Test
+    void cachedRosterFollowsCommittedChanges() {
+        long groupId = fixtures.group("roster");
+        long first = fixtures.student(groupId, "Ivan", "Petrov");
+        assertEquals(1, studentService.getStudentsByGroupId(groupId).size());
+
+        Group group = groupService.getGroupById(groupId);
+        group.setName(group.getName() + "-renamed");
+        groupService.saveGroup(group);
+        assertEquals(group.getName(), studentService.getStudentsByGroupId(groupId).get(0).group().name());
+
+        Student added = new Student();
+        added.setFirstName("Olga");
+        added.setLastName("Sidorova");
+        added.setGroup(group);
+        studentService.saveStudent(added);
+        assertEquals(2, studentService.getStudentsByGroupId(groupId).size());
+
+        studentService.deleteStudent(first);
+        assertEquals(List.of(added.getId()),
+                studentService.getStudentsByGroupId(groupId).stream().map(StudentRowDTO::id).toList());
+    }
+
+    @Test
+    void movingStudentEvictsOnlyOldAndNewGroupRosters() {
+        long from = fixtures.group("move-from");
+        long to = fixtures.group("move-to");
+        long other = fixtures.group("move-other");
+        long moved = fixtures.student(from, "Ivan", "Petrov");
+        fixtures.student(other, "Olga", "Sidorova");
+        assertEquals(1, studentService.getStudentsByGroupId(from).size());
+        assertEquals(0, studentService.getStudentsByGroupId(to).size());
+        assertEquals(1, studentService.getStudentsByGroupId(other).size());
+        // Вставка в обход сервиса не сбрасывает кэш: по ней видно, что чужой состав не трогали
+        fixtures.student(other, "Anna", "Kozlova");
+
+        Student details = studentService.getStudentById(moved);
+        details.setGroup(groupService.getGroupById(to));
+        studentService.updateStudent(moved, details);
+
+        assertEquals(0, studentService.getStudentsByGroupId(from).size());
+        assertEquals(List.of(moved), studentService.getStudentsByGroupId(to).stream().map(StudentRowDTO::id).toList());
+        assertEquals(1, studentService.getStudentsByGroupId(other).size());
+    }
+
+    @Test
+    void lastNameCursorWalksAllPagesIncludingTailWithoutLastName() {
+        long groupId = fixtures.group("pages");
+        fixtures.student(groupId, "A", "Volkov");
+        fixtures.student(groupId, "B", "Abramov");
+        fixtures.student(groupId, "C", "Kozlov");
+        fixtures.student(groupId, "D", "Abramov");
+        jdbcTemplate.update("insert into students (group_id, first_name) values (?, ?)", groupId, "E");
+
+        List<String> names = new ArrayList<>();
+        String after = null;
+        do {
+            StudentPageDTO page = studentService.getStudentsPage(after, 2, groupId, StudentService.StudentSort.LAST_NAME);
+            page.items().forEach(row -> names.add(row.firstName()));
+            after = page.nextCursor();
+        } while (after != null);
+
+        assertEquals(List.of("B", "D", "C", "A", "E"), names);
+    }
+
+    @Test
+    void cursorSurvivesDeletionOfItsAnchorRow() {
+        long groupId = fixtures.group("anchor");
+        long first = fixtures.student(groupId, "A", "Abramov");
+        long anchor = fixtures.student(groupId, "B", "Borisov");
+        fixtures.student(groupId, "C", "Volkov");
+
+        StudentPageDTO page = studentService.getStudentsPage(null, 2, groupId, StudentService.StudentSort.LAST_NAME);
+        assertEquals(List.of(first, anchor), page.items().stream().map(StudentRowDTO::id).toList());
+        studentService.deleteStudent(anchor);
+
+        StudentPageDTO next = studentService.getStudentsPage(page.nextCursor(), 2, groupId, StudentService.StudentSort.LAST_NAME);
+        assertEquals(List.of("Volkov"), next.items().stream().map(StudentRowDTO::lastName).toList());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void idCursorPagesByIdAndRejectsGarbage() {
+        long groupId = fixtures.group("ids");
+        long first = fixtures.student(groupId, "A", "Volkov");
+        long second = fixtures.student(groupId, "B", "Abramov");
+
+        StudentPageDTO page = studentService.getStudentsPage(null, 1, groupId, StudentService.StudentSort.ID);
+        assertEquals(first, page.items().get(0).id());
+        assertEquals(second, studentService.getStudentsPage(page.nextCursor(), 1, groupId, StudentService.StudentSort.ID)
+                .items().get(0).id());
+        assertThrows(IllegalArgumentException.class,
+                () -> studentService.getStudentsPage("not a cursor!", 1, groupId, StudentService.StudentSort.ID));
+    }
+}
@@ -0,0 +1,105 @@
+package com.agn.web.service;
+
+import com.agn.web.entity.Role;
+import com.agn.web.entity.User;
+import com.agn.web.event.EntityChangeEvent;
+import com.agn.web.service.TokenService.TokenClaims;
+import com.agn.web.service.TokenService.TokenPair;
+import com.agn.web.service.TokenService.TokenType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final TokenService tokenService = new TokenService(new ObjectMapper(), SECRET);
+
+    @Test
+    void verifiesIssuedTokensOfTheRightType() {
+        TokenPair pair = tokenService.issue(7L, "ivanov", Role.TEACHER);
+
+        TokenClaims claims = tokenService.verify(pair.accessToken(), TokenType.ACCESS).orElseThrow();
+        assertEquals(7L, claims.userId());
+        assertEquals("ivanov", claims.username());
+        assertEquals(Role.TEACHER, claims.role());
+        assertTrue(claims.expiresAt().isAfter(Instant.now()));
+
+        assertTrue(tokenService.verify(pair.refreshToken(), TokenType.REFRESH).isPresent());
+        assertTrue(tokenService.verify(pair.refreshToken(), TokenType.ACCESS).isEmpty());
+        assertTrue(tokenService.verify(pair.accessToken(), TokenType.REFRESH).isEmpty());
+    }
+
+    @Test
+    void rejectsForgedTamperedAndMalformedTokens() {
+        String token = tokenService.issue(7L, "ivanov", Role.STUDENT).accessToken();
+        String[] parts = token.split("\\.");
+
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        String elevated = ENCODER.encodeToString(payload.replace("STUDENT", "ADMIN").getBytes(StandardCharsets.UTF_8));
+        assertTrue(tokenService.verify(parts[0] + "." + elevated + "." + parts[2], TokenType.ACCESS).isEmpty());
+
+        String otherKey = new TokenService(new ObjectMapper(), "fedcba9876543210fedcba9876543210")
+                .issue(7L, "ivanov", Role.STUDENT).accessToken();
+        assertTrue(tokenService.verify(otherKey, TokenType.ACCESS).isEmpty());
+
+        String none = ENCODER.encodeToString("{\"alg\":\"none\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        assertTrue(tokenService.verify(none + "." + parts[1] + ".", TokenType.ACCESS).isEmpty());
+        assertTrue(tokenService.verify("not-a-token", TokenType.ACCESS).isEmpty());
+        assertTrue(tokenService.verify(parts[0] + ".%%%." + parts[2], TokenType.ACCESS).isEmpty());
+    }
+
+    @Test
+    void rejectsExpiredToken() throws Exception {
+        long past = Instant.now().minusSeconds(60).getEpochSecond();
+        String token = signed("{\"jti\":\"x\",\"uid\":7,\"sub\":\"ivanov\",\"role\":\"ADMIN\",\"typ\":\"ACCESS\",\"iat\":"
+                + (past - 900) + ",\"exp\":" + past + "}");
+
+        assertTrue(tokenService.verify(token, TokenType.ACCESS).isEmpty());
+        // Та же подпись со сроком в будущем проходит — отказ именно из-за exp
+        long future = Instant.now().plusSeconds(60).getEpochSecond();
+        assertTrue(tokenService.verify(signed("{\"jti\":\"x\",\"uid\":7,\"sub\":\"ivanov\",\"role\":\"ADMIN\","
+                + "\"typ\":\"ACCESS\",\"iat\":" + (past - 900) + ",\"exp\":" + future + "}"), TokenType.ACCESS).isPresent());
+    }
+
+    @Test
+    void revokesSingleTokenOrEverythingIssuedToUser() {
+        TokenPair first = tokenService.issue(7L, "ivanov", Role.TEACHER);
+        TokenPair second = tokenService.issue(7L, "ivanov", Role.TEACHER);
+        TokenPair stranger = tokenService.issue(8L, "petrov", Role.TEACHER);
+
+        tokenService.revoke(tokenService.verify(first.refreshToken(), TokenType.REFRESH).orElseThrow());
+        assertTrue(tokenService.verify(first.refreshToken(), TokenType.REFRESH).isEmpty());
+        assertTrue(tokenService.verify(second.refreshToken(), TokenType.REFRESH).isPresent());
+
+        // Смена роли отзывает все выданные пользователю токены, чужие не трогает
+        tokenService.onEntityChange(EntityChangeEvent.updated(User.class, 7L, null));
+        assertTrue(tokenService.verify(first.accessToken(), TokenType.ACCESS).isEmpty());
+        assertTrue(tokenService.verify(second.refreshToken(), TokenType.REFRESH).isEmpty());
+        assertTrue(tokenService.verify(stranger.accessToken(), TokenType.ACCESS).isPresent());
+    }
+
+    @Test
+    void refusesShortSecret() {
+        assertThrows(IllegalStateException.class, () -> new TokenService(new ObjectMapper(), "short"));
+    }
+
+    private static String signed(String payloadJson) throws Exception {
+        String unsigned = ENCODER.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + ENCODER.encodeToString(payloadJson.getBytes(StandardCharsets.UTF_8));
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return unsigned + "." + ENCODER.encodeToString(mac.doFinal(unsigned.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,49 @@
+package com.agn.web.service;
+
+import com.agn.web.Fixtures;
+import com.agn.web.dto.UserDTO;
+import com.agn.web.dto.UserDirectoryPage;
+import com.agn.web.dto.UserSummaryDTO;
+import com.agn.web.entity.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class UserDirectoryServiceTest {
+
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void filtersByPrefixPagesAndFollowsUserChanges() {
+        Fixtures fixtures = new Fixtures(jdbcTemplate);
+        fixtures.user("dir.zhukov", "Anna", "Zhukova", "TEACHER");
+        fixtures.user("dir.zaitsev", "Boris", "Zaitsev", "TEACHER");
+        fixtures.user("dir.zubov", "Zoya", "Ivanova", "STUDENT");
+
+        UserDirectoryPage page = userDirectoryService.getPage(Role.TEACHER, "Z", 0, 10);
+        assertEquals(List.of("Zaitsev", "Zhukova"), page.items().stream().map(UserSummaryDTO::lastName).toList());
+        assertEquals(Role.TEACHER, page.items().get(0).role());
+
+        UserDirectoryPage second = userDirectoryService.getPage(Role.TEACHER, "dir.", 1, 1);
+        assertEquals(2, second.total());
+        assertEquals(List.of("dir.zhukov"), second.items().stream().map(UserSummaryDTO::username).toList());
+
+        userService.createUser(new UserDTO("dir.zorin", "secret", "Zinovy", "Zorin", null, null, Role.TEACHER));
+        assertEquals(3, userDirectoryService.getPage(Role.TEACHER, "z", 0, 10).total());
+    }
+}
@@ -0,0 +1,53 @@
+package com.agn.web.service;
+
+import com.agn.web.dto.UserDTO;
+import com.agn.web.entity.Role;
+import com.agn.web.entity.User;
+import com.agn.web.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final UsernameAllocator usernameAllocator = new UsernameAllocator(userRepository);
+    private final UserServiceImpl userService = new UserServiceImpl(userRepository, passwordEncoder,
+            mock(CustomUserDetailsService.class), mock(ApplicationEventPublisher.class), usernameAllocator);
+
+    @Test
+    void createReleasesUsernameWhenHashingIsRefused() {
+        when(userRepository.findAllUsernames()).thenReturn(List.of());
+        when(passwordEncoder.encode(anyString())).thenThrow(new TooManyRequestsException("busy"));
+
+        UserDTO request = new UserDTO("ivanov", "secret", "Ivan", "Ivanov", null, null, Role.TEACHER);
+        assertThrows(TooManyRequestsException.class, () -> userService.createUser(request));
+
+        assertTrue(usernameAllocator.claim("ivanov"));
+    }
+
+    @Test
+    void updateDoesNotClaimNewUsernameWhenHashingIsRefused() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("ivanov");
+        when(userRepository.findAllUsernames()).thenReturn(List.of("ivanov"));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(passwordEncoder.encode(anyString())).thenThrow(new TooManyRequestsException("busy"));
+
+        UserDTO request = new UserDTO("ivanov2", "secret", null, null, null, null, null);
+        assertThrows(TooManyRequestsException.class, () -> userService.updateUser(1L, request));
+
+        assertTrue(usernameAllocator.claim("ivanov2"));
+    }
+}
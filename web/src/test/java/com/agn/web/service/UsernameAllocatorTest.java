@@ -0,0 +1,104 @@
+package com.agn.web.service;
+
+import com.agn.web.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UsernameAllocatorTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UsernameAllocator allocator = new UsernameAllocator(userRepository);
+
+    @Test
+    void givesBaseFirstThenNumberedSuffixes() {
+        when(userRepository.findAllUsernames()).thenReturn(List.of());
+
+        assertEquals("ivan.petrov", allocator.allocate("ivan.petrov"));
+        assertEquals("ivan.petrov2", allocator.allocate("ivan.petrov"));
+        assertEquals("ivan.petrov3", allocator.allocate("ivan.petrov"));
+        verify(userRepository, times(1)).findAllUsernames();
+    }
+
+    @Test
+    void continuesAfterHighestExistingSuffix() {
+        when(userRepository.findAllUsernames()).thenReturn(List.of("ivan.petrov", "ivan.petrov7", "anna1234567"));
+
+        assertEquals("ivan.petrov8", allocator.allocate("ivan.petrov"));
+        // Длинный хвост цифр — часть логина, а не номер тёзки
+        assertEquals("anna", allocator.allocate("anna"));
+        assertEquals("anna2", allocator.allocate("anna"));
+    }
+
+    @Test
+    void skipsNamesClaimedExplicitly() {
+        when(userRepository.findAllUsernames()).thenReturn(List.of("oleg"));
+
+        assertTrue(allocator.claim("oleg2"));
+        assertFalse(allocator.claim("oleg"));
+        assertEquals("oleg3", allocator.suggest("oleg"));
+        assertEquals("oleg3", allocator.allocate("oleg"));
+    }
+
+    @Test
+    void suggestReservesNothingAndReleaseFreesName() {
+        when(userRepository.findAllUsernames()).thenReturn(List.of("oleg"));
+
+        assertEquals("oleg2", allocator.suggest("oleg"));
+        assertEquals("oleg2", allocator.suggest("oleg"));
+
+        allocator.release("oleg");
+        assertTrue(allocator.claim("oleg"));
+    }
+
+    @Test
+    void parallelAllocationsNeverCollide() throws Exception {
+        when(userRepository.findAllUsernames()).thenReturn(List.of());
+        int threads = 8;
+        int perThread = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    List<String> names = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) {
+                        names.add(allocator.allocate("ivan.petrov"));
+                    }
+                    return names;
+                }));
+            }
+            start.countDown();
+            Set<String> all = new HashSet<>();
+            for (Future<List<String>> result : results) {
+                all.addAll(result.get());
+            }
+
+            Set<String> expected = new HashSet<>();
+            expected.add("ivan.petrov");
+            for (int suffix = 2; suffix <= threads * perThread; suffix++) {
+                expected.add("ivan.petrov" + suffix);
+            }
+            assertEquals(expected, all);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
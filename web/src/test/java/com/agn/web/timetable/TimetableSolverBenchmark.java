@@ -0,0 +1,69 @@
+package com.agn.web.timetable;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark on a synthetic institution: 500 groups, 6 disciplines each with 2–3 pairs a week,
+ * 375 teachers with 8 disciplines each and a 5 x 6 weekly grid.
+ * <p>
+ * Not part of {@code mvn test} (the class name does not match the surefire includes); run it with
+ * {@code mvn test -Dtest=TimetableSolverBenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class TimetableSolverBenchmark {
+
+    private static final int GROUPS = 500;
+    private static final int DISCIPLINES_PER_GROUP = 6;
+    private static final int TEACHERS = 375;
+
+    @Test
+    void solvesSyntheticInstitutionWithoutOverlaps() {
+        TimetableProblem problem = syntheticInstitution(42);
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        TimetableSolution solution = TimetableSolver.solve(problem, Duration.ofSeconds(10), threads, 7, () -> false);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("Timetable benchmark: {} lessons, {} threads, {} ms, {} moves, hard={}, soft={}",
+                problem.eventCount(), threads, millis, solution.iterations(), solution.hardViolations(),
+                solution.softPenalty());
+        assertEquals(0, solution.hardViolations());
+        assertEquals(problem.eventCount(), solution.slotOfEvent().length);
+    }
+
+    @Test
+    void stopsPromptlyWhenCancelled() {
+        TimetableProblem problem = syntheticInstitution(1);
+
+        long start = System.nanoTime();
+        TimetableSolution solution = TimetableSolver.solve(problem, Duration.ofMinutes(5), 2, 1,
+                () -> System.nanoTime() - start > 200_000_000L);
+
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+        assertEquals(problem.eventCount(), solution.slotOfEvent().length);
+    }
+
+    private static TimetableProblem syntheticInstitution(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        TimetableProblem.Builder builder = TimetableProblem.builder(5, 6);
+        long tag = 0;
+        for (int group = 0; group < GROUPS; group++) {
+            for (int d = 0; d < DISCIPLINES_PER_GROUP; d++) {
+                // Каждый преподаватель ведёт 8 дисциплин — не больше 24 пар при 30 слотах в неделю
+                long teacher = (tag * 7) % TEACHERS;
+                builder.addLessons(tag++, group, teacher, 2 + random.nextInt(2));
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.agn.web.timetable;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Small instances whose optimum is known, so the checks do not depend on machine speed: every round
+ * evaluates at least a thousand moves before it first looks at the clock.
+ */
+class TimetableSolverTest {
+
+    @Test
+    void findsTheOnlyValidPlacementOfABusyTeacher() {
+        // Один преподаватель ведёт 6 пар у трёх групп при 6 слотах — допустимы только перестановки
+        TimetableProblem problem = TimetableProblem.builder(2, 3)
+                .addLessons(1, 100, 7L, 2)
+                .addLessons(2, 101, 7L, 2)
+                .addLessons(3, 102, 7L, 2)
+                .build();
+
+        TimetableSolution solution = TimetableSolver.solve(problem, Duration.ofMillis(200), 1, 1, () -> false);
+
+        assertEquals(0, solution.hardViolations());
+        assertEquals(0, recountHardViolations(problem, solution));
+    }
+
+    @Test
+    void countsUnavoidableOverlapsOfGroupAndTeacher() {
+        // Три пары в двух слотах: одна накладка у группы и одна у преподавателя неизбежны
+        TimetableProblem problem = TimetableProblem.builder(1, 2)
+                .addLessons(1, 100, 7L, 3)
+                .build();
+
+        TimetableSolution solution = TimetableSolver.solve(problem, Duration.ofMillis(200), 1, 1, () -> false);
+
+        assertEquals(2, solution.hardViolations());
+        assertEquals(2, recountHardViolations(problem, solution));
+    }
+
+    @Test
+    void lessonsWithoutTeacherOnlyConflictWithinGroup() {
+        TimetableProblem problem = TimetableProblem.builder(1, 1)
+                .addLessons(1, 100, null, 1)
+                .addLessons(2, 101, null, 1)
+                .build();
+
+        TimetableSolution solution = TimetableSolver.solve(problem, Duration.ofMillis(50), 1, 1, () -> false);
+
+        assertEquals(0, solution.hardViolations());
+    }
+
+    @Test
+    void cancelledBeforeStartReturnsScoredPlacement() {
+        TimetableProblem problem = busyInstance();
+
+        long start = System.nanoTime();
+        TimetableSolution solution = TimetableSolver.solve(problem, Duration.ofMinutes(5), 2, 1, () -> true);
+
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+        assertEquals(0, solution.iterations());
+        assertEquals(problem.eventCount(), solution.slotOfEvent().length);
+        assertEquals(recountHardViolations(problem, solution), solution.hardViolations());
+    }
+
+    @Test
+    void cancelledMidSearchReturnsBestSoFar() {
+        TimetableProblem problem = busyInstance();
+        // Первая проверка — перед раундом, следующие — у каждого потока раз в 1024 хода
+        AtomicInteger checks = new AtomicInteger();
+
+        long start = System.nanoTime();
+        TimetableSolution solution = TimetableSolver.solve(problem, Duration.ofMinutes(5), 1, 1,
+                () -> checks.incrementAndGet() > 3);
+
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+        assertTrue(solution.iterations() > 0);
+        assertEquals(recountHardViolations(problem, solution), solution.hardViolations());
+    }
+
+    private static TimetableProblem busyInstance() {
+        TimetableProblem.Builder builder = TimetableProblem.builder(5, 6);
+        for (int group = 0; group < 20; group++) {
+            for (int d = 0; d < 6; d++) {
+                builder.addLessons(group * 6L + d, group, (long) ((group * 6 + d) % 15), 3);
+            }
+        }
+        return builder.build();
+    }
+
+    /** Накладки по определению: сверх одной пары у группы или преподавателя в одном слоте */
+    private static int recountHardViolations(TimetableProblem problem, TimetableSolution solution) {
+        int slots = problem.days() * problem.periodsPerDay();
+        int[] groupOcc = new int[problem.groupCount * slots];
+        int[] teacherOcc = new int[Math.max(problem.teacherCount, 1) * slots];
+        int violations = 0;
+        for (int e = 0; e < problem.eventCount(); e++) {
+            int s = solution.slotOfEvent()[e];
+            assertTrue(s >= 0 && s < slots);
+            if (groupOcc[problem.eventGroup[e] * slots + s]++ > 0) {
+                violations++;
+            }
+            int teacher = problem.eventTeacher[e];
+            if (teacher >= 0 && teacherOcc[teacher * slots + s]++ > 0) {
+                violations++;
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,80 @@
+package com.agn.web.util;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpreadsheetReaderTest {
+
+    @Test
+    void readsQuotedCsvWithDetectedDelimiter() throws IOException {
+        String csv = "\uFEFFФамилия;Имя;Отчество\r\n"
+                + "Иванов;\"Иван; младший\";\"Петрович\"\r\n"
+                + "\r\n"
+                + "\"Сказал \"\"привет\"\"\";\"две\nстроки\";\n"
+                + "Последний;Без;перевода";
+
+        List<String> rows = readCsv(csv);
+
+        // Номер строки — номер записи, как в Excel: перевод строки внутри кавычек его не увеличивает
+        assertEquals(List.of(
+                "1:[Фамилия, Имя, Отчество]",
+                "2:[Иванов, Иван; младший, Петрович]",
+                "4:[Сказал \"привет\", две\nстроки, ]",
+                "5:[Последний, Без, перевода]"), rows);
+    }
+
+    @Test
+    void defaultsToCommaWhenHeaderHasNoSemicolons() throws IOException {
+        assertEquals(List.of("1:[a, b;c]"), readCsv("a,b;c"));
+    }
+
+    @Test
+    void readsXlsxAlignedByColumnWithIsoDates(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("students.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("lastName");
+            header.createCell(1).setCellValue("firstName");
+            header.createCell(2).setCellValue("middleName");
+            header.createCell(3).setCellValue("dateBorn");
+            // Вторая строка пропущена, в третьей пустая колонка отчества
+            Row row = sheet.createRow(2);
+            row.createCell(0).setCellValue("Иванов");
+            row.createCell(1).setCellValue("Иван");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd.mm.yyyy"));
+            row.createCell(3).setCellValue(LocalDate.of(2005, 3, 14));
+            row.getCell(3).setCellStyle(dateStyle);
+            workbook.write(out);
+        }
+
+        List<String> rows = new ArrayList<>();
+        SpreadsheetReader.readXlsx(file.toFile(), (number, cells) -> rows.add(number + ":" + cells));
+
+        assertEquals(List.of("1:[lastName, firstName, middleName, dateBorn]", "3:[Иванов, Иван, , 2005-03-14]"), rows);
+    }
+
+    private static List<String> readCsv(String csv) throws IOException {
+        List<String> rows = new ArrayList<>();
+        SpreadsheetReader.readCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                (number, cells) -> rows.add(number + ":" + cells));
+        return rows;
+    }
+}